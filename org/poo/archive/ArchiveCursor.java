@@ -0,0 +1,176 @@
+package org.poo.archive;
+
+import org.poo.cache.SetupKey;
+import org.poo.state.StateEncoder;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Walks a range of the games of a {@link GameArchive}. Every getter reads its field straight
+ * from the mapped segment, so a scan only pays for the fields it uses; nothing is allocated
+ * per game, except by {@link #getSetupKey()}. A cursor belongs to one thread.
+ */
+public final class ArchiveCursor {
+
+    private final ByteBuffer[] segments;
+    private final long[] locations;
+    private final long end;
+
+    private long id;
+    private ByteBuffer segment;
+    private int offset;
+
+    /**
+     * Creates a cursor before the first game of a range.
+     *
+     * @param segments  the mapped segments
+     * @param locations the locations of the games, by id
+     * @param first     the id of the first game
+     * @param end       the id after the last game
+     */
+    ArchiveCursor(final ByteBuffer[] segments, final long[] locations, final long first,
+                  final long end) {
+        this.segments = segments;
+        this.locations = locations;
+        this.end = end;
+        this.id = first - 1;
+    }
+
+    /**
+     * Moves to the next game of the range.
+     *
+     * @return false if the range has no more games
+     */
+    public boolean next() {
+        if (id + 1 >= end) {
+            return false;
+        }
+        id++;
+        long location = locations[(int) id];
+        segment = segments[GameArchive.segmentOf(location)];
+        offset = GameArchive.offsetOf(location);
+        return true;
+    }
+
+    /**
+     * Returns the id of the current game.
+     *
+     * @return the id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the setup key of the current game.
+     *
+     * @return the key
+     */
+    public SetupKey getSetupKey() {
+        return SetupKey.readFrom(segment.slice(offset + GameArchive.KEY_OFFSET,
+                SetupKey.BYTES));
+    }
+
+    /**
+     * Returns the index of the deck player one played.
+     *
+     * @return the deck index
+     */
+    public int getPlayerOneDeckIdx() {
+        return segment.getInt(offset + GameArchive.DECK_ONE_OFFSET);
+    }
+
+    /**
+     * Returns the index of the deck player two played.
+     *
+     * @return the deck index
+     */
+    public int getPlayerTwoDeckIdx() {
+        return segment.getInt(offset + GameArchive.DECK_TWO_OFFSET);
+    }
+
+    /**
+     * Returns the hero of player one.
+     *
+     * @return the hero id, as given by {@link org.poo.cards.Card#getHeroId(String)}
+     */
+    public int getPlayerOneHeroId() {
+        return segment.get(offset + GameArchive.HERO_ONE_OFFSET);
+    }
+
+    /**
+     * Returns the hero of player two.
+     *
+     * @return the hero id, as given by {@link org.poo.cards.Card#getHeroId(String)}
+     */
+    public int getPlayerTwoHeroId() {
+        return segment.get(offset + GameArchive.HERO_TWO_OFFSET);
+    }
+
+    /**
+     * Returns the player who started the game.
+     *
+     * @return the index of the starting player
+     */
+    public int getStartingPlayer() {
+        return segment.get(offset + GameArchive.STARTING_OFFSET);
+    }
+
+    /**
+     * Returns the winner of the game.
+     *
+     * @return the index of the winning player, or 0 if the game was abandoned
+     */
+    public int getWinner() {
+        return segment.get(offset + GameArchive.WINNER_OFFSET);
+    }
+
+    /**
+     * Returns the seed both decks were shuffled with.
+     *
+     * @return the shuffle seed
+     */
+    public long getShuffleSeed() {
+        return segment.getLong(offset + GameArchive.SEED_OFFSET);
+    }
+
+    /**
+     * Returns the number of rounds started after the first round of the game.
+     *
+     * @return the number of rounds
+     */
+    public int getRounds() {
+        return segment.getInt(offset + GameArchive.ROUNDS_OFFSET);
+    }
+
+    /**
+     * Returns the number of actions played.
+     *
+     * @return the number of actions
+     */
+    public int getActions() {
+        return segment.getInt(offset + GameArchive.ACTIONS_OFFSET);
+    }
+
+    /**
+     * Decodes one value of the final state of the game, without decoding the values after it.
+     *
+     * @param index the index of the value in the {@link StateEncoder} record
+     * @return the value
+     */
+    public int getStateValue(final int index) {
+        return GameArchive.getInt(segment, offset + GameArchive.FIXED_SIZE, index);
+    }
+
+    /**
+     * Decodes the final state of the game.
+     *
+     * @param out       the destination array, with room for {@link StateEncoder#RECORD_SIZE}
+     *                  values
+     * @param outOffset the index of the first value to write
+     */
+    public void readState(final int[] out, final int outOffset) {
+        GameArchive.getInts(segment, offset + GameArchive.FIXED_SIZE, out, outOffset,
+                StateEncoder.RECORD_SIZE);
+    }
+}
@@ -0,0 +1,366 @@
+package org.poo.archive;
+
+import org.poo.cache.SetupKey;
+import org.poo.cards.Card;
+import org.poo.fileio.StartGameInput;
+import org.poo.state.StateEncoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Stores finished games in memory-mapped segment files, off the heap. Games are numbered in
+ * the order they are appended; the only state kept on the heap is the location of every game,
+ * a {@code long} each, so any game can be read back by id and the segments can be scanned
+ * sequentially, reading only the fields asked for, see {@link ArchiveCursor}.
+ * <p>
+ * A segment starts with a {@link #HEADER_SIZE} byte header: magic, format version, number of
+ * games and offset of the end of the last game. The header is updated after every game is
+ * written, so a segment left by an interrupted run holds every game counted. A game is a
+ * {@link #FIXED_SIZE} byte block (total length, setup key, deck indices, hero ids, starting
+ * player, winner, shuffle seed, rounds and number of actions) followed by its final state, as
+ * encoded by {@link StateEncoder}, with every value written as a zigzag variable-length
+ * quantity. Segment files are allocated at their full size and never grow.
+ * <p>
+ * Games can be appended from any number of threads, and read while other games are appended.
+ */
+public final class GameArchive implements AutoCloseable {
+
+    public static final int MAGIC = 0x47574741;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    public static final int LENGTH_OFFSET = 0;
+    public static final int KEY_OFFSET = LENGTH_OFFSET + Integer.BYTES;
+    public static final int DECK_ONE_OFFSET = KEY_OFFSET + SetupKey.BYTES;
+    public static final int DECK_TWO_OFFSET = DECK_ONE_OFFSET + Integer.BYTES;
+    public static final int HERO_ONE_OFFSET = DECK_TWO_OFFSET + Integer.BYTES;
+    public static final int HERO_TWO_OFFSET = HERO_ONE_OFFSET + Byte.BYTES;
+    public static final int STARTING_OFFSET = HERO_TWO_OFFSET + Byte.BYTES;
+    public static final int WINNER_OFFSET = STARTING_OFFSET + Byte.BYTES;
+    public static final int SEED_OFFSET = WINNER_OFFSET + Byte.BYTES;
+    public static final int ROUNDS_OFFSET = SEED_OFFSET + Long.BYTES;
+    public static final int ACTIONS_OFFSET = ROUNDS_OFFSET + Integer.BYTES;
+
+    /**
+     * Number of bytes of a game before its final state.
+     */
+    public static final int FIXED_SIZE = ACTIONS_OFFSET + Integer.BYTES;
+
+    private static final int COUNT_OFFSET = 2 * Integer.BYTES;
+    private static final int END_OFFSET = 3 * Integer.BYTES;
+    private static final int MAX_VALUE_BYTES = 5;
+    private static final int MAX_GAME_BYTES = FIXED_SIZE
+            + StateEncoder.RECORD_SIZE * MAX_VALUE_BYTES;
+    private static final int VALUE_BITS = 7;
+    private static final int MORE_BIT = 0x80;
+    private static final int VALUE_MASK = 0x7F;
+    private static final int SEGMENT_SHIFT = 32;
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+    private static final int INITIAL_GAMES = 1024;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+    private final ArrayList<Long> segmentFirstGames = new ArrayList<>();
+
+    private long[] locations = new long[INITIAL_GAMES];
+    private long games;
+
+    /**
+     * Opens an archive, creating its directory if needed and indexing the games of its
+     * existing segments.
+     *
+     * @param directory    the directory holding the segments
+     * @param segmentBytes the size of a new segment file
+     * @throws IOException if a segment cannot be mapped or is not an archive segment
+     * @throws IllegalArgumentException if a game may not fit a segment
+     */
+    public GameArchive(final Path directory, final int segmentBytes) throws IOException {
+        if (segmentBytes < HEADER_SIZE + MAX_GAME_BYTES) {
+            throw new IllegalArgumentException("Segments are too small: " + segmentBytes);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+
+        for (int segment = 0; Files.exists(segmentPath(segment)); segment++) {
+            MappedByteBuffer buffer = map(segmentPath(segment), 0);
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+                    || buffer.getInt(Integer.BYTES) != VERSION) {
+                throw new IOException("Not an archive segment: " + segmentPath(segment));
+            }
+            segments.add(buffer);
+            segmentFirstGames.add(games);
+
+            int offset = HEADER_SIZE;
+            int count = buffer.getInt(COUNT_OFFSET);
+            for (int i = 0; i < count; i++) {
+                addLocation(segment, offset);
+                offset += buffer.getInt(offset + LENGTH_OFFSET);
+            }
+            buffer.putInt(END_OFFSET, offset);
+        }
+    }
+
+    private static MappedByteBuffer map(final Path path, final int minBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = Math.max(channel.size(), minBytes);
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("The segment is too large to map: " + path);
+            }
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * Returns the path of a segment.
+     *
+     * @param index the index of the segment
+     * @return the path of the segment file
+     */
+    public Path segmentPath(final int index) {
+        return directory.resolve(String.format("segment-%05d.bin", index));
+    }
+
+    /**
+     * Appends a finished game.
+     *
+     * @param key         the setup key of the game
+     * @param setup       the heroes, starting player and indices of the decks actually
+     *                    played, after any fallback to the first deck
+     * @param shuffleSeed the seed both decks were shuffled with
+     * @param winner      the index of the winning player, or 0 if the game was abandoned
+     * @param rounds      the number of rounds started after the first round of the game
+     * @param actions     the number of actions played
+     * @param state       the array holding the {@link StateEncoder} encoding of the final state
+     * @param offset      the index of the first value of the state
+     * @return the id of the game
+     * @throws IOException if a new segment cannot be created
+     */
+    public synchronized long append(final SetupKey key, final StartGameInput setup,
+                                    final long shuffleSeed, final int winner, final int rounds,
+                                    final int actions, final int[] state, final int offset)
+            throws IOException {
+        MappedByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null
+                || segment.limit() - segment.getInt(END_OFFSET) < MAX_GAME_BYTES) {
+            segment = newSegment();
+        }
+
+        int start = segment.getInt(END_OFFSET);
+        key.writeTo(segment.slice(start + KEY_OFFSET, SetupKey.BYTES));
+        segment.putInt(start + DECK_ONE_OFFSET, setup.getPlayerOneDeckIdx());
+        segment.putInt(start + DECK_TWO_OFFSET, setup.getPlayerTwoDeckIdx());
+        segment.put(start + HERO_ONE_OFFSET,
+                (byte) Card.getHeroId(setup.getPlayerOneHero().getName()));
+        segment.put(start + HERO_TWO_OFFSET,
+                (byte) Card.getHeroId(setup.getPlayerTwoHero().getName()));
+        segment.put(start + STARTING_OFFSET, (byte) setup.getStartingPlayer());
+        segment.put(start + WINNER_OFFSET, (byte) winner);
+        segment.putLong(start + SEED_OFFSET, shuffleSeed);
+        segment.putInt(start + ROUNDS_OFFSET, rounds);
+        segment.putInt(start + ACTIONS_OFFSET, actions);
+
+        int end = start + FIXED_SIZE;
+        for (int i = 0; i < StateEncoder.RECORD_SIZE; i++) {
+            end = putInt(segment, end, state[offset + i]);
+        }
+        segment.putInt(start + LENGTH_OFFSET, end - start);
+
+        segment.putInt(END_OFFSET, end);
+        segment.putInt(COUNT_OFFSET, segment.getInt(COUNT_OFFSET) + 1);
+        addLocation(segments.size() - 1, start);
+        return games - 1;
+    }
+
+    private MappedByteBuffer newSegment() throws IOException {
+        MappedByteBuffer segment = map(segmentPath(segments.size()), segmentBytes);
+        segment.putInt(0, MAGIC);
+        segment.putInt(Integer.BYTES, VERSION);
+        segment.putInt(COUNT_OFFSET, 0);
+        segment.putInt(END_OFFSET, HEADER_SIZE);
+        segments.add(segment);
+        segmentFirstGames.add(games);
+        return segment;
+    }
+
+    private void addLocation(final int segment, final int offset) {
+        if (games == locations.length) {
+            locations = Arrays.copyOf(locations, 2 * locations.length);
+        }
+        locations[(int) games++] = (long) segment << SEGMENT_SHIFT | offset;
+    }
+
+    /**
+     * Writes an int as a zigzag-encoded variable-length quantity.
+     *
+     * @return the position after the value
+     */
+    private static int putInt(final ByteBuffer buffer, final int position, final int value) {
+        int bits = (value << 1) ^ (value >> (Integer.SIZE - 1));
+        int next = position;
+        while ((bits & ~VALUE_MASK) != 0) {
+            buffer.put(next++, (byte) ((bits & VALUE_MASK) | MORE_BIT));
+            bits >>>= VALUE_BITS;
+        }
+        buffer.put(next++, (byte) bits);
+        return next;
+    }
+
+    /**
+     * Decodes the values written by {@link #putInt(ByteBuffer, int, int)}.
+     *
+     * @param buffer   the buffer to read from
+     * @param position the position of the first value
+     * @param out      the destination array
+     * @param offset   the index of the first value to write
+     * @param count    the number of values
+     */
+    static void getInts(final ByteBuffer buffer, final int position, final int[] out,
+                        final int offset, final int count) {
+        int next = position;
+        for (int i = 0; i < count; i++) {
+            int bits = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = buffer.get(next++);
+                bits |= (b & VALUE_MASK) << shift;
+                shift += VALUE_BITS;
+            } while ((b & MORE_BIT) != 0);
+            out[offset + i] = (bits >>> 1) ^ -(bits & 1);
+        }
+    }
+
+    /**
+     * Decodes one of the values written by {@link #putInt(ByteBuffer, int, int)}, skipping
+     * the values before it.
+     *
+     * @param buffer   the buffer to read from
+     * @param position the position of the first value
+     * @param index    the index of the value
+     * @return the value
+     */
+    static int getInt(final ByteBuffer buffer, final int position, final int index) {
+        int next = position;
+        for (int i = 0; i < index; i++) {
+            while ((buffer.get(next) & MORE_BIT) != 0) {
+                next++;
+            }
+            next++;
+        }
+        int bits = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = buffer.get(next++);
+            bits |= (b & VALUE_MASK) << shift;
+            shift += VALUE_BITS;
+        } while ((b & MORE_BIT) != 0);
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+
+    /**
+     * Returns the number of games archived.
+     *
+     * @return the number of games
+     */
+    public synchronized long getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of segments.
+     *
+     * @return the number of segments
+     */
+    public synchronized int getSegments() {
+        return segments.size();
+    }
+
+    /**
+     * Returns a cursor over every game archived so far, in id order.
+     *
+     * @return the cursor, before the first game
+     */
+    public synchronized ArchiveCursor scan() {
+        return cursor(0, games);
+    }
+
+    /**
+     * Returns a cursor over the games of one segment archived so far. Segments can be scanned
+     * by different threads.
+     *
+     * @param segment the index of the segment
+     * @return the cursor, before the first game of the segment
+     */
+    public synchronized ArchiveCursor scan(final int segment) {
+        long end = (segment + 1 < segments.size()) ? segmentFirstGames.get(segment + 1) : games;
+        return cursor(segmentFirstGames.get(segment), end);
+    }
+
+    /**
+     * Returns a cursor on one game.
+     *
+     * @param id the id of the game
+     * @return the cursor, on the game
+     * @throws IllegalArgumentException if no game has that id
+     */
+    public synchronized ArchiveCursor get(final long id) {
+        if (id < 0 || id >= games) {
+            throw new IllegalArgumentException("No archived game with id " + id);
+        }
+        ArchiveCursor cursor = cursor(id, id + 1);
+        cursor.next();
+        return cursor;
+    }
+
+    private ArchiveCursor cursor(final long first, final long end) {
+        return new ArchiveCursor(segments.toArray(new ByteBuffer[0]), locations, first, end);
+    }
+
+    /**
+     * Returns the segment holding a located game.
+     *
+     * @param location the location of the game
+     * @return the index of the segment
+     */
+    static int segmentOf(final long location) {
+        return (int) (location >>> SEGMENT_SHIFT);
+    }
+
+    /**
+     * Returns the offset of a located game in its segment.
+     *
+     * @param location the location of the game
+     * @return the offset of the game
+     */
+    static int offsetOf(final long location) {
+        return (int) (location & OFFSET_MASK);
+    }
+
+    /**
+     * Forces the segments to the disk.
+     */
+    public synchronized void flush() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Forces the segments to the disk. The mappings are released once no cursor uses them.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,106 @@
+package org.poo.archive;
+
+/**
+ * The result of a group-by query of an {@link OutcomeTable}: for every key, the number of
+ * games, the number of wins and the total number of rounds. Games abandoned without a winner
+ * are counted as games that were not won.
+ */
+public final class GroupStats {
+
+    private final long[] games;
+    private final long[] wins;
+    private final long[] rounds;
+
+    /**
+     * Creates empty statistics.
+     *
+     * @param keys the number of keys, from 0
+     */
+    public GroupStats(final int keys) {
+        this.games = new long[keys];
+        this.wins = new long[keys];
+        this.rounds = new long[keys];
+    }
+
+    /**
+     * Counts a game. Games with a negative key, such as an invalid deck index, are not counted.
+     *
+     * @param key        the key of the game
+     * @param won        whether the game was won
+     * @param gameRounds the number of rounds of the game
+     */
+    public void add(final int key, final boolean won, final int gameRounds) {
+        if (key < 0) {
+            return;
+        }
+        games[key]++;
+        if (won) {
+            wins[key]++;
+        }
+        rounds[key] += gameRounds;
+    }
+
+    /**
+     * Adds the counts of other statistics with the same keys to these.
+     *
+     * @param other the other statistics
+     * @return these statistics
+     */
+    public GroupStats merge(final GroupStats other) {
+        for (int key = 0; key < games.length; key++) {
+            games[key] += other.games[key];
+            wins[key] += other.wins[key];
+            rounds[key] += other.rounds[key];
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of keys.
+     *
+     * @return the number of keys, from 0
+     */
+    public int getKeys() {
+        return games.length;
+    }
+
+    /**
+     * Returns the number of games of a key.
+     *
+     * @param key the key
+     * @return the number of games
+     */
+    public long getGames(final int key) {
+        return games[key];
+    }
+
+    /**
+     * Returns the number of games of a key that were won.
+     *
+     * @param key the key
+     * @return the number of wins
+     */
+    public long getWins(final int key) {
+        return wins[key];
+    }
+
+    /**
+     * Returns the share of the games of a key that were won.
+     *
+     * @param key the key
+     * @return the win rate, or 0 if the key has no games
+     */
+    public double getWinRate(final int key) {
+        return (games[key] != 0) ? (double) wins[key] / games[key] : 0;
+    }
+
+    /**
+     * Returns the average number of rounds of the games of a key.
+     *
+     * @param key the key
+     * @return the average number of rounds, or 0 if the key has no games
+     */
+    public double getAverageRounds(final int key) {
+        return (games[key] != 0) ? (double) rounds[key] / games[key] : 0;
+    }
+}
@@ -0,0 +1,218 @@
+package org.poo.archive;
+
+import org.poo.state.StateEncoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes game outcomes into a columnar table: one file per column, each a plain little-endian
+ * array of one primitive value per game, so a query reads only the columns it needs, see
+ * {@link OutcomeTable}. Games are collected in batches and every column is appended when a
+ * batch is full, on {@link #flush()} and on {@link #close()}. The number of games of a table
+ * is the length of its shortest column, so the games of a batch interrupted while being
+ * written are dropped when the table is reopened.
+ */
+public final class OutcomeColumns implements AutoCloseable {
+
+    public static final int WINNER = 0;
+    public static final int STARTING_PLAYER = 1;
+    public static final int HERO_ONE = 2;
+    public static final int HERO_TWO = 3;
+    public static final int DECK_ONE = 4;
+    public static final int DECK_TWO = 5;
+    public static final int ROUNDS = 6;
+    public static final int HEALTH_ONE = 7;
+    public static final int HEALTH_TWO = 8;
+
+    /**
+     * The number of columns.
+     */
+    public static final int COLUMNS = 9;
+
+    private static final String[] NAMES = {"winner", "starting-player", "hero-one", "hero-two",
+        "deck-one", "deck-two", "rounds", "health-one", "health-two"};
+    private static final int[] WIDTHS = {Byte.BYTES, Byte.BYTES, Byte.BYTES, Byte.BYTES,
+        Integer.BYTES, Integer.BYTES, Integer.BYTES, Integer.BYTES, Integer.BYTES};
+
+    private final FileChannel[] channels = new FileChannel[COLUMNS];
+    private final ByteBuffer[] batches = new ByteBuffer[COLUMNS];
+    private final int batchRows;
+
+    private int pending;
+    private long rows;
+
+    /**
+     * Opens a table, creating its directory and columns if needed and appending to the
+     * existing games otherwise.
+     *
+     * @param directory the directory holding the columns
+     * @param batchRows the number of games in a batch
+     * @throws IOException if a column cannot be opened
+     */
+    public OutcomeColumns(final Path directory, final int batchRows) throws IOException {
+        Files.createDirectories(directory);
+        this.batchRows = Math.max(1, batchRows);
+        this.rows = countRows(directory);
+
+        try {
+            for (int column = 0; column < COLUMNS; column++) {
+                channels[column] = FileChannel.open(columnPath(directory, column),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                channels[column].truncate(rows * WIDTHS[column]);
+                channels[column].position(rows * WIDTHS[column]);
+                batches[column] = ByteBuffer.allocateDirect(this.batchRows * WIDTHS[column])
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the file of a column.
+     *
+     * @param directory the directory holding the columns
+     * @param column    the index of the column
+     * @return the path of the column file
+     */
+    public static Path columnPath(final Path directory, final int column) {
+        return directory.resolve(NAMES[column] + ".col");
+    }
+
+    /**
+     * Returns the width of a column.
+     *
+     * @param column the index of the column
+     * @return the number of bytes of a value
+     */
+    public static int columnWidth(final int column) {
+        return WIDTHS[column];
+    }
+
+    /**
+     * Returns the number of games of a table, the length of its shortest column.
+     *
+     * @param directory the directory holding the columns
+     * @return the number of games, 0 if a column is missing
+     * @throws IOException if a column cannot be read
+     */
+    public static long countRows(final Path directory) throws IOException {
+        long count = Long.MAX_VALUE;
+        for (int column = 0; column < COLUMNS; column++) {
+            Path path = columnPath(directory, column);
+            if (!Files.exists(path)) {
+                return 0;
+            }
+            count = Math.min(count, Files.size(path) / WIDTHS[column]);
+        }
+        return count;
+    }
+
+    /**
+     * Adds the outcome of a game.
+     *
+     * @param winner         the index of the winning player, or 0 if the game was abandoned
+     * @param startingPlayer the index of the player who started
+     * @param heroOne        the hero id of player one
+     * @param heroTwo        the hero id of player two
+     * @param deckOne        the deck index of player one
+     * @param deckTwo        the deck index of player two
+     * @param rounds         the number of rounds started after the first round of the game
+     * @param healthOne      the final health of player one's hero
+     * @param healthTwo      the final health of player two's hero
+     */
+    public void append(final int winner, final int startingPlayer, final int heroOne,
+                       final int heroTwo, final int deckOne, final int deckTwo,
+                       final int rounds, final int healthOne, final int healthTwo) {
+        batches[WINNER].put((byte) winner);
+        batches[STARTING_PLAYER].put((byte) startingPlayer);
+        batches[HERO_ONE].put((byte) heroOne);
+        batches[HERO_TWO].put((byte) heroTwo);
+        batches[DECK_ONE].putInt(deckOne);
+        batches[DECK_TWO].putInt(deckTwo);
+        batches[ROUNDS].putInt(rounds);
+        batches[HEALTH_ONE].putInt(healthOne);
+        batches[HEALTH_TWO].putInt(healthTwo);
+        rows++;
+        if (++pending == batchRows) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new IllegalStateException("Writing the outcome columns failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Adds the outcomes of every game of an archive. The final hero health of both players is
+     * read from the final states.
+     *
+     * @param archive the archive
+     * @return the number of games added
+     */
+    public long appendAll(final GameArchive archive) {
+        long added = 0;
+        ArchiveCursor cursor = archive.scan();
+        while (cursor.next()) {
+            append(cursor.getWinner(), cursor.getStartingPlayer(), cursor.getPlayerOneHeroId(),
+                    cursor.getPlayerTwoHeroId(), cursor.getPlayerOneDeckIdx(),
+                    cursor.getPlayerTwoDeckIdx(), cursor.getRounds(),
+                    cursor.getStateValue(StateEncoder.HERO_HEALTH),
+                    cursor.getStateValue(StateEncoder.PLAYER_SIZE + StateEncoder.HERO_HEALTH));
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Returns the number of games of the table, counting the games not yet written.
+     *
+     * @return the number of games
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Appends the games collected so far to the columns.
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        for (int column = 0; column < COLUMNS; column++) {
+            ByteBuffer batch = batches[column].flip();
+            while (batch.hasRemaining()) {
+                channels[column].write(batch);
+            }
+            batch.clear();
+        }
+        pending = 0;
+    }
+
+    /**
+     * Appends the remaining games and closes the columns.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (pending > 0) {
+                flush();
+            }
+        } finally {
+            for (FileChannel channel : channels) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.poo.archive;
+
+import org.poo.game.Constants;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Answers group-by queries over the game outcomes written by {@link OutcomeColumns}. The
+ * columns are memory-mapped and a query reads only the columns it groups and counts by, in
+ * tight loops over primitive values. The games are split into chunks scanned in parallel, each
+ * into its own {@link GroupStats}, merged once every chunk is done.
+ * <p>
+ * A table is read as it was when opened; games appended later are not seen.
+ */
+public final class OutcomeTable {
+
+    private static final int CHUNK_ROWS = 1 << 20;
+
+    private final ByteBuffer[] columns = new ByteBuffer[OutcomeColumns.COLUMNS];
+    private final IntBuffer[] intColumns = new IntBuffer[OutcomeColumns.COLUMNS];
+    private final int rows;
+
+    /**
+     * Maps the columns of a table.
+     *
+     * @param directory the directory holding the columns
+     * @throws IOException if a column cannot be mapped
+     * @throws IllegalArgumentException if a column is too large to map
+     */
+    public OutcomeTable(final Path directory) throws IOException {
+        long count = OutcomeColumns.countRows(directory);
+        if (count * Integer.BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many games to map: " + count);
+        }
+        this.rows = (int) count;
+
+        for (int column = 0; column < OutcomeColumns.COLUMNS; column++) {
+            int width = OutcomeColumns.columnWidth(column);
+            if (rows == 0) {
+                columns[column] = ByteBuffer.allocate(0);
+            } else {
+                try (FileChannel channel = FileChannel.open(
+                        OutcomeColumns.columnPath(directory, column), StandardOpenOption.READ)) {
+                    columns[column] = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                            (long) rows * width);
+                }
+            }
+            columns[column].order(ByteOrder.LITTLE_ENDIAN);
+            if (width == Integer.BYTES) {
+                intColumns[column] = columns[column].asIntBuffer();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of games of the table.
+     *
+     * @return the number of games
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Counts the games and wins of every hero, over both players.
+     *
+     * @return the statistics, by hero id
+     */
+    public GroupStats winRateByHero() {
+        int keys = Math.max(keysOf(OutcomeColumns.HERO_ONE), keysOf(OutcomeColumns.HERO_TWO));
+        ByteBuffer winner = columns[OutcomeColumns.WINNER];
+        ByteBuffer heroOne = columns[OutcomeColumns.HERO_ONE];
+        ByteBuffer heroTwo = columns[OutcomeColumns.HERO_TWO];
+        IntBuffer rounds = intColumns[OutcomeColumns.ROUNDS];
+
+        return aggregate(keys, (from, to, stats) -> {
+            for (int i = from; i < to; i++) {
+                int won = winner.get(i);
+                int gameRounds = rounds.get(i);
+                stats.add(heroOne.get(i), won == Constants.ONE, gameRounds);
+                stats.add(heroTwo.get(i), won == Constants.TWO, gameRounds);
+            }
+        });
+    }
+
+    /**
+     * Counts the games of every starting player and how many of them the starting player won.
+     *
+     * @return the statistics, by index of the starting player
+     */
+    public GroupStats winRateByStartingPlayer() {
+        ByteBuffer winner = columns[OutcomeColumns.WINNER];
+        ByteBuffer starting = columns[OutcomeColumns.STARTING_PLAYER];
+        IntBuffer rounds = intColumns[OutcomeColumns.ROUNDS];
+
+        return aggregate(keysOf(OutcomeColumns.STARTING_PLAYER), (from, to, stats) -> {
+            for (int i = from; i < to; i++) {
+                int startingPlayer = starting.get(i);
+                stats.add(startingPlayer, winner.get(i) == startingPlayer, rounds.get(i));
+            }
+        });
+    }
+
+    /**
+     * Counts the games and wins of every deck of a player.
+     *
+     * @param playerIdx the index of the player
+     * @return the statistics, by deck index
+     */
+    public GroupStats winRateByDeck(final int playerIdx) {
+        int column = (playerIdx == Constants.ONE) ? OutcomeColumns.DECK_ONE
+                : OutcomeColumns.DECK_TWO;
+        ByteBuffer winner = columns[OutcomeColumns.WINNER];
+        IntBuffer decks = intColumns[column];
+        IntBuffer rounds = intColumns[OutcomeColumns.ROUNDS];
+
+        return aggregate(keysOf(column), (from, to, stats) -> {
+            for (int i = from; i < to; i++) {
+                stats.add(decks.get(i), winner.get(i) == playerIdx, rounds.get(i));
+            }
+        });
+    }
+
+    /**
+     * Returns the average final health of a player's hero.
+     *
+     * @param playerIdx the index of the player
+     * @return the average health, or 0 if the table is empty
+     */
+    public double averageFinalHealth(final int playerIdx) {
+        IntBuffer health = intColumns[(playerIdx == Constants.ONE) ? OutcomeColumns.HEALTH_ONE
+                : OutcomeColumns.HEALTH_TWO];
+        return IntStream.range(0, rows).parallel().map(health::get).average().orElse(0);
+    }
+
+    /**
+     * Counts the rows of a range of games.
+     */
+    @FunctionalInterface
+    private interface RangeQuery {
+        void add(int from, int to, GroupStats stats);
+    }
+
+    private GroupStats aggregate(final int keys, final RangeQuery query) {
+        int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    GroupStats stats = new GroupStats(keys);
+                    int from = chunk * CHUNK_ROWS;
+                    query.add(from, Math.min(rows, from + CHUNK_ROWS), stats);
+                    return stats;
+                })
+                .reduce(GroupStats::merge)
+                .orElseGet(() -> new GroupStats(keys));
+    }
+
+    /**
+     * Returns the number of keys a column groups by: its largest value plus one.
+     */
+    private int keysOf(final int column) {
+        IntStream values = IntStream.range(0, rows).parallel();
+        if (intColumns[column] != null) {
+            IntBuffer ints = intColumns[column];
+            return values.map(ints::get).max().orElse(-1) + 1;
+        }
+        ByteBuffer bytes = columns[column];
+        return values.map(bytes::get).max().orElse(-1) + 1;
+    }
+}
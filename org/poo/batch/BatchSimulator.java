@@ -0,0 +1,536 @@
+package org.poo.batch;
+
+import org.poo.cards.Card;
+import org.poo.cards.Minion;
+import org.poo.env.ActionSpace;
+import org.poo.game.Constants;
+import org.poo.player.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Simulates the table, mana and heroes of many games in lock-step. The state is stored as
+ * struct-of-arrays: every table cell (row * 5 + position, as in the game coordinates) owns a
+ * contiguous block of {@code lanes} values, so cell {@code c} of game {@code lane} lives at
+ * index {@code c * lanes + lane}. Per-player values live at {@code (playerIdx - 1) * lanes +
+ * lane}.
+ * <p>
+ * Every operation applies the same action to all the games selected by a lane mask (-1 for
+ * selected lanes, 0 for the others). The loops over lanes are plain counted loops over
+ * primitive arrays with branch-free bodies, which lets the JIT unroll and vectorize them.
+ * Hands and decks are not modelled, cards enter the batch through {@link #load} or
+ * {@link #placeCard}.
+ */
+public final class BatchSimulator {
+
+    public static final int PRESENT = 1;
+    public static final int FROZEN = 2;
+    public static final int ATTACKED = 4;
+    public static final int TANK = 8;
+
+    private static final int CELLS = ActionSpace.TABLE_SLOTS;
+    private static final int ROWS = ActionSpace.TABLE_ROWS;
+    private static final int ROW_SLOTS = ActionSpace.ROW_SLOTS;
+    private static final int MAX_MANA_INCREMENT = Constants.TEN;
+
+    private final int lanes;
+
+    private final int[] health;
+    private final int[] attack;
+    private final int[] flags;
+    private final int[] rowSize;
+
+    private final int[] mana;
+    private final int[] manaIncrement;
+    private final int[] heroHealth;
+    private final int[] heroAttacked;
+    private final int[] winner;
+
+    private final int[] allLanes;
+    private final int[] selected;
+
+    /**
+     * Creates a batch of empty games.
+     *
+     * @param lanes the number of games simulated together
+     */
+    public BatchSimulator(final int lanes) {
+        this.lanes = lanes;
+        this.health = new int[CELLS * lanes];
+        this.attack = new int[CELLS * lanes];
+        this.flags = new int[CELLS * lanes];
+        this.rowSize = new int[ROWS * lanes];
+        this.mana = new int[2 * lanes];
+        this.manaIncrement = new int[2 * lanes];
+        this.heroHealth = new int[2 * lanes];
+        this.heroAttacked = new int[2 * lanes];
+        this.winner = new int[lanes];
+        this.allLanes = new int[lanes];
+        this.selected = new int[lanes];
+        Arrays.fill(allLanes, -1);
+    }
+
+    /**
+     * Returns the number of games in the batch.
+     *
+     * @return the number of lanes
+     */
+    public int getLanes() {
+        return lanes;
+    }
+
+    /**
+     * Returns a lane mask selecting every game. The mask must not be modified.
+     *
+     * @return the mask of all lanes
+     */
+    public int[] getAllLanes() {
+        return allLanes;
+    }
+
+    /**
+     * Copies the table, mana and heroes of a live game into a lane.
+     *
+     * @param lane    the lane to overwrite
+     * @param player1 player one of the game
+     * @param player2 player two of the game
+     */
+    public void load(final int lane, final Player player1, final Player player2) {
+        for (int x = 0; x < ROWS; x++) {
+            ArrayList<Minion> row = Player.getRowIndex(x >= Constants.TWO ? player1 : player2, x);
+            rowSize[x * lanes + lane] = row.size();
+            for (int y = 0; y < ROW_SLOTS; y++) {
+                int i = (x * ROW_SLOTS + y) * lanes + lane;
+                Minion card = (y < row.size()) ? row.get(y) : null;
+                health[i] = (card != null) ? card.getHealth() : 0;
+                attack[i] = (card != null) ? card.getAttackDamage() : 0;
+                flags[i] = (card != null) ? cardFlags(card) : 0;
+            }
+        }
+
+        Player[] players = {player1, player2};
+        for (int p = 0; p < 2; p++) {
+            int i = p * lanes + lane;
+            mana[i] = players[p].getManaManager().getMana();
+            manaIncrement[i] = players[p].getManaManager().getManaIncrement();
+            heroHealth[i] = players[p].getHero().getHealth();
+            heroAttacked[i] = players[p].getHero().getHasAttacked() ? 1 : 0;
+        }
+        winner[lane] = Constants.ZERO;
+    }
+
+    private static int cardFlags(final Card card) {
+        return PRESENT
+                | (card.isFrozen() ? FROZEN : 0)
+                | (card.getHasAttacked() ? ATTACKED : 0)
+                | (Card.isTank(card) ? TANK : 0);
+    }
+
+    /**
+     * Places a card at the end of a row in every selected game with enough mana and room.
+     *
+     * @param playerIdx    the player placing the card
+     * @param row          the table row the card goes to
+     * @param cost         the mana cost of the card
+     * @param cardAttack   the attack damage of the card
+     * @param cardHealth   the health of the card
+     * @param tank         whether the card is a tank
+     * @param laneMask     the selected lanes
+     */
+    public void placeCard(final int playerIdx, final int row, final int cost,
+                          final int cardAttack, final int cardHealth, final boolean tank,
+                          final int[] laneMask) {
+        checkOwnRow(playerIdx, row, true);
+        int p = (playerIdx - 1) * lanes;
+        int r = row * lanes;
+        for (int lane = 0; lane < lanes; lane++) {
+            int size = rowSize[r + lane];
+            if (laneMask[lane] == 0 || size >= ROW_SLOTS || mana[p + lane] < cost) {
+                continue;
+            }
+            int i = (row * ROW_SLOTS + size) * lanes + lane;
+            health[i] = cardHealth;
+            attack[i] = cardAttack;
+            flags[i] = PRESENT | (tank ? TANK : 0);
+            rowSize[r + lane] = size + 1;
+            mana[p + lane] -= cost;
+        }
+    }
+
+    /**
+     * Adds health to every card of a row (King Mudface's ability).
+     *
+     * @param row      the table row
+     * @param amount   the health to add
+     * @param laneMask the selected lanes
+     */
+    public void addRowHealth(final int row, final int amount, final int[] laneMask) {
+        for (int y = 0; y < ROW_SLOTS; y++) {
+            int base = (row * ROW_SLOTS + y) * lanes;
+            for (int lane = 0; lane < lanes; lane++) {
+                health[base + lane] += amount & laneMask[lane] & -(flags[base + lane] & PRESENT);
+            }
+        }
+    }
+
+    /**
+     * Adds attack damage to every card of a row (General Kocioraw's ability).
+     *
+     * @param row      the table row
+     * @param amount   the attack damage to add
+     * @param laneMask the selected lanes
+     */
+    public void addRowAttack(final int row, final int amount, final int[] laneMask) {
+        for (int y = 0; y < ROW_SLOTS; y++) {
+            int base = (row * ROW_SLOTS + y) * lanes;
+            for (int lane = 0; lane < lanes; lane++) {
+                attack[base + lane] += amount & laneMask[lane] & -(flags[base + lane] & PRESENT);
+            }
+        }
+    }
+
+    /**
+     * Freezes every card of a row (Lord Royce's ability).
+     *
+     * @param row      the table row
+     * @param laneMask the selected lanes
+     */
+    public void freezeRow(final int row, final int[] laneMask) {
+        for (int y = 0; y < ROW_SLOTS; y++) {
+            int base = (row * ROW_SLOTS + y) * lanes;
+            for (int lane = 0; lane < lanes; lane++) {
+                flags[base + lane] |= FROZEN & laneMask[lane] & -(flags[base + lane] & PRESENT);
+            }
+        }
+    }
+
+    /**
+     * Destroys the card with the highest health of a row (Empress Thorina's ability).
+     *
+     * @param row      the table row
+     * @param laneMask the selected lanes
+     */
+    public void destroyHighestHealth(final int row, final int[] laneMask) {
+        for (int lane = 0; lane < lanes; lane++) {
+            int size = rowSize[row * lanes + lane];
+            if (laneMask[lane] == 0 || size == 0) {
+                continue;
+            }
+            int best = 0;
+            for (int y = 1; y < size; y++) {
+                if (health[(row * ROW_SLOTS + y) * lanes + lane]
+                        > health[(row * ROW_SLOTS + best) * lanes + lane]) {
+                    best = y;
+                }
+            }
+            flags[(row * ROW_SLOTS + best) * lanes + lane] = 0;
+        }
+        compactRow(row, laneMask);
+    }
+
+    /**
+     * Uses the hero ability of a player in every selected game where the hero has enough mana
+     * and has not used it this turn, then applies its effect on the given row.
+     *
+     * @param playerIdx the player using the ability
+     * @param heroName  the name of the hero
+     * @param cost      the mana cost of the ability
+     * @param row       the affected table row
+     * @param laneMask  the selected lanes
+     * @return the lanes where the ability was used; the array is reused by the next call
+     */
+    public int[] useHeroAbility(final int playerIdx, final String heroName, final int cost,
+                                final int row, final int[] laneMask) {
+        boolean enemyRow = switch (heroName) {
+            case "Lord Royce", "Empress Thorina" -> true;
+            case "General Kocioraw", "King Mudface" -> false;
+            default -> throw new IllegalStateException("Unexpected value: " + heroName);
+        };
+        checkOwnRow(playerIdx, row, !enemyRow);
+
+        int p = (playerIdx - 1) * lanes;
+        for (int lane = 0; lane < lanes; lane++) {
+            int ready = positive(mana[p + lane] - cost + 1)
+                    & ~nonZero(heroAttacked[p + lane])
+                    & laneMask[lane];
+            selected[lane] = ready;
+            mana[p + lane] -= cost & ready;
+            heroAttacked[p + lane] |= ready & 1;
+        }
+
+        switch (heroName) {
+            case "Lord Royce" -> freezeRow(row, selected);
+            case "Empress Thorina" -> destroyHighestHealth(row, selected);
+            case "General Kocioraw" -> addRowAttack(row, 1, selected);
+            default -> addRowHealth(row, 1, selected);
+        }
+        return selected;
+    }
+
+    /**
+     * Makes a card attack an enemy card in every selected game where the attack is allowed.
+     * Cards left without health are removed and the row is shifted to the left.
+     *
+     * @param attackX  the row of the attacking card
+     * @param attackY  the position of the attacking card
+     * @param defendX  the row of the attacked card
+     * @param defendY  the position of the attacked card
+     * @param laneMask the selected lanes
+     */
+    public void cardAttack(final int attackX, final int attackY, final int defendX,
+                           final int defendY, final int[] laneMask) {
+        if ((attackX >= Constants.TWO) == (defendX >= Constants.TWO)) {
+            throw new IllegalArgumentException("Attacked card does not belong to the enemy.");
+        }
+        int front = (defendX >= Constants.TWO) ? Constants.TWO : Constants.ONE;
+        int a = (attackX * ROW_SLOTS + attackY) * lanes;
+        int d = (defendX * ROW_SLOTS + defendY) * lanes;
+
+        computeTankFree(front);
+        for (int lane = 0; lane < lanes; lane++) {
+            int f = flags[a + lane];
+            int g = flags[d + lane];
+            int ok = ~nonZero((f & (PRESENT | FROZEN | ATTACKED)) ^ PRESENT)
+                    & nonZero(g & PRESENT)
+                    & (nonZero(g & TANK) | selected[lane])
+                    & laneMask[lane];
+
+            flags[a + lane] = f | (ATTACKED & ok);
+            int left = health[d + lane] - (attack[a + lane] & ok);
+            health[d + lane] = left;
+            flags[d + lane] = g & ~(PRESENT & ~positive(left) & ok);
+        }
+        compactRow(defendX, laneMask);
+    }
+
+    /**
+     * Makes a card attack the enemy hero in every selected game where the attack is allowed,
+     * recording the attacker's player as the winner when the hero dies.
+     *
+     * @param attackX  the row of the attacking card
+     * @param attackY  the position of the attacking card
+     * @param laneMask the selected lanes
+     */
+    public void attackHero(final int attackX, final int attackY, final int[] laneMask) {
+        int attacker = (attackX >= Constants.TWO) ? Constants.ONE : Constants.TWO;
+        int front = (attacker == Constants.ONE) ? Constants.ONE : Constants.TWO;
+        int h = (Constants.TWO - attacker) * lanes;
+        int a = (attackX * ROW_SLOTS + attackY) * lanes;
+
+        computeTankFree(front);
+        for (int lane = 0; lane < lanes; lane++) {
+            int f = flags[a + lane];
+            int ok = ~nonZero((f & (PRESENT | FROZEN | ATTACKED)) ^ PRESENT)
+                    & selected[lane]
+                    & laneMask[lane];
+
+            flags[a + lane] = f | (ATTACKED & ok);
+            int left = heroHealth[h + lane] - (attack[a + lane] & ok);
+            heroHealth[h + lane] = left;
+            winner[lane] |= attacker & ~positive(left) & ok & ~nonZero(winner[lane]);
+        }
+    }
+
+    /**
+     * Ends the turn of a player: unfreezes their cards and clears the attack flags of their
+     * cards and hero.
+     *
+     * @param playerIdx the player ending the turn
+     * @param laneMask  the selected lanes
+     */
+    public void endPlayerTurn(final int playerIdx, final int[] laneMask) {
+        int first = (playerIdx == Constants.ONE) ? Constants.TWO : Constants.ZERO;
+        for (int cell = first * ROW_SLOTS; cell < (first + 2) * ROW_SLOTS; cell++) {
+            int base = cell * lanes;
+            for (int lane = 0; lane < lanes; lane++) {
+                flags[base + lane] &= ~((FROZEN | ATTACKED) & laneMask[lane]);
+            }
+        }
+        int p = (playerIdx - 1) * lanes;
+        for (int lane = 0; lane < lanes; lane++) {
+            heroAttacked[p + lane] &= ~laneMask[lane];
+        }
+    }
+
+    /**
+     * Starts a new round: increments the mana of both players and clears the attack flags of
+     * every card.
+     *
+     * @param laneMask the selected lanes
+     */
+    public void startNewRound(final int[] laneMask) {
+        incrementMana(Constants.ONE, laneMask);
+        incrementMana(Constants.TWO, laneMask);
+        for (int cell = 0; cell < CELLS; cell++) {
+            int base = cell * lanes;
+            for (int lane = 0; lane < lanes; lane++) {
+                flags[base + lane] &= ~(ATTACKED & laneMask[lane]);
+            }
+        }
+    }
+
+    /**
+     * Increments the mana of a player, as {@code ManaManager.incrementMana} does.
+     *
+     * @param playerIdx the player receiving mana
+     * @param laneMask  the selected lanes
+     */
+    public void incrementMana(final int playerIdx, final int[] laneMask) {
+        int p = (playerIdx - 1) * lanes;
+        for (int lane = 0; lane < lanes; lane++) {
+            int m = laneMask[lane];
+            int increment = Math.min(manaIncrement[p + lane] + 1, MAX_MANA_INCREMENT);
+            manaIncrement[p + lane] = (increment & m) | (manaIncrement[p + lane] & ~m);
+            mana[p + lane] += increment & m;
+        }
+    }
+
+    /**
+     * Returns -1 if the value is greater than 0 and 0 otherwise, without branching.
+     */
+    private static int positive(final int value) {
+        return -value >> (Integer.SIZE - 1);
+    }
+
+    /**
+     * Returns -1 if the non-negative value is not 0 and 0 otherwise, without branching.
+     */
+    private static int nonZero(final int value) {
+        return positive(value);
+    }
+
+    /**
+     * Stores in {@code selected} -1 for the lanes whose given front row holds no tank.
+     */
+    private void computeTankFree(final int front) {
+        Arrays.fill(selected, -1);
+        for (int y = 0; y < ROW_SLOTS; y++) {
+            int base = (front * ROW_SLOTS + y) * lanes;
+            for (int lane = 0; lane < lanes; lane++) {
+                selected[lane] &= nonZero((flags[base + lane] & (PRESENT | TANK))
+                        ^ (PRESENT | TANK));
+            }
+        }
+    }
+
+    /**
+     * Shifts the remaining cards of a row to the left after some of them were removed.
+     */
+    private void compactRow(final int row, final int[] laneMask) {
+        for (int lane = 0; lane < lanes; lane++) {
+            if (laneMask[lane] == 0) {
+                continue;
+            }
+            int size = 0;
+            for (int y = 0; y < rowSize[row * lanes + lane]; y++) {
+                int from = (row * ROW_SLOTS + y) * lanes + lane;
+                if ((flags[from] & PRESENT) == 0) {
+                    continue;
+                }
+                int to = (row * ROW_SLOTS + size) * lanes + lane;
+                health[to] = health[from];
+                attack[to] = attack[from];
+                flags[to] = flags[from];
+                size++;
+            }
+            for (int y = size; y < rowSize[row * lanes + lane]; y++) {
+                flags[(row * ROW_SLOTS + y) * lanes + lane] = 0;
+            }
+            rowSize[row * lanes + lane] = size;
+        }
+    }
+
+    private static void checkOwnRow(final int playerIdx, final int row, final boolean own) {
+        boolean playerOneRow = row >= Constants.TWO;
+        if (own && playerOneRow != (playerIdx == Constants.ONE)) {
+            throw new IllegalArgumentException("Selected row does not belong to the current "
+                    + "player.");
+        }
+        if (!own && playerOneRow == (playerIdx == Constants.ONE)) {
+            throw new IllegalArgumentException("Selected row does not belong to the enemy.");
+        }
+    }
+
+    /**
+     * Returns the health of a card, or 0 for an empty position.
+     *
+     * @param lane the game
+     * @param x    the table row
+     * @param y    the position in the row
+     * @return the health of the card
+     */
+    public int getHealth(final int lane, final int x, final int y) {
+        int i = (x * ROW_SLOTS + y) * lanes + lane;
+        return ((flags[i] & PRESENT) != 0) ? health[i] : 0;
+    }
+
+    /**
+     * Returns the attack damage of a card, or 0 for an empty position.
+     *
+     * @param lane the game
+     * @param x    the table row
+     * @param y    the position in the row
+     * @return the attack damage of the card
+     */
+    public int getAttackDamage(final int lane, final int x, final int y) {
+        int i = (x * ROW_SLOTS + y) * lanes + lane;
+        return ((flags[i] & PRESENT) != 0) ? attack[i] : 0;
+    }
+
+    /**
+     * Returns the flags of a table position.
+     *
+     * @param lane the game
+     * @param x    the table row
+     * @param y    the position in the row
+     * @return a combination of {@link #PRESENT}, {@link #FROZEN}, {@link #ATTACKED} and
+     *         {@link #TANK}
+     */
+    public int getFlags(final int lane, final int x, final int y) {
+        return flags[(x * ROW_SLOTS + y) * lanes + lane];
+    }
+
+    /**
+     * Returns the number of cards on a row.
+     *
+     * @param lane the game
+     * @param x    the table row
+     * @return the number of cards
+     */
+    public int getRowSize(final int lane, final int x) {
+        return rowSize[x * lanes + lane];
+    }
+
+    /**
+     * Returns the mana of a player.
+     *
+     * @param lane      the game
+     * @param playerIdx the player
+     * @return the mana
+     */
+    public int getMana(final int lane, final int playerIdx) {
+        return mana[(playerIdx - 1) * lanes + lane];
+    }
+
+    /**
+     * Returns the health of a player's hero.
+     *
+     * @param lane      the game
+     * @param playerIdx the player
+     * @return the hero's health
+     */
+    public int getHeroHealth(final int lane, final int playerIdx) {
+        return heroHealth[(playerIdx - 1) * lanes + lane];
+    }
+
+    /**
+     * Returns the winner of a game.
+     *
+     * @param lane the game
+     * @return the index of the player who killed the enemy hero, or 0
+     */
+    public int getWinner(final int lane) {
+        return winner[lane];
+    }
+}
@@ -0,0 +1,142 @@
+package org.poo.bench;
+
+import org.poo.env.ActionSpace;
+import org.poo.env.GameEnvironment;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.game.Constants;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that the moves of the engine allocate nothing once warmed up. Random legal moves are
+ * played through {@link GameEnvironment} between synthetic decks; after the warmup passes, the
+ * bytes allocated by the thread during every {@link GameEnvironment#step(int)} are added up
+ * per command, as reported by
+ * {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}. Choosing the moves
+ * and resetting the games are not measured. Every pass plays the same games, so the measured
+ * pass finds the minions of the decks already created and the hands at their largest: what is
+ * left is what the moves allocate every time they are played.
+ * <p>
+ * Usage: {@code AllocationCheck [deck sizes] [games]}, for example
+ * {@code AllocationCheck 10,30 2000}. The deck sizes default to {@value #DEFAULT_DECK_SIZES}
+ * and the number of games of every pass to {@value #DEFAULT_GAMES}. One line is printed per
+ * command, with the number of moves measured and the bytes they allocated, in total and per
+ * move; the check fails if any command allocated.
+ */
+public final class AllocationCheck {
+
+    private static final String DEFAULT_DECK_SIZES = "10,30,60";
+    private static final int DEFAULT_GAMES = 2000;
+    private static final int WARMUP_PASSES = 3;
+    private static final int SETUPS = 8;
+    private static final int MAX_GAME_MOVES = 400;
+    private static final int PROBES = 1000;
+    private static final long SEED = 11;
+
+    private static final String[] MOVES = {"", "endPlayerTurn", "placeCard", "cardUsesAttack",
+        "cardUsesAbility", "useAttackHero", "useHeroAbility"};
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<GameEnvironment> environments = new ArrayList<>();
+    private final boolean[] mask = new boolean[ActionSpace.SIZE];
+    private final int[] legal = new int[ActionSpace.SIZE];
+    private final long[] bytes = new long[MOVES.length];
+    private final long[] moves = new long[MOVES.length];
+    private final Random random = new Random(SEED);
+
+    private AllocationCheck(final int[] deckSizes) {
+        for (int deckSize : deckSizes) {
+            Input input = BenchInputs.createInput(deckSize, SETUPS, SEED + deckSize);
+            for (GameInput game : input.getGames()) {
+                environments.add(new GameEnvironment(input, game.getStartGame()));
+            }
+        }
+    }
+
+    /**
+     * Runs the check.
+     *
+     * @param args the deck sizes and the number of games of every pass, both optional
+     * @throws IllegalStateException if a move allocated, or if the JVM cannot measure the
+     *                               allocations of a thread
+     */
+    public static void main(final String[] args) {
+        int[] deckSizes = Arrays.stream(((args.length > 0) ? args[0] : DEFAULT_DECK_SIZES)
+                .split(",")).mapToInt(Integer::parseInt).toArray();
+        int games = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_GAMES;
+
+        AllocationCheck check = new AllocationCheck(deckSizes);
+        if (!check.threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException("Thread allocation counters are not supported.");
+        }
+        check.threads.setThreadAllocatedMemoryEnabled(true);
+
+        for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+            check.play(games);
+        }
+        Arrays.fill(check.bytes, 0);
+        Arrays.fill(check.moves, 0);
+        check.play(games);
+        if (!check.report()) {
+            throw new IllegalStateException("The moves of the engine allocated memory.");
+        }
+    }
+
+    /**
+     * Plays the same random games every time, measuring every move.
+     */
+    private void play(final int games) {
+        random.setSeed(SEED);
+        for (int game = 0; game < games; game++) {
+            GameEnvironment environment = environments.get(game % environments.size());
+            environment.reset(random.nextLong());
+            for (int move = 0; move < MAX_GAME_MOVES && !environment.isDone(); move++) {
+                environment.legalActionMask(mask);
+                int count = 0;
+                for (int actionId = 0; actionId < ActionSpace.SIZE; actionId++) {
+                    if (mask[actionId]) {
+                        legal[count++] = actionId;
+                    }
+                }
+                int actionId = legal[random.nextInt(count)];
+                int command = ActionSpace.commandIndex(actionId);
+
+                long before = threads.getCurrentThreadAllocatedBytes();
+                environment.step(actionId);
+                bytes[command] += threads.getCurrentThreadAllocatedBytes() - before;
+                moves[command]++;
+            }
+        }
+    }
+
+    /**
+     * Prints the bytes allocated by the moves of every command, less what reading the counter
+     * allocates itself.
+     *
+     * @return whether no command allocated
+     */
+    private boolean report() {
+        long start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < PROBES; i++) {
+            threads.getCurrentThreadAllocatedBytes();
+        }
+        long probe = (threads.getCurrentThreadAllocatedBytes() - start) / PROBES;
+
+        boolean clean = true;
+        System.out.printf("%-16s %12s %14s %14s%n", "command", "moves", "bytes",
+                "bytes/move");
+        for (int command = Constants.ONE; command < MOVES.length; command++) {
+            long allocated = Math.max(0, bytes[command] - probe * moves[command]);
+            System.out.printf("%-16s %12d %14d %14.2f%n", MOVES[command], moves[command],
+                    allocated, (double) allocated / Math.max(1, moves[command]));
+            clean &= allocated == 0;
+        }
+        return clean;
+    }
+}
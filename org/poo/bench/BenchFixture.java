@@ -0,0 +1,143 @@
+package org.poo.bench;
+
+import org.poo.cards.Minion;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Coordinates;
+import org.poo.fileio.DecksInput;
+import org.poo.game.Constants;
+import org.poo.game.SessionArena;
+import org.poo.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The players of a game set up for a micro-benchmark: both have drawn the first card of a
+ * synthetic deck of the given size, and every row of the table holds the given number of
+ * minions. Player one is the player on turn and has enough mana for any move.
+ */
+public final class BenchFixture {
+
+    /**
+     * The mana of player one, enough for any move.
+     */
+    public static final int MANA = 1000;
+
+    private static final List<String> FRONT_ROW = List.of("Goliath", "The Ripper", "Miraj",
+            "Warden");
+    private static final List<String> BACK_ROW = List.of("Berserker", "Disciple", "Sentinel",
+            "The Cursed One");
+    private static final int ATTACK = 2;
+    private static final int HEALTH = 6;
+    private static final long SEED = 42;
+
+    private final SessionArena arena = new SessionArena();
+    private final Player player1;
+    private final Player player2;
+
+    /**
+     * Sets up a game.
+     *
+     * @param deckSize  the number of cards of the decks
+     * @param boardFill the number of minions of every row, up to
+     *                  {@link Constants#MAX_CARDS_IN_ROW}
+     * @param heroOne   the name of the hero of player one
+     */
+    public BenchFixture(final int deckSize, final int boardFill, final String heroOne) {
+        DecksInput decksOne = BenchInputs.createDecks(deckSize, 0);
+        DecksInput decksTwo = BenchInputs.createDecks(deckSize, 1);
+        player1 = arena.setUpPlayer(Constants.ONE,
+                arena.convertDecks(Constants.ONE, decksOne.getDecks()), 0,
+                BenchInputs.createHero(heroOne), SEED);
+        player2 = arena.setUpPlayer(Constants.TWO,
+                arena.convertDecks(Constants.TWO, decksTwo.getDecks()), 0,
+                BenchInputs.createHero(BenchInputs.DEFAULT_HERO), SEED);
+        player1.getManaManager().setMana(MANA);
+
+        int fill = Math.min(boardFill, Constants.MAX_CARDS_IN_ROW);
+        for (Player player : new Player[] {player1, player2}) {
+            for (int i = 0; i < fill; i++) {
+                place(player, FRONT_ROW.get(i % FRONT_ROW.size()));
+                place(player, BACK_ROW.get(i % BACK_ROW.size()));
+            }
+        }
+    }
+
+    /**
+     * Returns player one, the player on turn.
+     *
+     * @return the player
+     */
+    public Player getPlayerOne() {
+        return player1;
+    }
+
+    /**
+     * Returns player two.
+     *
+     * @return the player
+     */
+    public Player getPlayerTwo() {
+        return player2;
+    }
+
+    /**
+     * Puts a new minion first in its row, as if it was placed from the hand and moved to the
+     * front. The last minion of a full row is removed first.
+     *
+     * @param player the player owning the minion
+     * @param name   the name of the minion
+     * @return the minion
+     */
+    public Minion placeFirst(final Player player, final String name) {
+        ArrayList<Minion> row = player.rowForMinion(name);
+        if (row.size() == Constants.MAX_CARDS_IN_ROW) {
+            row.remove(row.size() - 1);
+        }
+        Minion minion = place(player, name);
+        row.remove(row.size() - 1);
+        row.add(0, minion);
+        player.touchBoard();
+        return minion;
+    }
+
+    private static Minion place(final Player player, final String name) {
+        Minion minion = Minion.create(BenchInputs.createCard(name, 1, ATTACK, HEALTH));
+        player.getCardsInHand().add(minion);
+        int index = player.getCardsInHand().size() - 1;
+        player.addCardIndex(index);
+        player.removeCardFromHand(index);
+        return minion;
+    }
+
+    /**
+     * Returns the table row of the first minion of a row of a player, as used by the
+     * coordinates of the commands.
+     *
+     * @param player the player owning the row
+     * @param name   the name of a minion placed on the row
+     * @return the table row
+     */
+    public int tableRow(final Player player, final String name) {
+        boolean front = player.rowForMinion(name) == player.getFrontRow();
+        if (player == player1) {
+            return front ? Constants.TWO : Constants.THREE;
+        }
+        return front ? Constants.ONE : Constants.ZERO;
+    }
+
+    /**
+     * Creates an action with both cards set.
+     *
+     * @param command the command of the action
+     * @return the action
+     */
+    public static ActionsInput createAction(final String command) {
+        ActionsInput action = new ActionsInput();
+        action.setCommand(command);
+        action.setPlayerIdx(Constants.ONE);
+        action.setCardAttacker(new Coordinates());
+        action.setCardAttacked(new Coordinates());
+        return action;
+    }
+}
@@ -0,0 +1,177 @@
+package org.poo.bench;
+
+import org.poo.cards.Card;
+import org.poo.env.ActionSpace;
+import org.poo.env.GameEnvironment;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.Coordinates;
+import org.poo.fileio.DecksInput;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+import org.poo.game.Constants;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Builds the synthetic decks and inputs of the benchmarks. Every deck cycles through all the
+ * minion types with small varying stats, so a deck of any size holds minions of both rows,
+ * tanks and every ability.
+ */
+public final class BenchInputs {
+
+    public static final String DEFAULT_HERO = "Lord Royce";
+
+    private static final int HERO_MANA = 2;
+    private static final int MANA_VALUES = 3;
+    private static final int ATTACK_VALUES = 4;
+    private static final int HEALTH_VALUES = 5;
+    private static final int MIN_HEALTH = 2;
+    private static final int MAX_SESSION_MOVES = 400;
+
+    /**
+     * for coding style
+     */
+    private BenchInputs() {
+    }
+
+    /**
+     * Creates a card.
+     *
+     * @param name         the name of the card
+     * @param mana         the mana cost
+     * @param attackDamage the attack damage
+     * @param health       the health
+     * @return the card
+     */
+    public static CardInput createCard(final String name, final int mana,
+                                       final int attackDamage, final int health) {
+        CardInput card = new CardInput();
+        card.setName(name);
+        card.setMana(mana);
+        card.setAttackDamage(attackDamage);
+        card.setHealth(health);
+        card.setDescription(name);
+        card.setColors(new ArrayList<>());
+        return card;
+    }
+
+    /**
+     * Creates a hero.
+     *
+     * @param name the name of the hero
+     * @return the hero, with the starting health
+     */
+    public static CardInput createHero(final String name) {
+        return createCard(name, HERO_MANA, 0, Constants.START_HEALTH);
+    }
+
+    /**
+     * Creates a deck cycling through the minion types.
+     *
+     * @param size  the number of cards
+     * @param shift the index of the type of the first card
+     * @return the deck
+     */
+    public static ArrayList<CardInput> createDeck(final int size, final int shift) {
+        ArrayList<CardInput> deck = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int id = (i + shift) % Card.getMinionTypes() + 1;
+            deck.add(createCard(Card.getMinionName(id), 1 + i % MANA_VALUES,
+                    1 + i % ATTACK_VALUES, MIN_HEALTH + i % HEALTH_VALUES));
+        }
+        return deck;
+    }
+
+    /**
+     * Creates the decks of a player: two decks of the same size.
+     *
+     * @param deckSize the number of cards of every deck
+     * @param shift    the index of the type of the first card of the first deck
+     * @return the decks
+     */
+    public static DecksInput createDecks(final int deckSize, final int shift) {
+        ArrayList<ArrayList<CardInput>> decks = new ArrayList<>();
+        decks.add(createDeck(deckSize, shift));
+        decks.add(createDeck(deckSize, shift + 1));
+
+        DecksInput decksInput = new DecksInput();
+        decksInput.setNrCardsInDeck(deckSize);
+        decksInput.setNrDecks(decks.size());
+        decksInput.setDecks(decks);
+        return decksInput;
+    }
+
+    /**
+     * Creates an input of scripted sessions between synthetic decks. Every session is played
+     * with random legal moves until a hero dies or {@link #MAX_SESSION_MOVES} moves were made,
+     * and queries the table and the mana of the next player after every turn, as the checker
+     * inputs do.
+     *
+     * @param deckSize the number of cards of every deck
+     * @param sessions the number of sessions
+     * @param seed     the seed of the setups and moves
+     * @return the input
+     */
+    public static Input createInput(final int deckSize, final int sessions, final long seed) {
+        Input input = new Input();
+        input.setPlayerOneDecks(createDecks(deckSize, 0));
+        input.setPlayerTwoDecks(createDecks(deckSize, Card.getMinionTypes() / 2));
+        input.setGames(new ArrayList<>());
+
+        Random random = new Random(seed);
+        boolean[] mask = new boolean[ActionSpace.SIZE];
+        int[] legal = new int[ActionSpace.SIZE];
+        for (int session = 0; session < sessions; session++) {
+            StartGameInput setup = new StartGameInput();
+            setup.setPlayerOneDeckIdx(random.nextInt(2));
+            setup.setPlayerTwoDeckIdx(random.nextInt(2));
+            setup.setShuffleSeed(random.nextInt());
+            setup.setStartingPlayer(1 + random.nextInt(2));
+            setup.setPlayerOneHero(createHero(Card.getHeroName(1
+                    + random.nextInt(Card.getHeroTypes()))));
+            setup.setPlayerTwoHero(createHero(Card.getHeroName(1
+                    + random.nextInt(Card.getHeroTypes()))));
+
+            GameEnvironment environment = new GameEnvironment(input, setup);
+            environment.reset(setup.getShuffleSeed());
+            ArrayList<ActionsInput> actions = new ArrayList<>();
+            for (int move = 0; move < MAX_SESSION_MOVES && !environment.isDone(); move++) {
+                environment.legalActionMask(mask);
+                int count = 0;
+                for (int actionId = 0; actionId < ActionSpace.SIZE; actionId++) {
+                    if (mask[actionId]) {
+                        legal[count++] = actionId;
+                    }
+                }
+                int actionId = legal[random.nextInt(count)];
+                ActionsInput action = new ActionsInput();
+                action.setCardAttacker(new Coordinates());
+                action.setCardAttacked(new Coordinates());
+                ActionSpace.decode(actionId, environment.getCurrentPlayerIdx(), action);
+                actions.add(action);
+                environment.step(actionId);
+
+                if (actionId == ActionSpace.END_TURN) {
+                    actions.add(createQuery("getCardsOnTable", 0));
+                    actions.add(createQuery("getPlayerMana", environment.getCurrentPlayerIdx()));
+                }
+            }
+
+            GameInput game = new GameInput();
+            game.setStartGame(setup);
+            game.setActions(actions);
+            input.getGames().add(game);
+        }
+        return input;
+    }
+
+    private static ActionsInput createQuery(final String command, final int playerIdx) {
+        ActionsInput query = new ActionsInput();
+        query.setCommand(command);
+        query.setPlayerIdx(playerIdx);
+        return query;
+    }
+}
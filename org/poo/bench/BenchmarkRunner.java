@@ -0,0 +1,101 @@
+package org.poo.bench;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Times benchmarks and prints one line per benchmark: its group, name and parameters, followed
+ * by the median and the fastest time of one operation over the measured iterations, in
+ * nanoseconds.
+ * <p>
+ * Every iteration, warmup or measured, prepares the benchmark again and times a fixed number
+ * of calls of the operation it returns, so the state an operation wears down (the cards of a
+ * deck, the health of a hero) is renewed outside of the timed code. Operations pass their
+ * results to {@link #consume(Object)} so the JIT cannot drop the work producing them.
+ */
+public final class BenchmarkRunner {
+
+    private static volatile Object sink;
+
+    private final int warmupIterations;
+    private final int iterations;
+    private final PrintStream out;
+
+    /**
+     * A benchmark, prepared again for every iteration.
+     */
+    @FunctionalInterface
+    public interface Benchmark {
+
+        /**
+         * Builds the state of one iteration, outside of the timed code.
+         *
+         * @return the operation to time
+         */
+        Runnable prepare();
+    }
+
+    /**
+     * Creates a runner.
+     *
+     * @param warmupIterations the number of iterations run before measuring
+     * @param iterations       the number of measured iterations
+     * @param out              the stream receiving the results
+     */
+    public BenchmarkRunner(final int warmupIterations, final int iterations,
+                           final PrintStream out) {
+        this.warmupIterations = warmupIterations;
+        this.iterations = Math.max(1, iterations);
+        this.out = out;
+    }
+
+    /**
+     * Keeps a value alive, so that the work computing it is not eliminated.
+     *
+     * @param value the result of an operation
+     */
+    public static void consume(final Object value) {
+        sink = value;
+    }
+
+    /**
+     * Prints the header of the result lines.
+     */
+    public void printHeader() {
+        out.printf("%-14s %-34s %-22s %14s %14s%n", "group", "benchmark", "params",
+                "median ns/op", "min ns/op");
+    }
+
+    /**
+     * Times a benchmark and prints its result line.
+     *
+     * @param group      the group of the benchmark
+     * @param name       the name of the benchmark
+     * @param params     the parameters of the benchmark, as printed
+     * @param operations the number of calls of the operation timed in every iteration
+     * @param benchmark  the benchmark
+     * @return the median time of one operation, in nanoseconds
+     */
+    public double run(final String group, final String name, final String params,
+                      final int operations, final Benchmark benchmark) {
+        for (int i = 0; i < warmupIterations; i++) {
+            time(operations, benchmark.prepare());
+        }
+        double[] times = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            times[i] = time(operations, benchmark.prepare()) / operations;
+        }
+        Arrays.sort(times);
+        double median = times[iterations / 2];
+        out.printf("%-14s %-34s %-22s %14.1f %14.1f%n", group, name, params, median, times[0]);
+        return median;
+    }
+
+    private static double time(final int operations, final Runnable operation) {
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            operation.run();
+        }
+        return (double) (System.nanoTime() - start);
+    }
+}
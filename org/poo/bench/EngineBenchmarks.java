@@ -0,0 +1,351 @@
+package org.poo.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.cards.Card;
+import org.poo.cards.Hero;
+import org.poo.cards.Minion;
+import org.poo.checker.CheckerConstants;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Input;
+import org.poo.game.Commands;
+import org.poo.game.Constants;
+import org.poo.game.Exceptions;
+import org.poo.game.Game;
+import org.poo.player.DeckManager;
+import org.poo.player.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Benchmarks of the hot paths of the engine, in three groups:
+ * <ul>
+ *     <li>{@code micro}: the moves of {@link Commands} and the shuffle of a deck, on a game
+ *     set up by {@link BenchFixture};</li>
+ *     <li>{@code serialization}: the JSON output of cards, of the table and of errors;</li>
+ *     <li>{@code macro}: whole inputs, read, played and written as {@code Main.action} does,
+ *     both synthetic inputs and the checker inputs whose name contains {@code big_game}.</li>
+ * </ul>
+ * The micro benchmarks and the serialization of cards and of the table run for every
+ * combination of deck size and board fill (minions per row); synthetic inputs run for every
+ * deck size.
+ * <p>
+ * Usage: {@code EngineBenchmarks [groups] [deck sizes] [board fills]}, with comma-separated
+ * lists, for example {@code EngineBenchmarks micro,macro 10,30 0,3,5}. The groups default to
+ * all of them, the deck sizes to {@value #DEFAULT_DECK_SIZES} and the board fills to
+ * {@value #DEFAULT_BOARD_FILLS}.
+ */
+public final class EngineBenchmarks {
+
+    private static final String DEFAULT_GROUPS = "micro,serialization,macro";
+    private static final String DEFAULT_DECK_SIZES = "10,30,60";
+    private static final String DEFAULT_BOARD_FILLS = "0,2,5";
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS = 10;
+    private static final int OPERATIONS = 10_000;
+    private static final int MACRO_SESSIONS = 100;
+    private static final String BIG_INPUTS = "big_game";
+    private static final long SEED = 7;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BenchmarkRunner runner;
+
+    private EngineBenchmarks(final BenchmarkRunner runner) {
+        this.runner = runner;
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args the groups, deck sizes and board fills, all optional
+     * @throws IOException if a checker input cannot be read
+     */
+    public static void main(final String[] args) throws IOException {
+        List<String> groups = List.of(arg(args, 0, DEFAULT_GROUPS).split(","));
+        int[] deckSizes = parse(arg(args, 1, DEFAULT_DECK_SIZES));
+        int[] boardFills = parse(arg(args, 2, DEFAULT_BOARD_FILLS));
+
+        BenchmarkRunner runner = new BenchmarkRunner(WARMUP_ITERATIONS, ITERATIONS, System.out);
+        EngineBenchmarks benchmarks = new EngineBenchmarks(runner);
+        runner.printHeader();
+        for (int deckSize : deckSizes) {
+            for (int boardFill : boardFills) {
+                if (groups.contains("micro")) {
+                    benchmarks.runMicro(deckSize, boardFill);
+                }
+                if (groups.contains("serialization")) {
+                    benchmarks.runSerialization(deckSize, boardFill);
+                }
+            }
+        }
+        if (groups.contains("serialization")) {
+            runner.run("serialization", "throwException", "-", OPERATIONS,
+                    EngineBenchmarks::throwException);
+        }
+        if (groups.contains("macro")) {
+            for (int deckSize : deckSizes) {
+                benchmarks.runSynthetic(deckSize);
+            }
+            benchmarks.runCheckerInputs();
+        }
+    }
+
+    private static String arg(final String[] args, final int index, final String fallback) {
+        return (args.length > index) ? args[index] : fallback;
+    }
+
+    private static int[] parse(final String values) {
+        return Arrays.stream(values.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static String params(final int deckSize, final int boardFill) {
+        return "deck=" + deckSize + " board=" + boardFill;
+    }
+
+    private void runMicro(final int deckSize, final int boardFill) {
+        String params = params(deckSize, boardFill);
+        runner.run("micro", "cardUsesAttack", params, OPERATIONS,
+                () -> cardUsesAttack(deckSize, boardFill));
+        for (int id = 1; id <= Card.getMinionTypes(); id++) {
+            String name = Card.getMinionName(id);
+            if (Minion.create(BenchInputs.createCard(name, 1, 1, 1)).hasAbility()) {
+                runner.run("micro", "cardUsesAbility " + name, params, OPERATIONS,
+                        () -> cardUsesAbility(deckSize, boardFill, name));
+            }
+        }
+        for (int id = 1; id <= Card.getHeroTypes(); id++) {
+            String name = Card.getHeroName(id);
+            runner.run("micro", "useHeroAbility " + name, params, OPERATIONS,
+                    () -> useHeroAbility(deckSize, boardFill, name));
+        }
+        runner.run("micro", "placeCard", params, OPERATIONS,
+                () -> placeCard(deckSize, boardFill));
+        runner.run("micro", "endPlayerTurn", params, OPERATIONS,
+                () -> endPlayerTurn(deckSize, boardFill));
+        runner.run("micro", "shuffleDeck", params, OPERATIONS,
+                () -> shuffleDeck(deckSize, boardFill));
+    }
+
+    private void runSerialization(final int deckSize, final int boardFill) {
+        String params = params(deckSize, boardFill);
+        runner.run("serialization", "getCardNode", params, OPERATIONS,
+                () -> getCardNode(deckSize, boardFill));
+        runner.run("serialization", "getCardsOnTable", params, OPERATIONS,
+                () -> getCardsOnTable(deckSize, boardFill));
+    }
+
+    /**
+     * A minion of player one attacks the first minion of the front row of player two, a
+     * tank. The attacker is allowed to attack again and the target healed before every call.
+     */
+    private static Runnable cardUsesAttack(final int deckSize, final int boardFill) {
+        BenchFixture fixture = new BenchFixture(deckSize, boardFill, BenchInputs.DEFAULT_HERO);
+        Player player1 = fixture.getPlayerOne();
+        Player player2 = fixture.getPlayerTwo();
+        Minion attacker = fixture.placeFirst(player1, "The Ripper");
+        Minion target = fixture.placeFirst(player2, "Goliath");
+        int health = target.getHealth();
+
+        ActionsInput action = BenchFixture.createAction("cardUsesAttack");
+        action.getCardAttacker().setX(fixture.tableRow(player1, attacker.getName()));
+        action.getCardAttacked().setX(fixture.tableRow(player2, target.getName()));
+        return () -> {
+            attacker.setHasAttacked(false);
+            target.setHealth(health);
+            Commands.cardUsesAttack(null, action, player1, player2);
+        };
+    }
+
+    /**
+     * A minion of player one uses its ability on the first minion of a front row: its own for
+     * the Disciple, the enemy's otherwise. The minion is allowed to act again before every
+     * call.
+     */
+    private static Runnable cardUsesAbility(final int deckSize, final int boardFill,
+                                            final String name) {
+        BenchFixture fixture = new BenchFixture(deckSize, boardFill, BenchInputs.DEFAULT_HERO);
+        Player player1 = fixture.getPlayerOne();
+        Player player2 = fixture.getPlayerTwo();
+        Player owner = name.equals("Disciple") ? player1 : player2;
+        Minion target = fixture.placeFirst(owner, "Goliath");
+        Minion attacker = fixture.placeFirst(player1, name);
+
+        ActionsInput action = BenchFixture.createAction("cardUsesAbility");
+        action.getCardAttacker().setX(fixture.tableRow(player1, name));
+        action.getCardAttacked().setX(fixture.tableRow(owner, target.getName()));
+        action.getCardAttacked().setY(owner.getFrontRow().indexOf(target));
+        return () -> {
+            attacker.setHasAttacked(false);
+            Commands.cardUsesAbility(null, action, player1, player2);
+        };
+    }
+
+    /**
+     * The hero of player one uses its ability on the front row of player two, or on its own
+     * front row for the heroes that only target their own rows. Before every call the hero is
+     * allowed to act again, its mana restored and the row refilled if the ability destroyed
+     * a minion.
+     */
+    private static Runnable useHeroAbility(final int deckSize, final int boardFill,
+                                           final String name) {
+        BenchFixture fixture = new BenchFixture(deckSize, boardFill, name);
+        Player player1 = fixture.getPlayerOne();
+        Player player2 = fixture.getPlayerTwo();
+        Hero hero = player1.getHero();
+        boolean enemyRow = Commands.checkHeroAbility(player1, player2) == null;
+        Player target = enemyRow ? player2 : player1;
+        ArrayList<Minion> row = target.getFrontRow();
+        ArrayList<Minion> minions = new ArrayList<>(row);
+
+        ActionsInput action = BenchFixture.createAction("useHeroAbility");
+        action.setAffectedRow(enemyRow ? Constants.ONE : Constants.TWO);
+        return () -> {
+            if (row.size() != minions.size()) {
+                row.clear();
+                row.addAll(minions);
+                target.touchBoard();
+            }
+            hero.setHasAttacked(false);
+            player1.getManaManager().setMana(BenchFixture.MANA);
+            Commands.useHeroAbility(null, action, player1, player1, player2);
+        };
+    }
+
+    /**
+     * Player one places the first card of its hand; the card is taken back before the next
+     * call. On a full board the move is rejected and only the error is returned.
+     */
+    private static Runnable placeCard(final int deckSize, final int boardFill) {
+        BenchFixture fixture = new BenchFixture(deckSize, boardFill, BenchInputs.DEFAULT_HERO);
+        Player player1 = fixture.getPlayerOne();
+        Minion card = player1.getCardsInHand().get(0);
+        ArrayList<Minion> row = player1.rowForMinion(card.getName());
+
+        ActionsInput action = BenchFixture.createAction("placeCard");
+        return () -> {
+            BenchmarkRunner.consume(Commands.placeCard(null, action, player1, 0));
+            if (player1.getCardsInHand().isEmpty()) {
+                row.remove(row.size() - 1);
+                player1.getCardsInHand().add(card);
+                player1.touchBoard();
+                player1.touchHand();
+                player1.getManaManager().setMana(BenchFixture.MANA);
+            }
+        };
+    }
+
+    /**
+     * The players end their turns in turn, starting a round every second call; the decks
+     * are emptied by the draws of the first rounds.
+     */
+    private static Runnable endPlayerTurn(final int deckSize, final int boardFill) {
+        BenchFixture fixture = new BenchFixture(deckSize, boardFill, BenchInputs.DEFAULT_HERO);
+        Player[] players = {fixture.getPlayerOne(), fixture.getPlayerTwo()};
+        return () -> {
+            Commands.endPlayerTurn(players[0], players[1]);
+            Player tmp = players[0];
+            players[0] = players[1];
+            players[1] = tmp;
+        };
+    }
+
+    /**
+     * Shuffles the deck of player one with a new seed at every call.
+     */
+    private static Runnable shuffleDeck(final int deckSize, final int boardFill) {
+        BenchFixture fixture = new BenchFixture(deckSize, boardFill, BenchInputs.DEFAULT_HERO);
+        DeckManager deckManager = fixture.getPlayerOne().getDeckManager();
+        long[] seed = {SEED};
+        return () -> deckManager.shuffleDeck(seed[0]++);
+    }
+
+    /**
+     * Converts a minion of the table, or of the hand on an empty board, to JSON.
+     */
+    private static Runnable getCardNode(final int deckSize, final int boardFill) {
+        BenchFixture fixture = new BenchFixture(deckSize, boardFill, BenchInputs.DEFAULT_HERO);
+        Player player1 = fixture.getPlayerOne();
+        Minion card = player1.getFrontRow().isEmpty() ? player1.getCardsInHand().get(0)
+                : player1.getFrontRow().get(0);
+        return () -> BenchmarkRunner.consume(Game.getCardNode(card));
+    }
+
+    /**
+     * Converts the whole table to JSON.
+     */
+    private static Runnable getCardsOnTable(final int deckSize, final int boardFill) {
+        BenchFixture fixture = new BenchFixture(deckSize, boardFill, BenchInputs.DEFAULT_HERO);
+        Player player1 = fixture.getPlayerOne();
+        Player player2 = fixture.getPlayerTwo();
+        ObjectNode output = JsonNodeFactory.instance.objectNode();
+        return () -> {
+            Commands.getCardsOnTable(output, player1, player2);
+            BenchmarkRunner.consume(output);
+        };
+    }
+
+    /**
+     * Outputs every move error in turn, into an output emptied before every call.
+     */
+    private static Runnable throwException() {
+        ArrayNode output = JsonNodeFactory.instance.arrayNode();
+        ActionsInput action = BenchFixture.createAction("cardUsesAttack");
+        int[] next = {0};
+        return () -> {
+            output.removeAll();
+            Exceptions.throwException(output, Exceptions.MOVE_ERRORS.get(next[0]), action);
+            next[0] = (next[0] + 1) % Exceptions.MOVE_ERRORS.size();
+        };
+    }
+
+    private void runSynthetic(final int deckSize) throws IOException {
+        byte[] input = MAPPER.writeValueAsBytes(
+                BenchInputs.createInput(deckSize, MACRO_SESSIONS, SEED));
+        runner.run("macro", "synthetic " + MACRO_SESSIONS + " sessions", "deck=" + deckSize,
+                1, () -> () -> play(input));
+    }
+
+    private void runCheckerInputs() throws IOException {
+        File[] files = new File(CheckerConstants.TESTS_PATH).listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.getName().contains(BIG_INPUTS)) {
+                byte[] input = Files.readAllBytes(file.toPath());
+                runner.run("macro", file.getName(), "-", 1, () -> () -> play(input));
+            }
+        }
+    }
+
+    /**
+     * Reads, plays and writes an input as {@code Main.action} does, without the sessions
+     * memo, so every session of every iteration is played.
+     */
+    private static void play(final byte[] input) {
+        Game.setPlayerOneWins(0);
+        Game.setPlayerTwoWins(0);
+        Game.setSessionMemo(null);
+        try {
+            Input inputData = MAPPER.readValue(input, Input.class);
+            ArrayNode output = new Game(inputData, MAPPER.createArrayNode()).generateOutput();
+            MAPPER.writerWithDefaultPrettyPrinter()
+                    .writeValue(OutputStream.nullOutputStream(), output);
+            BenchmarkRunner.consume(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.poo.bot;
+
+import org.poo.cache.OutcomeCache;
+import org.poo.env.ActionSpace;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Coordinates;
+import org.poo.game.Constants;
+import org.poo.player.Player;
+
+/**
+ * The bots playing a game in place of the scripted actions, together with the time budget of
+ * a decision. Every decision is timed: a move returned after its deadline, or an illegal move,
+ * is replaced by {@code endPlayerTurn}.
+ */
+public final class BotMatch {
+
+    private final Policy[] policies;
+    private final DecisionStats[] stats = {new DecisionStats(), new DecisionStats()};
+    private final long budgetNanos;
+    private final int maxDecisions;
+    private final OutcomeCache outcomeCache;
+
+    private final GameView view = new GameView();
+    private final ActionsInput action = new ActionsInput();
+
+    private int lastAction;
+
+    /**
+     * Creates a match between two policies.
+     *
+     * @param playerOne    the policy of player one
+     * @param playerTwo    the policy of player two
+     * @param budgetNanos  the time a policy has for each decision, in nanoseconds
+     * @param maxDecisions the number of decisions after which a game is abandoned
+     */
+    public BotMatch(final Policy playerOne, final Policy playerTwo, final long budgetNanos,
+                    final int maxDecisions) {
+        this(playerOne, playerTwo, budgetNanos, maxDecisions, null);
+    }
+
+    /**
+     * Creates a match between two policies whose games are looked up in a cache before being
+     * played. The policies must be deterministic: a game is cached only if no decision missed
+     * its deadline, but nothing else tells apart two runs of the same setup.
+     *
+     * @param playerOne    the policy of player one
+     * @param playerTwo    the policy of player two
+     * @param budgetNanos  the time a policy has for each decision, in nanoseconds
+     * @param maxDecisions the number of decisions after which a game is abandoned
+     * @param outcomeCache the cache of game outcomes, or null to play every game
+     */
+    public BotMatch(final Policy playerOne, final Policy playerTwo, final long budgetNanos,
+                    final int maxDecisions, final OutcomeCache outcomeCache) {
+        this.policies = new Policy[] {playerOne, playerTwo};
+        this.budgetNanos = budgetNanos;
+        this.maxDecisions = maxDecisions;
+        this.outcomeCache = outcomeCache;
+
+        action.setCardAttacker(new Coordinates());
+        action.setCardAttacked(new Coordinates());
+    }
+
+    /**
+     * Asks the current player's policy for a move and enforces its deadline.
+     *
+     * @param player1       player one
+     * @param player2       player two
+     * @param currentPlayer the player whose turn it is
+     * @param round         the current round of the game, starting from 1
+     * @return the action to execute; the object is reused by the next decision
+     */
+    public ActionsInput decide(final Player player1, final Player player2,
+                               final Player currentPlayer, final int round) {
+        int playerIdx = currentPlayer.equals(player1) ? Constants.ONE : Constants.TWO;
+        view.bind(player1, player2, currentPlayer, round);
+
+        long start = System.nanoTime();
+        int actionId = policies[playerIdx - 1].chooseAction(view, start + budgetNanos);
+        long latency = System.nanoTime() - start;
+
+        boolean timedOut = latency > budgetNanos;
+        boolean illegal = !timedOut && (actionId < 0 || actionId >= ActionSpace.SIZE
+                || !view.isLegal(actionId));
+        stats[playerIdx - 1].record(latency, timedOut, illegal);
+
+        lastAction = (timedOut || illegal) ? ActionSpace.END_TURN : actionId;
+        ActionSpace.decode(lastAction, playerIdx, action);
+        return action;
+    }
+
+    /**
+     * Returns the id of the action returned by the last decision.
+     *
+     * @return the action id actually executed
+     */
+    public int getLastAction() {
+        return lastAction;
+    }
+
+    /**
+     * Returns the policy of a player.
+     *
+     * @param playerIdx the player
+     * @return the policy
+     */
+    public Policy getPolicy(final int playerIdx) {
+        return policies[playerIdx - 1];
+    }
+
+    /**
+     * Returns the decision statistics of a player.
+     *
+     * @param playerIdx the player
+     * @return the statistics of the player's policy
+     */
+    public DecisionStats getStats(final int playerIdx) {
+        return stats[playerIdx - 1];
+    }
+
+    /**
+     * Returns the number of decisions after which a game is abandoned.
+     *
+     * @return the maximum number of decisions per game
+     */
+    public int getMaxDecisions() {
+        return maxDecisions;
+    }
+
+    /**
+     * Returns the cache of game outcomes.
+     *
+     * @return the cache, or null if every game is played
+     */
+    public OutcomeCache getOutcomeCache() {
+        return outcomeCache;
+    }
+
+    /**
+     * Returns the identifier of the policies and settings of the match, used in cache keys.
+     *
+     * @return the identifier
+     */
+    public String getPolicyId() {
+        return policies[0].getName() + "/" + policies[1].getName() + "/" + budgetNanos + "/"
+                + maxDecisions;
+    }
+
+    /**
+     * Returns the time a policy has for each decision.
+     *
+     * @return the budget in nanoseconds
+     */
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+}
@@ -0,0 +1,115 @@
+package org.poo.bot;
+
+/**
+ * Latency statistics of the decisions taken by one policy. Latencies are kept in a histogram
+ * with power-of-two buckets, so recording a decision does not allocate.
+ */
+public final class DecisionStats {
+
+    private final long[] buckets = new long[Long.SIZE];
+
+    private long decisions;
+    private long timeouts;
+    private long illegalMoves;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * Records one decision.
+     *
+     * @param nanos    the time the policy took to decide
+     * @param timedOut whether the decision missed its deadline
+     * @param illegal  whether the chosen move was rejected as illegal
+     */
+    public void record(final long nanos, final boolean timedOut, final boolean illegal) {
+        decisions++;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        buckets[Long.SIZE - Long.numberOfLeadingZeros(Math.max(nanos, 0))]++;
+
+        if (timedOut) {
+            timeouts++;
+        } else if (illegal) {
+            illegalMoves++;
+        }
+    }
+
+    /**
+     * Returns the number of decisions.
+     *
+     * @return the number of decisions
+     */
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * Returns the number of decisions that missed their deadline.
+     *
+     * @return the number of timeouts
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Returns the number of decisions, taken in time, whose move was illegal.
+     *
+     * @return the number of illegal moves
+     */
+    public long getIllegalMoves() {
+        return illegalMoves;
+    }
+
+    /**
+     * Returns the mean decision latency.
+     *
+     * @return the mean latency in nanoseconds, or 0 if there were no decisions
+     */
+    public long getMeanNanos() {
+        return (decisions == 0) ? 0 : totalNanos / decisions;
+    }
+
+    /**
+     * Returns the largest decision latency.
+     *
+     * @return the maximum latency in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns an upper bound of a latency percentile, precise to a factor of two.
+     *
+     * @param fraction the percentile, between 0 and 1
+     * @return the latency in nanoseconds below which the given fraction of decisions fall
+     */
+    public long getPercentileNanos(final double fraction) {
+        long target = (long) Math.ceil(fraction * decisions);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target && seen > 0) {
+                return Math.min((i == 0) ? 0 : (1L << i) - 1, maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Adds the decisions of other statistics to these ones.
+     *
+     * @param other the statistics to merge
+     */
+    public void merge(final DecisionStats other) {
+        decisions += other.decisions;
+        timeouts += other.timeouts;
+        illegalMoves += other.illegalMoves;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] += other.buckets[i];
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package org.poo.bot;
+
+import org.poo.cards.Card;
+import org.poo.cards.Hero;
+import org.poo.cards.Minion;
+import org.poo.env.ActionSpace;
+import org.poo.game.Constants;
+import org.poo.player.Player;
+import org.poo.state.StateEncoder;
+
+import java.util.ArrayList;
+
+/**
+ * A read-only view of a game, given to policies. Cards are addressed by their table
+ * coordinates, players by their index (1 or 2), and the hand is always the current
+ * player's. Empty positions read as zeros.
+ */
+public final class GameView {
+
+    /**
+     * Flag of a frozen card, as read by {@link #readRow}.
+     */
+    public static final int FROZEN_FLAG = StateEncoder.FROZEN_FLAG;
+
+    /**
+     * Flag of a card that has attacked this turn, as read by {@link #readRow}.
+     */
+    public static final int ATTACKED_FLAG = StateEncoder.ATTACKED_FLAG;
+
+    /**
+     * Flag of a tank, as read by {@link #readRow}.
+     */
+    public static final int TANK_FLAG = 4;
+
+    private static final int GOLIATH = Card.getMinionId("Goliath");
+    private static final int WARDEN = Card.getMinionId("Warden");
+    private static final int MIRAJ = Card.getMinionId("Miraj");
+    private static final int THE_RIPPER = Card.getMinionId("The Ripper");
+
+    private Player player1;
+    private Player player2;
+    private Player currentPlayer;
+    private int round;
+
+    /**
+     * Points the view at a game.
+     *
+     * @param first   player one
+     * @param second  player two
+     * @param current the player whose turn it is
+     * @param turn    the current round of the game, starting from 1
+     */
+    public void bind(final Player first, final Player second, final Player current,
+                     final int turn) {
+        this.player1 = first;
+        this.player2 = second;
+        this.currentPlayer = current;
+        this.round = turn;
+    }
+
+    private Player player(final int playerIdx) {
+        return (playerIdx == Constants.ONE) ? player1 : player2;
+    }
+
+    private Minion card(final int x, final int y) {
+        return ActionSpace.cardAt(player1, player2, x, y);
+    }
+
+    private Minion handCard(final int slot) {
+        return currentPlayer.getCardsInHand().get(slot);
+    }
+
+    /**
+     * Checks if a minion is a tank by its type id, as {@link Card#isTank(Card)} does by name.
+     */
+    private static boolean isTank(final Minion card) {
+        int typeId = card.getTypeId();
+        return typeId == GOLIATH || typeId == WARDEN;
+    }
+
+    /**
+     * Checks if a minion is placed on the front row by its type id, as
+     * {@link Player#rowForMinion(String)} does by name.
+     */
+    private static boolean isFrontRow(final Minion card) {
+        int typeId = card.getTypeId();
+        return isTank(card) || typeId == MIRAJ || typeId == THE_RIPPER;
+    }
+
+    /**
+     * Returns the index of the player whose turn it is.
+     *
+     * @return 1 or 2
+     */
+    public int getCurrentPlayerIdx() {
+        return currentPlayer.equals(player1) ? Constants.ONE : Constants.TWO;
+    }
+
+    /**
+     * Returns the current round of the game.
+     *
+     * @return the round, starting from 1
+     */
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * Checks if the current player can perform an action.
+     *
+     * @param actionId the action id
+     * @return true if the game rules accept the action, false otherwise
+     */
+    public boolean isLegal(final int actionId) {
+        return ActionSpace.isLegal(actionId, currentPlayer, player1, player2);
+    }
+
+    /**
+     * Fills a mask with the legality of every action id.
+     *
+     * @param mask the mask to fill, of at least {@link ActionSpace#SIZE} elements
+     */
+    public void legalActionMask(final boolean[] mask) {
+        ActionSpace.legalActionMask(mask, currentPlayer, player1, player2);
+    }
+
+    /**
+     * Encodes the game, as {@link StateEncoder#encode} does.
+     *
+     * @param out    the destination array
+     * @param offset the index of the first value to write
+     */
+    public void encode(final int[] out, final int offset) {
+        StateEncoder.encode(player1, player2, currentPlayer, out, offset);
+    }
+
+    /**
+     * Returns the mana of a player.
+     *
+     * @param playerIdx the player
+     * @return the mana
+     */
+    public int getMana(final int playerIdx) {
+        return player(playerIdx).getManaManager().getMana();
+    }
+
+    /**
+     * Returns the number of cards left in a player's deck.
+     *
+     * @param playerIdx the player
+     * @return the number of cards in the deck
+     */
+    public int getDeckSize(final int playerIdx) {
+        return player(playerIdx).getDeckManager().getDeckSize();
+    }
+
+    /**
+     * Returns the id of a player's hero, as given by {@link Card#getHeroId(String)}.
+     *
+     * @param playerIdx the player
+     * @return the hero id
+     */
+    public int getHeroId(final int playerIdx) {
+        return player(playerIdx).getHero().getTypeId();
+    }
+
+    /**
+     * Returns the name of a player's hero.
+     *
+     * @param playerIdx the player
+     * @return the hero name
+     */
+    public String getHeroName(final int playerIdx) {
+        return player(playerIdx).getHero().getName();
+    }
+
+    /**
+     * Returns the health of a player's hero.
+     *
+     * @param playerIdx the player
+     * @return the hero's health
+     */
+    public int getHeroHealth(final int playerIdx) {
+        return player(playerIdx).getHero().getHealth();
+    }
+
+    /**
+     * Returns the mana cost of a player's hero ability.
+     *
+     * @param playerIdx the player
+     * @return the mana cost
+     */
+    public int getHeroMana(final int playerIdx) {
+        return player(playerIdx).getHero().getMana();
+    }
+
+    /**
+     * Checks if a player's hero has used its ability this turn.
+     *
+     * @param playerIdx the player
+     * @return true if the ability was used, false otherwise
+     */
+    public boolean hasHeroAttacked(final int playerIdx) {
+        Hero hero = player(playerIdx).getHero();
+        return hero.getHasAttacked();
+    }
+
+    /**
+     * Returns the number of cards on a table row.
+     *
+     * @param x the table row
+     * @return the number of cards
+     */
+    public int getRowSize(final int x) {
+        return Player.getRowIndex(x >= Constants.TWO ? player1 : player2, x).size();
+    }
+
+    /**
+     * Returns the number of tanks on a player's front row. While it is not zero, the enemy
+     * may only attack those tanks, and not the other cards or the hero.
+     *
+     * @param playerIdx the player
+     * @return the number of tanks
+     */
+    public int getTankCount(final int playerIdx) {
+        return player(playerIdx).getFrontRowStats().getTanks();
+    }
+
+    /**
+     * Copies the cards of a table row into arrays, reading a whole row faster than one value
+     * at a time. The card at position y goes to index {@code x * ActionSpace.ROW_SLOTS + y} of
+     * every array; the positions past the end of the row are left as they were.
+     *
+     * @param x      the table row
+     * @param typeId receives the minion type ids of the cards
+     * @param attack receives the attack damage of the cards
+     * @param health receives the health of the cards
+     * @param flags  receives the {@link #FROZEN_FLAG}, {@link #ATTACKED_FLAG} and
+     *               {@link #TANK_FLAG} of the cards
+     * @return the number of cards on the row
+     */
+    public int readRow(final int x, final int[] typeId, final int[] attack, final int[] health,
+                       final int[] flags) {
+        ArrayList<Minion> row = Player.getRowIndex(x >= Constants.TWO ? player1 : player2, x);
+        int first = x * ActionSpace.ROW_SLOTS;
+        for (int y = 0; y < row.size(); y++) {
+            Minion card = row.get(y);
+            typeId[first + y] = card.getTypeId();
+            attack[first + y] = card.getAttackDamage();
+            health[first + y] = card.getHealth();
+            flags[first + y] = (card.isFrozen() ? FROZEN_FLAG : 0)
+                    | (card.getHasAttacked() ? ATTACKED_FLAG : 0)
+                    | (isTank(card) ? TANK_FLAG : 0);
+        }
+        return row.size();
+    }
+
+    /**
+     * Checks if a table position holds a card.
+     *
+     * @param x the table row
+     * @param y the position in the row
+     * @return true if there is a card at that position, false otherwise
+     */
+    public boolean hasCard(final int x, final int y) {
+        return card(x, y) != null;
+    }
+
+    /**
+     * Returns the type id of a card on the table, as given by {@link Minion#getTypeId()}.
+     *
+     * @param x the table row
+     * @param y the position in the row
+     * @return the type id
+     */
+    public int getCardTypeId(final int x, final int y) {
+        Minion card = card(x, y);
+        return (card != null) ? card.getTypeId() : 0;
+    }
+
+    /**
+     * Returns the health of a card on the table.
+     *
+     * @param x the table row
+     * @param y the position in the row
+     * @return the health
+     */
+    public int getCardHealth(final int x, final int y) {
+        Minion card = card(x, y);
+        return (card != null) ? card.getHealth() : 0;
+    }
+
+    /**
+     * Returns the attack damage of a card on the table.
+     *
+     * @param x the table row
+     * @param y the position in the row
+     * @return the attack damage
+     */
+    public int getCardAttack(final int x, final int y) {
+        Minion card = card(x, y);
+        return (card != null) ? card.getAttackDamage() : 0;
+    }
+
+    /**
+     * Returns the mana cost of a card on the table.
+     *
+     * @param x the table row
+     * @param y the position in the row
+     * @return the mana cost
+     */
+    public int getCardMana(final int x, final int y) {
+        Minion card = card(x, y);
+        return (card != null) ? card.getMana() : 0;
+    }
+
+    /**
+     * Checks if a card on the table is frozen.
+     *
+     * @param x the table row
+     * @param y the position in the row
+     * @return true if the card is frozen, false otherwise
+     */
+    public boolean isCardFrozen(final int x, final int y) {
+        Minion card = card(x, y);
+        return card != null && card.isFrozen();
+    }
+
+    /**
+     * Checks if a card on the table has attacked this turn.
+     *
+     * @param x the table row
+     * @param y the position in the row
+     * @return true if the card has attacked, false otherwise
+     */
+    public boolean hasCardAttacked(final int x, final int y) {
+        Minion card = card(x, y);
+        return card != null && card.getHasAttacked();
+    }
+
+    /**
+     * Checks if a card on the table is a tank.
+     *
+     * @param x the table row
+     * @param y the position in the row
+     * @return true if the card is a tank, false otherwise
+     */
+    public boolean isCardTank(final int x, final int y) {
+        Minion card = card(x, y);
+        return card != null && isTank(card);
+    }
+
+    /**
+     * Returns the number of cards in the current player's hand.
+     *
+     * @return the hand size
+     */
+    public int getHandSize() {
+        return currentPlayer.getCardsInHand().size();
+    }
+
+    /**
+     * Returns the type id of a card in the current player's hand.
+     *
+     * @param slot the position in the hand
+     * @return the type id
+     */
+    public int getHandCardTypeId(final int slot) {
+        return handCard(slot).getTypeId();
+    }
+
+    /**
+     * Returns the mana cost of a card in the current player's hand.
+     *
+     * @param slot the position in the hand
+     * @return the mana cost
+     */
+    public int getHandCardMana(final int slot) {
+        return handCard(slot).getMana();
+    }
+
+    /**
+     * Returns the number of cards on the row a card in the current player's hand is placed on.
+     * The card cannot be placed while the row is full.
+     *
+     * @param slot the position in the hand
+     * @return the number of cards on the row
+     */
+    public int getHandCardRowSize(final int slot) {
+        ArrayList<Minion> row = isFrontRow(handCard(slot))
+                ? currentPlayer.getFrontRow() : currentPlayer.getBackRow();
+        return row.size();
+    }
+
+    /**
+     * Returns the attack damage of a card in the current player's hand.
+     *
+     * @param slot the position in the hand
+     * @return the attack damage
+     */
+    public int getHandCardAttack(final int slot) {
+        return handCard(slot).getAttackDamage();
+    }
+
+    /**
+     * Returns the health of a card in the current player's hand.
+     *
+     * @param slot the position in the hand
+     * @return the health
+     */
+    public int getHandCardHealth(final int slot) {
+        return handCard(slot).getHealth();
+    }
+
+    /**
+     * Checks if a card in the current player's hand is a tank.
+     *
+     * @param slot the position in the hand
+     * @return true if the card is a tank, false otherwise
+     */
+    public boolean isHandCardTank(final int slot) {
+        return isTank(handCard(slot));
+    }
+}
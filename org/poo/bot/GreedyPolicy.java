@@ -0,0 +1,256 @@
+package org.poo.bot;
+
+import org.poo.cards.Card;
+import org.poo.env.ActionSpace;
+import org.poo.game.Constants;
+
+/**
+ * A rule based baseline policy. Every legal move of the current player is given a static score
+ * from the board as it is now, and the best one is played; the turn is ended once no move has
+ * a positive score. Only the cards that can still act are looked at, and a decision does not
+ * allocate.
+ * <p>
+ * The cards on the table are read once per decision, and candidates are scored without asking
+ * the game rules: the moves the rules would reject (cards costing more than the mana left or
+ * going to a full row, cards that are frozen or already attacked, attacks ignoring a tank,
+ * abilities on the wrong side) are skipped while scoring by the same checks the rules make, so
+ * the best move found is always legal. A policy keeps the state of the decision in progress,
+ * so an instance must not be shared between threads.
+ */
+public final class GreedyPolicy implements Policy {
+
+    private static final int DISCIPLE = Card.getMinionId("Disciple");
+    private static final int MIRAJ = Card.getMinionId("Miraj");
+    private static final int THE_CURSED_ONE = Card.getMinionId("The Cursed One");
+    private static final int THE_RIPPER = Card.getMinionId("The Ripper");
+
+    private static final int EMPRESS_THORINA = Card.getHeroId("Empress Thorina");
+    private static final int GENERAL_KOCIORAW = Card.getHeroId("General Kocioraw");
+    private static final int KING_MUDFACE = Card.getHeroId("King Mudface");
+    private static final int LORD_ROYCE = Card.getHeroId("Lord Royce");
+
+    /**
+     * Score of a move that kills the enemy hero, always preferred to any other move.
+     */
+    private static final int WIN = Integer.MAX_VALUE;
+
+    private static final int ATTACK_WEIGHT = 2;
+    private static final int TANK_BONUS = 3;
+    private static final int KILL_BONUS = 4;
+    private static final int HERO_DAMAGE_WEIGHT = 2;
+    private static final int DISCIPLE_HEALTH = 2;
+    private static final int RIPPER_ATTACK = 2;
+
+    private final int[] rowSizes = new int[ActionSpace.TABLE_ROWS];
+    private final int[] cardType = new int[ActionSpace.TABLE_SLOTS];
+    private final int[] cardAttack = new int[ActionSpace.TABLE_SLOTS];
+    private final int[] cardHealth = new int[ActionSpace.TABLE_SLOTS];
+    private final int[] cardFlags = new int[ActionSpace.TABLE_SLOTS];
+    private final int[] targetSlot = new int[ActionSpace.OWN_SLOTS];
+    private final int[] targetCell = new int[ActionSpace.OWN_SLOTS];
+    private int targets;
+    private boolean enemyTanks;
+
+    private int best;
+    private int bestScore;
+
+    @Override
+    public String getName() {
+        return "greedy";
+    }
+
+    @Override
+    public int chooseAction(final GameView view, final long deadline) {
+        int playerIdx = view.getCurrentPlayerIdx();
+        int enemyIdx = (playerIdx == Constants.ONE) ? Constants.TWO : Constants.ONE;
+        readTable(view, enemyIdx);
+        findBest(view, playerIdx, enemyIdx);
+        return best;
+    }
+
+    /**
+     * Reads the cards on the table, and the enemy cards the current player's cards may attack,
+     * once for the whole decision.
+     */
+    private void readTable(final GameView view, final int enemyIdx) {
+        for (int x = 0; x < ActionSpace.TABLE_ROWS; x++) {
+            rowSizes[x] = view.readRow(x, cardType, cardAttack, cardHealth, cardFlags);
+        }
+
+        enemyTanks = view.getTankCount(enemyIdx) > 0;
+        targets = 0;
+        for (int first = 0; first < ActionSpace.OWN_SLOTS; first += ActionSpace.ROW_SLOTS) {
+            int ex = ActionSpace.tableRow(enemyIdx, first);
+            for (int ey = 0; ey < rowSizes[ex]; ey++) {
+                int cell = ex * ActionSpace.ROW_SLOTS + ey;
+                if (!enemyTanks || isTank(cell)) {
+                    targetSlot[targets] = first + ey;
+                    targetCell[targets] = cell;
+                    targets++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the best scoring legal move.
+     */
+    private void findBest(final GameView view, final int playerIdx, final int enemyIdx) {
+        int enemyHealth = view.getHeroHealth(enemyIdx);
+        best = ActionSpace.END_TURN;
+        bestScore = 0;
+
+        int mana = view.getMana(playerIdx);
+        int handSize = Math.min(view.getHandSize(), ActionSpace.HAND_SLOTS);
+        for (int slot = 0; slot < handSize; slot++) {
+            int score = value(view.getHandCardAttack(slot), view.getHandCardHealth(slot),
+                    view.isHandCardTank(slot));
+            if (score > bestScore && view.getHandCardMana(slot) <= mana
+                    && view.getHandCardRowSize(slot) < ActionSpace.ROW_SLOTS) {
+                consider(ActionSpace.PLACE_CARD + slot, score);
+            }
+        }
+
+        for (int first = 0; first < ActionSpace.OWN_SLOTS; first += ActionSpace.ROW_SLOTS) {
+            int x = ActionSpace.tableRow(playerIdx, first);
+            for (int y = 0; y < rowSizes[x]; y++) {
+                int cell = x * ActionSpace.ROW_SLOTS + y;
+                if ((cardFlags[cell] & (GameView.FROZEN_FLAG | GameView.ATTACKED_FLAG)) == 0) {
+                    considerCard(playerIdx, enemyHealth, first + y, cell);
+                }
+                if (bestScore == WIN) {
+                    return;
+                }
+            }
+        }
+
+        int heroMana = view.getHeroMana(playerIdx);
+        if (!view.hasHeroAttacked(playerIdx) && heroMana <= mana) {
+            int heroId = view.getHeroId(playerIdx);
+            boolean enemyRows = heroId == LORD_ROYCE || heroId == EMPRESS_THORINA;
+            for (int row = 0; row < ActionSpace.TABLE_ROWS; row++) {
+                if (isEnemyRow(playerIdx, row) == enemyRows) {
+                    consider(ActionSpace.HERO_ABILITY + row,
+                            heroAbilityScore(heroId, row) - heroMana);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps an action as the best one if it scores higher.
+     */
+    private void consider(final int actionId, final int score) {
+        if (score > bestScore) {
+            best = actionId;
+            bestScore = score;
+        }
+    }
+
+    private static boolean isEnemyRow(final int playerIdx, final int row) {
+        return (row >= Constants.TWO) != (playerIdx == Constants.ONE);
+    }
+
+    private boolean isTank(final int cell) {
+        return (cardFlags[cell] & GameView.TANK_FLAG) != 0;
+    }
+
+    /**
+     * Scores the moves of one of the current player's cards that can still act.
+     */
+    private void considerCard(final int playerIdx, final int enemyHealth, final int own,
+                              final int cell) {
+        int attack = cardAttack[cell];
+        if (!enemyTanks) {
+            consider(ActionSpace.ATTACK_HERO + own, (attack >= enemyHealth)
+                    ? WIN : attack * HERO_DAMAGE_WEIGHT);
+        }
+
+        int attacks = ActionSpace.CARD_ATTACK + own * ActionSpace.OWN_SLOTS;
+        for (int i = 0; i < targets; i++) {
+            int target = targetCell[i];
+            consider(attacks + targetSlot[i],
+                    (attack >= cardHealth[target]) ? cellValue(target) + KILL_BONUS : attack);
+        }
+
+        int typeId = cardType[cell];
+        if (typeId != DISCIPLE && typeId != MIRAJ && typeId != THE_CURSED_ONE
+                && typeId != THE_RIPPER) {
+            return;
+        }
+        // the rules hold only Miraj and The Cursed One to the enemy tanks
+        boolean tanksOnly = enemyTanks && typeId != DISCIPLE && typeId != THE_RIPPER;
+        for (int tx = 0; tx < ActionSpace.TABLE_ROWS; tx++) {
+            if ((typeId == DISCIPLE) == isEnemyRow(playerIdx, tx)) {
+                continue;
+            }
+            for (int ty = 0; ty < rowSizes[tx]; ty++) {
+                int target = tx * ActionSpace.ROW_SLOTS + ty;
+                if (!tanksOnly || isTank(target)) {
+                    consider(ActionSpace.CARD_ABILITY + own * ActionSpace.TABLE_SLOTS + target,
+                            abilityScore(typeId, cell, target));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the static value of a card: what the opponent loses when it dies.
+     *
+     * @param attack the attack damage of the card
+     * @param health the health of the card
+     * @param tank   whether the card is a tank
+     * @return the value of the card
+     */
+    private static int value(final int attack, final int health, final boolean tank) {
+        return attack * ATTACK_WEIGHT + health + (tank ? TANK_BONUS : 0);
+    }
+
+    private int cellValue(final int cell) {
+        return value(cardAttack[cell], cardHealth[cell], isTank(cell));
+    }
+
+    private int abilityScore(final int typeId, final int cell, final int target) {
+        int health = cardHealth[target];
+        int attack = cardAttack[target];
+
+        if (typeId == DISCIPLE) {
+            return DISCIPLE_HEALTH;
+        } else if (typeId == THE_RIPPER) {
+            return Math.min(RIPPER_ATTACK, attack) * ATTACK_WEIGHT;
+        } else if (typeId == MIRAJ) {
+            return health - cardHealth[cell];
+        }
+
+        // The Cursed One swaps the health and the attack of the target, killing it at 0 attack
+        if (attack == 0) {
+            return cellValue(target) + KILL_BONUS;
+        }
+        return attack - health;
+    }
+
+    private int heroAbilityScore(final int heroId, final int row) {
+        int rowSize = rowSizes[row];
+        int first = row * ActionSpace.ROW_SLOTS;
+        int score = 0;
+        if (heroId == LORD_ROYCE) {
+            for (int y = 0; y < rowSize; y++) {
+                boolean frozen = (cardFlags[first + y] & GameView.FROZEN_FLAG) != 0;
+                score += frozen ? 0 : cardAttack[first + y];
+            }
+        } else if (heroId == EMPRESS_THORINA) {
+            int target = first;
+            for (int cell = first + 1; cell < first + rowSize; cell++) {
+                if (cardHealth[cell] > cardHealth[target]) {
+                    target = cell;
+                }
+            }
+            score = (rowSize > 0) ? cellValue(target) : 0;
+        } else if (heroId == GENERAL_KOCIORAW) {
+            score = rowSize * ATTACK_WEIGHT;
+        } else if (heroId == KING_MUDFACE) {
+            score = rowSize;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,25 @@
+package org.poo.bot;
+
+/**
+ * A bot choosing the moves of a player. Policies are anytime algorithms: they may keep
+ * improving their choice while time is left, but must return the best move found so far
+ * before the deadline. Moves returned after the deadline are discarded by the engine.
+ */
+public interface Policy {
+
+    /**
+     * Returns the name of the policy, used to identify it in statistics and caches.
+     *
+     * @return the name of the policy
+     */
+    String getName();
+
+    /**
+     * Chooses the next move of the current player.
+     *
+     * @param view     a read-only view of the game
+     * @param deadline the {@link System#nanoTime()} value by which the move must be returned
+     * @return an action id, as defined by {@link org.poo.env.ActionSpace}
+     */
+    int chooseAction(GameView view, long deadline);
+}
@@ -0,0 +1,104 @@
+package org.poo.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The result of a simulated game, as kept by an {@link OutcomeCache}.
+ */
+public final class GameOutcome {
+
+    /**
+     * Number of bytes of an outcome, as written by {@link #writeTo(ByteBuffer)}.
+     */
+    public static final int BYTES = 5 * Integer.BYTES;
+
+    private final int winner;
+    private final int rounds;
+    private final int decisions;
+    private final int playerOneHealth;
+    private final int playerTwoHealth;
+
+    /**
+     * Creates an outcome.
+     *
+     * @param winner          the index of the winning player, or 0 if the game was abandoned
+     * @param rounds          the number of rounds started after the first round of the game
+     * @param decisions       the number of decisions taken during the game
+     * @param playerOneHealth the final health of player one's hero
+     * @param playerTwoHealth the final health of player two's hero
+     */
+    public GameOutcome(final int winner, final int rounds, final int decisions,
+                       final int playerOneHealth, final int playerTwoHealth) {
+        this.winner = winner;
+        this.rounds = rounds;
+        this.decisions = decisions;
+        this.playerOneHealth = playerOneHealth;
+        this.playerTwoHealth = playerTwoHealth;
+    }
+
+    /**
+     * Reads an outcome.
+     *
+     * @param buffer the buffer to read from, at its position
+     * @return the outcome
+     */
+    public static GameOutcome readFrom(final ByteBuffer buffer) {
+        return new GameOutcome(buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                buffer.getInt(), buffer.getInt());
+    }
+
+    /**
+     * Writes the outcome.
+     *
+     * @param buffer the buffer to write to, at its position
+     */
+    public void writeTo(final ByteBuffer buffer) {
+        buffer.putInt(winner).putInt(rounds).putInt(decisions).putInt(playerOneHealth)
+                .putInt(playerTwoHealth);
+    }
+
+    /**
+     * Returns the winner of the game.
+     *
+     * @return the index of the winning player, or 0 if the game was abandoned
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns the number of rounds started after the first round of the game.
+     *
+     * @return the number of rounds
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Returns the number of decisions taken during the game.
+     *
+     * @return the number of decisions
+     */
+    public int getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * Returns the final health of player one's hero.
+     *
+     * @return the health
+     */
+    public int getPlayerOneHealth() {
+        return playerOneHealth;
+    }
+
+    /**
+     * Returns the final health of player two's hero.
+     *
+     * @return the health
+     */
+    public int getPlayerTwoHealth() {
+        return playerTwoHealth;
+    }
+}
@@ -0,0 +1,217 @@
+package org.poo.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the outcomes of simulated games by {@link SetupKey}. The most recently used outcomes
+ * are kept in memory, up to a fixed number; when backed by a file, every outcome is also
+ * appended to it, and the cache falls back to the file for outcomes evicted from memory or
+ * stored by an earlier run.
+ * <p>
+ * The file starts with a magic number and a format version, followed by fixed-size entries:
+ * the key, then the outcome. The index mapping keys to entry offsets is rebuilt by scanning the
+ * entries when the file is opened; a partial entry left at the end by an interrupted write is
+ * discarded.
+ */
+public final class OutcomeCache implements AutoCloseable {
+
+    public static final int MAGIC = 0x4757434F;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 2 * Integer.BYTES;
+    public static final int ENTRY_SIZE = SetupKey.BYTES + GameOutcome.BYTES;
+
+    private final int capacity;
+    private final LinkedHashMap<SetupKey, GameOutcome> recent;
+    private final HashMap<SetupKey, Long> index = new HashMap<>();
+    private final FileChannel file;
+    private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+
+    private long fileSize;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache kept only in memory.
+     *
+     * @param capacity the number of outcomes kept in memory
+     */
+    public OutcomeCache(final int capacity) {
+        this.capacity = capacity;
+        this.recent = createRecent(capacity);
+        this.file = null;
+    }
+
+    /**
+     * Creates a cache backed by a file, creating the file if needed.
+     *
+     * @param capacity the number of outcomes kept in memory
+     * @param path     the file holding the outcomes
+     * @throws IOException if the file cannot be opened or is not an outcome cache
+     */
+    public OutcomeCache(final int capacity, final Path path) throws IOException {
+        this.capacity = capacity;
+        this.recent = createRecent(capacity);
+        this.file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (file.size() < HEADER_SIZE) {
+                header.putInt(MAGIC).putInt(VERSION).flip();
+                writeFully(header, 0);
+            } else {
+                readFully(header, 0);
+                if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException("Not an outcome cache: " + path);
+                }
+            }
+            loadIndex();
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    private static LinkedHashMap<SetupKey, GameOutcome> createRecent(final int limit) {
+        return new LinkedHashMap<>(Math.max(limit, 1), 1f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<SetupKey, GameOutcome> eldest) {
+                return size() > limit;
+            }
+        };
+    }
+
+    private void loadIndex() throws IOException {
+        long entries = (file.size() - HEADER_SIZE) / ENTRY_SIZE;
+        fileSize = HEADER_SIZE + entries * ENTRY_SIZE;
+        file.truncate(fileSize);
+
+        ByteBuffer keys = ByteBuffer.allocate(SetupKey.BYTES);
+        for (long offset = HEADER_SIZE; offset < fileSize; offset += ENTRY_SIZE) {
+            keys.clear();
+            readFully(keys, offset);
+            index.put(SetupKey.readFrom(keys), offset);
+        }
+    }
+
+    /**
+     * Looks up the outcome of a game.
+     *
+     * @param key the key of the game
+     * @return the outcome, or null if the game is not cached
+     */
+    public synchronized GameOutcome get(final SetupKey key) {
+        GameOutcome outcome = recent.get(key);
+        if (outcome == null && file != null) {
+            Long offset = index.get(key);
+            if (offset != null) {
+                entry.clear().limit(GameOutcome.BYTES);
+                try {
+                    readFully(entry, offset + SetupKey.BYTES);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                outcome = GameOutcome.readFrom(entry);
+                recent.put(key, outcome);
+            }
+        }
+
+        if (outcome != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return outcome;
+    }
+
+    /**
+     * Stores the outcome of a game. Games already stored are left unchanged.
+     *
+     * @param key     the key of the game
+     * @param outcome the outcome
+     */
+    public synchronized void put(final SetupKey key, final GameOutcome outcome) {
+        if (recent.containsKey(key) || index.containsKey(key)) {
+            return;
+        }
+        recent.put(key, outcome);
+        if (file == null) {
+            return;
+        }
+
+        entry.clear();
+        key.writeTo(entry);
+        outcome.writeTo(entry);
+        entry.flip();
+        try {
+            writeFully(entry, fileSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        index.put(key, fileSize);
+        fileSize += ENTRY_SIZE;
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (file.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of the outcome cache.");
+            }
+        }
+        buffer.flip();
+    }
+
+    private void writeFully(final ByteBuffer buffer, final long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            file.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Returns the number of outcomes kept in memory at most.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of lookups that found an outcome.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that found no outcome.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Closes the backing file, if any.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (file != null) {
+            file.force(false);
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.poo.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the output of scripted sessions, so that a session seen before, in any input file,
+ * is not played again. The output of a session depends only on the decks the players use, the
+ * setup, the actions and the win counters it starts with, so these are hashed into the key.
+ * The most recently used sessions are kept, up to a fixed number.
+ * <p>
+ * The stored output nodes are shared by every output they are copied into, so they must not be
+ * modified once produced.
+ */
+public final class SessionMemo {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LinkedHashMap<SetupKey, Entry> sessions;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * The output of a session and its effect on the game counters.
+     */
+    public static final class Entry {
+
+        private final ArrayNode output;
+        private final int playerOneWins;
+        private final int playerTwoWins;
+        private final int rounds;
+
+        /**
+         * Creates an entry.
+         *
+         * @param output        the output nodes produced by the session
+         * @param playerOneWins the wins of player one after the session
+         * @param playerTwoWins the wins of player two after the session
+         * @param rounds        the number of rounds started after the first round of the session
+         */
+        public Entry(final ArrayNode output, final int playerOneWins, final int playerTwoWins,
+                     final int rounds) {
+            this.output = output;
+            this.playerOneWins = playerOneWins;
+            this.playerTwoWins = playerTwoWins;
+            this.rounds = rounds;
+        }
+
+        /**
+         * Returns the output nodes produced by the session.
+         *
+         * @return the output nodes, which must not be modified
+         */
+        public ArrayNode getOutput() {
+            return output;
+        }
+
+        /**
+         * Returns the wins of player one after the session.
+         *
+         * @return the number of wins
+         */
+        public int getPlayerOneWins() {
+            return playerOneWins;
+        }
+
+        /**
+         * Returns the wins of player two after the session.
+         *
+         * @return the number of wins
+         */
+        public int getPlayerTwoWins() {
+            return playerTwoWins;
+        }
+
+        /**
+         * Returns the number of rounds started after the first round of the session.
+         *
+         * @return the number of rounds
+         */
+        public int getRounds() {
+            return rounds;
+        }
+    }
+
+    /**
+     * Creates an empty memo.
+     *
+     * @param capacity the number of sessions kept
+     */
+    public SessionMemo(final int capacity) {
+        this.sessions = new LinkedHashMap<>(Math.max(capacity, 1), 1f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<SetupKey, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Computes the key of a session.
+     *
+     * @param inputData     the input holding the decks of both players
+     * @param session       the session
+     * @param playerOneWins the wins of player one before the session
+     * @param playerTwoWins the wins of player two before the session
+     * @return the key
+     */
+    public static SetupKey keyOf(final Input inputData, final GameInput session,
+                                 final int playerOneWins, final int playerTwoWins) {
+        StartGameInput startGame = session.getStartGame();
+        MessageDigest digest = SetupKey.newDigest();
+        try {
+            digest.update(MAPPER.writeValueAsBytes(SetupKey.selectDeck(
+                    inputData.getPlayerOneDecks().getDecks(), startGame.getPlayerOneDeckIdx())));
+            digest.update(MAPPER.writeValueAsBytes(SetupKey.selectDeck(
+                    inputData.getPlayerTwoDecks().getDecks(), startGame.getPlayerTwoDeckIdx())));
+            digest.update(MAPPER.writeValueAsBytes(startGame));
+            digest.update(MAPPER.writeValueAsBytes(session.getActions()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the session.", e);
+        }
+        SetupKey.putInt(digest, playerOneWins);
+        SetupKey.putInt(digest, playerTwoWins);
+        return SetupKey.fromDigest(digest);
+    }
+
+    /**
+     * Looks up a session.
+     *
+     * @param key the key of the session
+     * @return the stored entry, or null if the session is not known
+     */
+    public synchronized Entry get(final SetupKey key) {
+        Entry entry = sessions.get(key);
+        if (entry != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return entry;
+    }
+
+    /**
+     * Stores the output of a session.
+     *
+     * @param key   the key of the session
+     * @param entry the output of the session
+     */
+    public synchronized void put(final SetupKey key, final Entry entry) {
+        sessions.put(key, entry);
+    }
+
+    /**
+     * Returns the number of sessions found in the memo.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of sessions not found in the memo.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
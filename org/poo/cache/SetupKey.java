@@ -0,0 +1,205 @@
+package org.poo.cache;
+
+import org.poo.fileio.CardInput;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+
+/**
+ * A content hash identifying a simulated game: the cards of the decks actually played, the
+ * heroes, the shuffle seed, the starting player and the policies. Only what changes the course
+ * of the game is hashed, so card descriptions and colors, unused decks and the positions of the
+ * decks in the input do not matter. The key keeps the first 128 bits of a SHA-256 digest.
+ */
+public final class SetupKey {
+
+    /**
+     * Number of bytes of a key, as written by {@link #writeTo(ByteBuffer)}.
+     */
+    public static final int BYTES = 2 * Long.BYTES;
+
+    private final long high;
+    private final long low;
+
+    /**
+     * Creates a key from its two halves.
+     *
+     * @param high the first 64 bits of the hash
+     * @param low  the last 64 bits of the hash
+     */
+    public SetupKey(final long high, final long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Computes the key of a game.
+     *
+     * @param inputData the input holding the decks of both players
+     * @param startGame the setup of the game
+     * @param policyId  identifies the policies playing the game and their settings
+     * @return the key
+     */
+    public static SetupKey of(final Input inputData, final StartGameInput startGame,
+                              final String policyId) {
+        MessageDigest digest = putSetup(inputData, startGame, policyId);
+        putInt(digest, startGame.getShuffleSeed());
+        putInt(digest, startGame.getStartingPlayer());
+
+        return fromDigest(digest);
+    }
+
+    /**
+     * Computes the key of a game shuffled with a 64-bit seed, as played by a
+     * {@code GameEnvironment}. The shuffle seed of the setup is ignored; the whole seed is
+     * hashed, so games whose seeds only differ in their high bits get different keys.
+     *
+     * @param inputData   the input holding the decks of both players
+     * @param startGame   the deck indices, heroes and starting player of the game
+     * @param shuffleSeed the seed both decks were shuffled with
+     * @param policyId    identifies the policies playing the game and their settings
+     * @return the key
+     */
+    public static SetupKey of(final Input inputData, final StartGameInput startGame,
+                              final long shuffleSeed, final String policyId) {
+        MessageDigest digest = putSetup(inputData, startGame, policyId);
+        putLong(digest, shuffleSeed);
+        putInt(digest, startGame.getStartingPlayer());
+
+        return fromDigest(digest);
+    }
+
+    /**
+     * Starts the digest of a game with its policies, decks and heroes.
+     */
+    private static MessageDigest putSetup(final Input inputData, final StartGameInput startGame,
+                                          final String policyId) {
+        MessageDigest digest = newDigest();
+        putString(digest, policyId);
+        putDeck(digest, inputData.getPlayerOneDecks().getDecks(),
+                startGame.getPlayerOneDeckIdx());
+        putDeck(digest, inputData.getPlayerTwoDecks().getDecks(),
+                startGame.getPlayerTwoDeckIdx());
+        putCard(digest, startGame.getPlayerOneHero());
+        putCard(digest, startGame.getPlayerTwoHero());
+        return digest;
+    }
+
+    /**
+     * Hashes the deck a player uses.
+     */
+    private static void putDeck(final MessageDigest digest,
+                                final ArrayList<ArrayList<CardInput>> decks, final int deckIdx) {
+        ArrayList<CardInput> deck = selectDeck(decks, deckIdx);
+        putInt(digest, deck.size());
+        for (CardInput card : deck) {
+            putCard(digest, card);
+        }
+    }
+
+    /**
+     * Returns the deck a player uses, selected the way {@code SessionArena.setUpPlayer} selects it.
+     *
+     * @param decks   the decks of the player
+     * @param deckIdx the requested deck index
+     * @return the deck
+     */
+    static ArrayList<CardInput> selectDeck(final ArrayList<ArrayList<CardInput>> decks,
+                                           final int deckIdx) {
+        return decks.get((deckIdx >= 0 && deckIdx < decks.size()) ? deckIdx : 0);
+    }
+
+    /**
+     * Creates a message digest computing keys.
+     *
+     * @return a SHA-256 digest
+     */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    /**
+     * Completes a digest and keeps its first 128 bits as a key.
+     *
+     * @param digest the digest
+     * @return the key
+     */
+    static SetupKey fromDigest(final MessageDigest digest) {
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new SetupKey(hash.getLong(), hash.getLong());
+    }
+
+    private static void putCard(final MessageDigest digest, final CardInput card) {
+        putString(digest, card.getName());
+        putInt(digest, card.getMana());
+        putInt(digest, card.getAttackDamage());
+        putInt(digest, card.getHealth());
+    }
+
+    private static void putString(final MessageDigest digest, final String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    static void putInt(final MessageDigest digest, final int value) {
+        for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            digest.update((byte) (value >>> shift));
+        }
+    }
+
+    private static void putLong(final MessageDigest digest, final long value) {
+        putInt(digest, (int) (value >>> Integer.SIZE));
+        putInt(digest, (int) value);
+    }
+
+    /**
+     * Reads a key.
+     *
+     * @param buffer the buffer to read from, at its position
+     * @return the key
+     */
+    public static SetupKey readFrom(final ByteBuffer buffer) {
+        return new SetupKey(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Writes the key.
+     *
+     * @param buffer the buffer to write to, at its position
+     */
+    public void writeTo(final ByteBuffer buffer) {
+        buffer.putLong(high).putLong(low);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SetupKey)) {
+            return false;
+        }
+        SetupKey other = (SetupKey) o;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (low ^ (low >>> Integer.SIZE));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -1,5 +1,6 @@
 package org.poo.cards;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.poo.fileio.CardInput;
@@ -16,14 +17,28 @@ import java.util.List;
 @Setter
 public class Card {
 
+    private static final TurnClock DETACHED = new TurnClock();
+
     private int mana;
     private int health;
     private String description;
     private ArrayList<String> colors;
     private String name;
     private int attackDamage;
-    private boolean hasAttacked;
-    private boolean frozen;
+
+    /**
+     * The clock of the player whose rows hold the card; cards elsewhere use a clock that
+     * never advances.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TurnClock clock = DETACHED;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long attackedEpoch;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long frozenTurn;
 
     /**
      * Default constructor for creating a Card object without initialization.
@@ -49,16 +64,38 @@ public class Card {
         this.colors = colors;
         this.name = name;
         this.attackDamage = attackDamage;
-        this.hasAttacked = false;
-        this.frozen = false;
     }
 
     /**
      * Resets the state of the card, setting `hasAttacked` and `frozen` to false.
      */
     public void resetState() {
-        this.hasAttacked = false;
-        this.frozen = false;
+        setHasAttacked(false);
+        setFrozen(false);
+    }
+
+    /**
+     * Clears the flags of the card and detaches it from the clock of the player holding it,
+     * before the card is reused for another game.
+     */
+    public void detach() {
+        clock = DETACHED;
+        attackedEpoch = 0;
+        frozenTurn = 0;
+    }
+
+    /**
+     * Binds the card to the turn clock of the player whose rows now hold it, keeping its
+     * flags.
+     *
+     * @param turnClock the clock of the player
+     */
+    public void bindClock(final TurnClock turnClock) {
+        boolean attacked = getHasAttacked();
+        boolean wasFrozen = isFrozen();
+        clock = turnClock;
+        setHasAttacked(attacked);
+        setFrozen(wasFrozen);
     }
 
     /**
@@ -67,7 +104,7 @@ public class Card {
      * @return true if the card has not attacked and is not frozen, false otherwise
      */
     public boolean canAttack() {
-        return !this.hasAttacked && !this.frozen;
+        return !getHasAttacked() && !isFrozen();
     }
 
     private static final List<String> MINIONS = List.of(
@@ -104,6 +141,66 @@ public class Card {
         return Constants.ZERO;
     }
 
+    /**
+     * Returns a stable numeric id for a minion name, useful for compact encodings.
+     *
+     * @param name the name of the minion
+     * @return a value between 1 and the number of minion types, or Constants.ZERO
+     * if the name does not belong to a minion
+     */
+    public static int getMinionId(final String name) {
+        return MINIONS.indexOf(name) + 1;
+    }
+
+    /**
+     * Returns a stable numeric id for a hero name, useful for compact encodings.
+     *
+     * @param name the name of the hero
+     * @return a value between 1 and the number of hero types, or Constants.ZERO
+     * if the name does not belong to a hero
+     */
+    public static int getHeroId(final String name) {
+        return HEROES.indexOf(name) + 1;
+    }
+
+    /**
+     * Returns the number of minion types.
+     *
+     * @return the largest value returned by {@link #getMinionId(String)}
+     */
+    public static int getMinionTypes() {
+        return MINIONS.size();
+    }
+
+    /**
+     * Returns the name of a minion type.
+     *
+     * @param id the id of the minion type, as returned by {@link #getMinionId(String)}
+     * @return the name of the minion
+     */
+    public static String getMinionName(final int id) {
+        return MINIONS.get(id - 1);
+    }
+
+    /**
+     * Returns the number of hero types.
+     *
+     * @return the largest value returned by {@link #getHeroId(String)}
+     */
+    public static int getHeroTypes() {
+        return HEROES.size();
+    }
+
+    /**
+     * Returns the name of a hero type.
+     *
+     * @param id the id of the hero type, as returned by {@link #getHeroId(String)}
+     * @return the name of the hero
+     */
+    public static String getHeroName(final int id) {
+        return HEROES.get(id - 1);
+    }
+
     /**
      * Checks if a given card is a tank (e.g., Goliath or Warden).
      *
@@ -149,7 +246,36 @@ public class Card {
      * @return true if the card has attacked, false otherwise
      */
     public boolean getHasAttacked() {
-        return this.hasAttacked;
+        return attackedEpoch == clock.getAttackEpoch();
+    }
+
+    /**
+     * Sets whether the card has attacked; the flag is cleared when the clock of the card
+     * starts a new attack period.
+     *
+     * @param hasAttacked true if the card has attacked
+     */
+    public void setHasAttacked(final boolean hasAttacked) {
+        attackedEpoch = hasAttacked ? clock.getAttackEpoch() : 0;
+    }
+
+    /**
+     * Returns whether the card is frozen.
+     *
+     * @return true if the card is frozen, false otherwise
+     */
+    public boolean isFrozen() {
+        return frozenTurn == clock.getTurn();
+    }
+
+    /**
+     * Sets whether the card is frozen; the flag is cleared when the turn of the clock of the
+     * card ends.
+     *
+     * @param frozen true if the card is frozen
+     */
+    public void setFrozen(final boolean frozen) {
+        frozenTurn = frozen ? clock.getTurn() : 0;
     }
 
 }
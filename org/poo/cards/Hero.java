@@ -16,6 +16,8 @@ import static org.poo.game.Constants.START_HEALTH;
  */
 public abstract class Hero extends Card {
 
+    private final int typeId;
+
     /**
      * Constructs a Hero object with the specified properties.
      *
@@ -28,6 +30,16 @@ public abstract class Hero extends Card {
     public Hero(final int mana, final String description, final ArrayList<String> colors,
                 final String name, final int attackDamage) {
         super(mana, START_HEALTH, description, colors, name, attackDamage);
+        this.typeId = getHeroId(name);
+    }
+
+    /**
+     * Returns the numeric id of the hero's type, as given by {@link Card#getHeroId(String)}.
+     *
+     * @return the type id of the hero
+     */
+    public int getTypeId() {
+        return typeId;
     }
 
     /**
@@ -64,6 +76,60 @@ public abstract class Hero extends Card {
      */
     public abstract void useAbility(ArrayList<Minion> targets);
 
+    /**
+     * Restores the hero to the values of a hero of the same type at the start of a game, so
+     * that it can be reused for another game.
+     *
+     * @param heroInput the hero to copy the values from
+     */
+    public void resetTo(final CardInput heroInput) {
+        setMana(heroInput.getMana());
+        setHealth(START_HEALTH);
+        setAttackDamage(heroInput.getAttackDamage());
+        setDescription(heroInput.getDescription());
+        setColors(heroInput.getColors());
+        detach();
+    }
+
+    /**
+     * Creates a deep copy of the hero, keeping its current health and state.
+     *
+     * @return a new hero of the same type
+     */
+    public Hero copy() {
+        Hero hero = create(getMana(), getDescription(), getColors(), getName(),
+                getAttackDamage());
+        hero.setHealth(getHealth());
+        hero.setHasAttacked(getHasAttacked());
+        hero.setFrozen(isFrozen());
+        return hero;
+    }
+
+    /**
+     * Creates a specific Hero instance based on the provided name.
+     *
+     * @param mana         the mana cost of the hero
+     * @param description  a description of the hero's abilities or effects
+     * @param colors       a list of colors associated with the hero
+     * @param name         the name of the hero
+     * @param attackDamage the attack damage value of the hero
+     * @return a specific Hero instance based on the provided name
+     * @throws IllegalStateException if the hero's name does not match any known hero type
+     */
+    public static Hero create(final int mana, final String description,
+                              final ArrayList<String> colors, final String name,
+                              final int attackDamage) {
+        return switch (name) {
+            case "Empress Thorina" -> new EmpressThorina(mana, description, colors, name,
+                    attackDamage);
+            case "General Kocioraw" -> new GeneralKocioraw(mana, description, colors, name,
+                    attackDamage);
+            case "King Mudface" -> new KingMudface(mana, description, colors, name, attackDamage);
+            case "Lord Royce" -> new LordRoyce(mana, description, colors, name, attackDamage);
+            default -> throw new IllegalStateException("Unexpected value: " + name);
+        };
+    }
+
     /**
      * Creates a specific Hero instance based on a CardInput object.
      *
@@ -72,19 +138,8 @@ public abstract class Hero extends Card {
      * @throws IllegalStateException if the hero's name does not match any known hero type
      */
     public static Hero create(final CardInput cardInput) {
-        return switch (cardInput.getName()) {
-            case "Empress Thorina" -> new EmpressThorina(cardInput.getMana(),
-                    cardInput.getDescription(), cardInput.getColors(), cardInput.getName(),
-                    cardInput.getAttackDamage());
-            case "General Kocioraw" -> new GeneralKocioraw(cardInput.getMana(),
-                    cardInput.getDescription(), cardInput.getColors(), cardInput.getName(),
-                    cardInput.getAttackDamage());
-            case "King Mudface" -> new KingMudface(cardInput.getMana(), cardInput.getDescription(),
-                    cardInput.getColors(), cardInput.getName(), cardInput.getAttackDamage());
-            case "Lord Royce" -> new LordRoyce(cardInput.getMana(), cardInput.getDescription(),
-                    cardInput.getColors(), cardInput.getName(), cardInput.getAttackDamage());
-            default -> throw new IllegalStateException("Unexpected value: " + cardInput.getName());
-        };
+        return create(cardInput.getMana(), cardInput.getDescription(), cardInput.getColors(),
+                cardInput.getName(), cardInput.getAttackDamage());
     }
 
 }
@@ -18,6 +18,8 @@ import java.util.ArrayList;
  */
 public abstract class Minion extends Card {
 
+    private final int typeId;
+
     /**
      * Constructs a Minion object with the specified properties.
      *
@@ -31,6 +33,16 @@ public abstract class Minion extends Card {
     public Minion(final int mana, final int health, final String description,
                   final ArrayList<String> colors, final String name, final int attackDamage) {
         super(mana, health, description, colors, name, attackDamage);
+        this.typeId = getMinionId(name);
+    }
+
+    /**
+     * Returns the numeric id of the minion's type, as given by {@link Card#getMinionId(String)}.
+     *
+     * @return the type id of the minion
+     */
+    public int getTypeId() {
+        return typeId;
     }
 
     /**
@@ -51,6 +63,43 @@ public abstract class Minion extends Card {
      */
     public abstract void useAbility(Card attacker, Card target, ArrayList<Minion> row);
 
+    /**
+     * Checks if the minion has a special ability that has an effect on the game.
+     *
+     * @return true if the minion's ability changes the game state, false otherwise
+     */
+    public boolean hasAbility() {
+        return false;
+    }
+
+    /**
+     * Restores the minion to the values of a card of the same type, with no flags set, so
+     * that it can be reused for another game.
+     *
+     * @param template the card to copy the values from
+     */
+    public void resetTo(final Minion template) {
+        setMana(template.getMana());
+        setHealth(template.getHealth());
+        setAttackDamage(template.getAttackDamage());
+        setDescription(template.getDescription());
+        setColors(template.getColors());
+        detach();
+    }
+
+    /**
+     * Creates a deep copy of the minion, keeping its current health, attack damage and state.
+     *
+     * @return a new minion of the same type
+     */
+    public Minion copy() {
+        Minion minion = create(getMana(), getAttackDamage(), getHealth(), getDescription(),
+                getColors(), getName());
+        minion.setHasAttacked(getHasAttacked());
+        minion.setFrozen(isFrozen());
+        return minion;
+    }
+
     /**
      * Creates a specific Minion instance based on the provided name.
      *
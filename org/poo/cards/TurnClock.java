@@ -0,0 +1,46 @@
+package org.poo.cards;
+
+/**
+ * Counts the turns of a player, so that the frozen and attacked flags of the cards on the
+ * player's rows can be cleared all at once by advancing the clock instead of visiting every
+ * card. A card bound to the clock stamps the flags it sets with the current counters, and a
+ * flag is only set while its stamp matches the clock.
+ */
+public final class TurnClock {
+
+    private long turn = 1;
+    private long attackEpoch = 1;
+
+    /**
+     * Returns the number of the current turn of the player, starting at 1.
+     *
+     * @return the turn counter
+     */
+    public long getTurn() {
+        return turn;
+    }
+
+    /**
+     * Returns the counter of the periods during which a card can attack once, starting at 1.
+     *
+     * @return the attack counter
+     */
+    public long getAttackEpoch() {
+        return attackEpoch;
+    }
+
+    /**
+     * Ends the turn of the player: their cards are no longer frozen and may attack again.
+     */
+    public void endTurn() {
+        turn++;
+        attackEpoch++;
+    }
+
+    /**
+     * Starts a new round: the cards of the player may attack again.
+     */
+    public void startRound() {
+        attackEpoch++;
+    }
+}
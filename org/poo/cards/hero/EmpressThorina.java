@@ -1,6 +1,5 @@
 package org.poo.cards.hero;
 
-import org.poo.cards.Card;
 import org.poo.cards.Hero;
 import org.poo.cards.Minion;
 
@@ -33,16 +32,19 @@ public class EmpressThorina extends Hero {
      * @param targets a list of target minions affected by the ability
      */
     public void useAbility(final ArrayList<Minion> targets) {
-        Card maxHealthCard = new Card();
-        maxHealthCard.setHealth(-1);
+        int maxHealthIndex = -1;
+        int maxHealth = -1;
 
-        for (Card card : targets) {
-            if (card.getHealth() > maxHealthCard.getHealth()) {
-                maxHealthCard = card;
+        for (int i = 0; i < targets.size(); i++) {
+            if (targets.get(i).getHealth() > maxHealth) {
+                maxHealth = targets.get(i).getHealth();
+                maxHealthIndex = i;
             }
         }
 
-        targets.remove(maxHealthCard);
+        if (maxHealthIndex != -1) {
+            targets.remove(maxHealthIndex);
+        }
         this.setHasAttacked(true);
     }
 }
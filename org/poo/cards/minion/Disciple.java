@@ -38,4 +38,14 @@ public class Disciple extends Minion {
         target.setHealth(target.getHealth() + 2);
         attacker.setHasAttacked(true);
     }
+
+    /**
+     * Checks if the minion has a special ability that has an effect on the game.
+     *
+     * @return always true
+     */
+    @Override
+    public boolean hasAbility() {
+        return true;
+    }
 }
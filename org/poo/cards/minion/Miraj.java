@@ -40,4 +40,13 @@ public class Miraj extends Minion {
         attacker.setHasAttacked(true);
     }
 
+    /**
+     * Checks if the minion has a special ability that has an effect on the game.
+     *
+     * @return always true
+     */
+    @Override
+    public boolean hasAbility() {
+        return true;
+    }
 }
@@ -44,4 +44,14 @@ public class TheCursedOne extends Minion {
         }
         attacker.setHasAttacked(true);
     }
+
+    /**
+     * Checks if the minion has a special ability that has an effect on the game.
+     *
+     * @return always true
+     */
+    @Override
+    public boolean hasAbility() {
+        return true;
+    }
 }
@@ -0,0 +1,245 @@
+package org.poo.env;
+
+import org.poo.cards.Minion;
+import org.poo.fileio.ActionsInput;
+import org.poo.game.Commands;
+import org.poo.game.Constants;
+import org.poo.player.Player;
+
+import java.util.ArrayList;
+
+/**
+ * Maps the moves available to the current player onto a fixed range of integer action ids.
+ * The ids are laid out as consecutive blocks:
+ * <ul>
+ *     <li>{@link #END_TURN} - ends the turn;</li>
+ *     <li>{@link #PLACE_CARD} + hand slot - places a card from the hand;</li>
+ *     <li>{@link #CARD_ATTACK} + own slot * {@link #OWN_SLOTS} + enemy slot - attacks a card;</li>
+ *     <li>{@link #CARD_ABILITY} + own slot * {@link #TABLE_SLOTS} + table slot - uses the
+ *     ability of a card;</li>
+ *     <li>{@link #ATTACK_HERO} + own slot - attacks the enemy hero;</li>
+ *     <li>{@link #HERO_ABILITY} + table row - uses the hero's ability.</li>
+ * </ul>
+ * Own and enemy slots cover the front row (slots 0-4) and the back row (slots 5-9) of the
+ * respective player, while table slots cover the whole 4x5 table, row by row.
+ */
+public final class ActionSpace {
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private ActionSpace() { }
+
+    /**
+     * Number of hand positions that can be addressed by an action.
+     */
+    public static final int HAND_SLOTS = 10;
+    public static final int ROW_SLOTS = Constants.MAX_CARDS_IN_ROW;
+    public static final int TABLE_ROWS = 4;
+    public static final int OWN_SLOTS = 2 * ROW_SLOTS;
+    public static final int TABLE_SLOTS = TABLE_ROWS * ROW_SLOTS;
+
+    public static final int END_TURN = 0;
+    public static final int PLACE_CARD = END_TURN + 1;
+    public static final int CARD_ATTACK = PLACE_CARD + HAND_SLOTS;
+    public static final int CARD_ABILITY = CARD_ATTACK + OWN_SLOTS * OWN_SLOTS;
+    public static final int ATTACK_HERO = CARD_ABILITY + OWN_SLOTS * TABLE_SLOTS;
+    public static final int HERO_ABILITY = ATTACK_HERO + OWN_SLOTS;
+
+    /**
+     * Total number of action ids.
+     */
+    public static final int SIZE = HERO_ABILITY + TABLE_ROWS;
+
+    /**
+     * Returns the table row of one of the player's slots.
+     *
+     * @param playerIdx the index of the player (1 or 2)
+     * @param slot      the slot of the player, front row first
+     * @return the index of the row on the table
+     */
+    public static int tableRow(final int playerIdx, final int slot) {
+        boolean front = slot < ROW_SLOTS;
+        if (playerIdx == Constants.ONE) {
+            return front ? Constants.TWO : Constants.THREE;
+        }
+        return front ? Constants.ONE : Constants.ZERO;
+    }
+
+    /**
+     * Returns the card placed on a given table position.
+     *
+     * @param player1 player one
+     * @param player2 player two
+     * @param x       the row on the table
+     * @param y       the position in the row
+     * @return the card at that position, or null if the position is empty
+     */
+    public static Minion cardAt(final Player player1, final Player player2, final int x,
+                                final int y) {
+        ArrayList<Minion> row = Player.getRowIndex(x >= Constants.TWO ? player1 : player2, x);
+        return (y < row.size()) ? row.get(y) : null;
+    }
+
+    /**
+     * Returns the index of the command an action id belongs to.
+     *
+     * @param actionId the action id
+     * @return the command index, as returned by {@link Commands#getCommandIndex(String)}
+     * @throws IllegalArgumentException if the id is outside of the action space
+     */
+    public static int commandIndex(final int actionId) {
+        if (actionId < END_TURN || actionId >= SIZE) {
+            throw new IllegalArgumentException("Unexpected action id: " + actionId);
+        }
+
+        if (actionId == END_TURN) {
+            return Constants.ONE;
+        } else if (actionId < CARD_ATTACK) {
+            return Constants.TWO;
+        } else if (actionId < CARD_ABILITY) {
+            return Constants.THREE;
+        } else if (actionId < ATTACK_HERO) {
+            return Constants.FOUR;
+        } else if (actionId < HERO_ABILITY) {
+            return Constants.FIVE;
+        }
+        return Constants.SIX;
+    }
+
+    /**
+     * Fills an action input with the command described by an action id. The coordinates of the
+     * action must already be set, they are updated in place.
+     *
+     * @param actionId  the action id
+     * @param playerIdx the index of the player performing the action
+     * @param action    the action input to fill
+     * @return the command index of the action
+     */
+    public static int decode(final int actionId, final int playerIdx, final ActionsInput action) {
+        int command = commandIndex(actionId);
+        int enemyIdx = (playerIdx == Constants.ONE) ? Constants.TWO : Constants.ONE;
+
+        action.setPlayerIdx(playerIdx);
+        switch (command) {
+            case Constants.ONE -> action.setCommand("endPlayerTurn");
+            case Constants.TWO -> {
+                action.setCommand("placeCard");
+                action.setHandIdx(actionId - PLACE_CARD);
+            }
+            case Constants.THREE -> {
+                int index = actionId - CARD_ATTACK;
+                action.setCommand("cardUsesAttack");
+                setSlot(action, true, playerIdx, index / OWN_SLOTS);
+                setSlot(action, false, enemyIdx, index % OWN_SLOTS);
+            }
+            case Constants.FOUR -> {
+                int index = actionId - CARD_ABILITY;
+                action.setCommand("cardUsesAbility");
+                setSlot(action, true, playerIdx, index / TABLE_SLOTS);
+                action.getCardAttacked().setX((index % TABLE_SLOTS) / ROW_SLOTS);
+                action.getCardAttacked().setY(index % ROW_SLOTS);
+            }
+            case Constants.FIVE -> {
+                action.setCommand("useAttackHero");
+                setSlot(action, true, playerIdx, actionId - ATTACK_HERO);
+            }
+            default -> {
+                action.setCommand("useHeroAbility");
+                action.setAffectedRow(actionId - HERO_ABILITY);
+            }
+        }
+        return command;
+    }
+
+    private static void setSlot(final ActionsInput action, final boolean attacker,
+                                final int playerIdx, final int slot) {
+        int x = tableRow(playerIdx, slot);
+        int y = slot % ROW_SLOTS;
+        if (attacker) {
+            action.getCardAttacker().setX(x);
+            action.getCardAttacker().setY(y);
+        } else {
+            action.getCardAttacked().setX(x);
+            action.getCardAttacked().setY(y);
+        }
+    }
+
+    /**
+     * Checks if the current player can perform an action without the engine rejecting it.
+     * Abilities of minions without an effect are not considered legal.
+     *
+     * @param actionId      the action id
+     * @param currentPlayer the player whose turn it is
+     * @param player1       player one
+     * @param player2       player two
+     * @return true if the action is accepted by the game rules, false otherwise
+     */
+    public static boolean isLegal(final int actionId, final Player currentPlayer,
+                                  final Player player1, final Player player2) {
+        int playerIdx = currentPlayer.equals(player1) ? Constants.ONE : Constants.TWO;
+        int enemyIdx = (playerIdx == Constants.ONE) ? Constants.TWO : Constants.ONE;
+        Player opponent = (playerIdx == Constants.ONE) ? player2 : player1;
+
+        switch (commandIndex(actionId)) {
+            case Constants.ONE -> {
+                return true;
+            }
+            case Constants.TWO -> {
+                int handIdx = actionId - PLACE_CARD;
+                return handIdx < currentPlayer.getCardsInHand().size()
+                        && Commands.checkPlaceCard(currentPlayer,
+                        currentPlayer.getCardsInHand().get(handIdx)) == null;
+            }
+            case Constants.THREE -> {
+                int index = actionId - CARD_ATTACK;
+                Minion attackingCard = slotCard(player1, player2, playerIdx, index / OWN_SLOTS);
+                Minion defendingCard = slotCard(player1, player2, enemyIdx, index % OWN_SLOTS);
+                return attackingCard != null && defendingCard != null
+                        && Commands.checkCardAttack(currentPlayer, opponent, attackingCard,
+                        defendingCard) == null;
+            }
+            case Constants.FOUR -> {
+                int index = actionId - CARD_ABILITY;
+                int x = (index % TABLE_SLOTS) / ROW_SLOTS;
+                Minion attackingCard = slotCard(player1, player2, playerIdx, index / TABLE_SLOTS);
+                Minion defendingCard = cardAt(player1, player2, x, index % ROW_SLOTS);
+                Player defender = (x >= Constants.TWO) ? player1 : player2;
+                return attackingCard != null && defendingCard != null
+                        && attackingCard.hasAbility()
+                        && Commands.checkCardAbility(currentPlayer, defender, attackingCard,
+                        defendingCard) == null;
+            }
+            case Constants.FIVE -> {
+                Minion attackingCard = slotCard(player1, player2, playerIdx,
+                        actionId - ATTACK_HERO);
+                return attackingCard != null
+                        && Commands.checkAttackHero(opponent, attackingCard) == null;
+            }
+            default -> {
+                Player target = (actionId - HERO_ABILITY >= Constants.TWO) ? player1 : player2;
+                return Commands.checkHeroAbility(currentPlayer, target) == null;
+            }
+        }
+    }
+
+    /**
+     * Fills a mask with the legality of every action id for the current player.
+     *
+     * @param mask          the mask to fill, of at least {@link #SIZE} elements
+     * @param currentPlayer the player whose turn it is
+     * @param player1       player one
+     * @param player2       player two
+     */
+    public static void legalActionMask(final boolean[] mask, final Player currentPlayer,
+                                       final Player player1, final Player player2) {
+        for (int actionId = 0; actionId < SIZE; actionId++) {
+            mask[actionId] = isLegal(actionId, currentPlayer, player1, player2);
+        }
+    }
+
+    private static Minion slotCard(final Player player1, final Player player2,
+                                   final int playerIdx, final int slot) {
+        return cardAt(player1, player2, tableRow(playerIdx, slot), slot % ROW_SLOTS);
+    }
+}
@@ -0,0 +1,322 @@
+package org.poo.env;
+
+import org.poo.bot.GameView;
+import org.poo.cards.Card;
+import org.poo.cards.Minion;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Coordinates;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+import org.poo.game.Commands;
+import org.poo.game.Constants;
+import org.poo.game.SessionArena;
+import org.poo.player.DeckLibrary;
+import org.poo.player.Player;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+
+/**
+ * An in-process environment for training agents against the game rules. Both players act
+ * through {@link #step(int)}, always on behalf of the player whose turn it is, using the action
+ * ids defined by {@link ActionSpace}.
+ * <p>
+ * Observations are fixed-size float tensors written into caller-supplied buffers:
+ * the table ({@link ActionSpace#TABLE_SLOTS} cells of {@link #CELL_FEATURES} values, row by
+ * row), the hand of the current player ({@link ActionSpace#HAND_SLOTS} cards of
+ * {@link #HAND_FEATURES} values), {@link #PLAYER_FEATURES} values for each player and the
+ * index of the current player followed by the round.
+ */
+public class GameEnvironment {
+
+    /**
+     * Values per table cell: present, mana, attack, health, frozen, has attacked, tank, minion id.
+     */
+    public static final int CELL_FEATURES = 8;
+    /**
+     * Values per hand card: present, mana, attack, health, minion id.
+     */
+    public static final int HAND_FEATURES = 5;
+    /**
+     * Values per player: mana, hero health, hero has attacked, cards in hand, cards in deck.
+     */
+    public static final int PLAYER_FEATURES = 5;
+
+    public static final int HAND_OFFSET = ActionSpace.TABLE_SLOTS * CELL_FEATURES;
+    public static final int PLAYERS_OFFSET = HAND_OFFSET + ActionSpace.HAND_SLOTS * HAND_FEATURES;
+    public static final int TURN_OFFSET = PLAYERS_OFFSET + 2 * PLAYER_FEATURES;
+
+    /**
+     * Number of float values in one observation.
+     */
+    public static final int OBSERVATION_SIZE = TURN_OFFSET + 2;
+
+    private final DeckLibrary library;
+    private final int[] playerOneDecks;
+    private final int[] playerTwoDecks;
+    private final StartGameInput setup;
+    private final SessionArena arena = new SessionArena();
+
+    private final ActionsInput action = new ActionsInput();
+    private final float[] observation = new float[OBSERVATION_SIZE];
+
+    private Player player1;
+    private Player player2;
+    private Player currentPlayer;
+    private Player opponentPlayer;
+
+    private int round;
+    private int winner;
+
+    /**
+     * Creates an environment playing games between the decks of the given input.
+     *
+     * @param inputData the input holding the decks of both players
+     * @param setup     the deck indices, heroes and starting player of every episode; the
+     *                  shuffle seed is replaced by the seed given to {@link #reset(long)}
+     */
+    public GameEnvironment(final Input inputData, final StartGameInput setup) {
+        this(inputData, setup, new DeckLibrary());
+    }
+
+    /**
+     * Creates an environment playing games between the decks of the given input, stored in
+     * a library shared with other environments.
+     *
+     * @param inputData the input holding the decks of both players
+     * @param setup     the deck indices, heroes and starting player of every episode; the
+     *                  shuffle seed is replaced by the seed given to {@link #reset(long)}
+     * @param library   the library receiving the decks; it must not be read by another
+     *                  thread while the environment is created
+     */
+    public GameEnvironment(final Input inputData, final StartGameInput setup,
+                           final DeckLibrary library) {
+        this.library = library;
+        this.playerOneDecks = library.addDecks(inputData.getPlayerOneDecks().getDecks());
+        this.playerTwoDecks = library.addDecks(inputData.getPlayerTwoDecks().getDecks());
+        this.setup = setup;
+
+        action.setCardAttacker(new Coordinates());
+        action.setCardAttacked(new Coordinates());
+    }
+
+    /**
+     * Starts a new episode. The players and cards of the previous episode are reused.
+     *
+     * @param seed the seed used to shuffle both decks
+     */
+    public void reset(final long seed) {
+        player1 = arena.setUpPlayer(Constants.ONE, library,
+                selectDeck(playerOneDecks, setup.getPlayerOneDeckIdx()),
+                setup.getPlayerOneHero(), seed);
+        player2 = arena.setUpPlayer(Constants.TWO, library,
+                selectDeck(playerTwoDecks, setup.getPlayerTwoDeckIdx()),
+                setup.getPlayerTwoHero(), seed);
+
+        currentPlayer = (setup.getStartingPlayer() == Constants.ONE) ? player1 : player2;
+        opponentPlayer = (setup.getStartingPlayer() == Constants.ONE) ? player2 : player1;
+
+        round = Constants.ONE;
+        winner = Constants.ZERO;
+    }
+
+    /**
+     * Returns the library id of the deck a player uses.
+     */
+    private static int selectDeck(final int[] deckIds, final int deckIdx) {
+        return deckIds[deckIndex(deckIds, deckIdx)];
+    }
+
+    /**
+     * Returns the index of the deck a player uses, falling back to the first deck for an
+     * invalid index, as a game does.
+     */
+    private static int deckIndex(final int[] deckIds, final int deckIdx) {
+        return (deckIdx >= 0 && deckIdx < deckIds.length) ? deckIdx : 0;
+    }
+
+    /**
+     * Performs an action for the current player. Actions rejected by the game rules leave the
+     * game unchanged.
+     *
+     * @param actionId the action id, as defined by {@link ActionSpace}
+     * @return 1 if the action killed the enemy hero, 0 otherwise
+     * @throws IllegalStateException if the episode is already over
+     */
+    public float step(final int actionId) {
+        if (winner != Constants.ZERO) {
+            throw new IllegalStateException("The episode is over, reset the environment first.");
+        }
+        if (!ActionSpace.isLegal(actionId, currentPlayer, player1, player2)) {
+            return 0f;
+        }
+
+        // Only legal actions get here, so they are played without an output container.
+        switch (ActionSpace.decode(actionId, getCurrentPlayerIdx(), action)) {
+            case Constants.ONE -> {
+                if (Commands.endPlayerTurn(currentPlayer, opponentPlayer)) {
+                    round++;
+                }
+                Player tmp = currentPlayer;
+                currentPlayer = opponentPlayer;
+                opponentPlayer = tmp;
+            }
+            case Constants.TWO -> Commands.placeCard(null, action, currentPlayer,
+                    action.getHandIdx());
+            case Constants.THREE -> Commands.cardUsesAttack(null, action, player1, player2);
+            case Constants.FOUR -> Commands.cardUsesAbility(null, action, player1, player2);
+            case Constants.FIVE -> {
+                Commands.useAttackHero(null, action, player1, player2);
+                winner = Commands.heroKiller(action, player1, player2);
+            }
+            default -> Commands.useHeroAbility(null, action, currentPlayer, player1, player2);
+        }
+
+        return (winner == Constants.ZERO) ? 0f : 1f;
+    }
+
+    /**
+     * Fills a mask with the legality of every action id for the current player.
+     *
+     * @param mask the mask to fill, of at least {@link ActionSpace#SIZE} elements
+     */
+    public void legalActionMask(final boolean[] mask) {
+        ActionSpace.legalActionMask(mask, currentPlayer, player1, player2);
+    }
+
+    /**
+     * Writes the current observation into a float buffer, without changing its position.
+     *
+     * @param buffer the destination buffer
+     * @param offset the index of the first value to write
+     */
+    public void writeObservation(final FloatBuffer buffer, final int offset) {
+        encodeObservation();
+        buffer.put(offset, observation);
+    }
+
+    /**
+     * Writes the current observation into a byte buffer as floats in the buffer's byte order,
+     * without changing its position.
+     *
+     * @param buffer the destination buffer
+     * @param offset the index of the first byte to write
+     */
+    public void writeObservation(final ByteBuffer buffer, final int offset) {
+        encodeObservation();
+        for (int i = 0; i < OBSERVATION_SIZE; i++) {
+            buffer.putFloat(offset + i * Float.BYTES, observation[i]);
+        }
+    }
+
+    private void encodeObservation() {
+        for (int x = 0; x < ActionSpace.TABLE_ROWS; x++) {
+            for (int y = 0; y < ActionSpace.ROW_SLOTS; y++) {
+                Minion card = ActionSpace.cardAt(player1, player2, x, y);
+                int base = (x * ActionSpace.ROW_SLOTS + y) * CELL_FEATURES;
+                int i = encodeCard(card, base);
+                observation[i++] = (card != null && card.isFrozen()) ? 1f : 0f;
+                observation[i++] = (card != null && card.getHasAttacked()) ? 1f : 0f;
+                observation[i++] = (card != null && Card.isTank(card)) ? 1f : 0f;
+                observation[i] = (card != null) ? card.getTypeId() : 0f;
+            }
+        }
+
+        ArrayList<Minion> hand = currentPlayer.getCardsInHand();
+        for (int slot = 0; slot < ActionSpace.HAND_SLOTS; slot++) {
+            Minion card = (slot < hand.size()) ? hand.get(slot) : null;
+            int i = encodeCard(card, HAND_OFFSET + slot * HAND_FEATURES);
+            observation[i] = (card != null) ? card.getTypeId() : 0f;
+        }
+
+        encodePlayer(player1, PLAYERS_OFFSET);
+        encodePlayer(player2, PLAYERS_OFFSET + PLAYER_FEATURES);
+
+        observation[TURN_OFFSET] = getCurrentPlayerIdx();
+        observation[TURN_OFFSET + 1] = round;
+    }
+
+    private int encodeCard(final Minion card, final int base) {
+        int i = base;
+        observation[i++] = (card != null) ? 1f : 0f;
+        observation[i++] = (card != null) ? card.getMana() : 0f;
+        observation[i++] = (card != null) ? card.getAttackDamage() : 0f;
+        observation[i++] = (card != null) ? card.getHealth() : 0f;
+        return i;
+    }
+
+    private void encodePlayer(final Player player, final int base) {
+        int i = base;
+        observation[i++] = player.getManaManager().getMana();
+        observation[i++] = player.getHero().getHealth();
+        observation[i++] = player.getHero().getHasAttacked() ? 1f : 0f;
+        observation[i++] = player.getCardsInHand().size();
+        observation[i] = player.getDeckManager().getDeckSize();
+    }
+
+    /**
+     * Points a policy view at the current episode.
+     *
+     * @param view the view to bind
+     */
+    public void bindView(final GameView view) {
+        view.bind(player1, player2, currentPlayer, round);
+    }
+
+    /**
+     * Returns the index of the player whose turn it is.
+     *
+     * @return 1 or 2
+     */
+    public int getCurrentPlayerIdx() {
+        return currentPlayer.equals(player1) ? Constants.ONE : Constants.TWO;
+    }
+
+    /**
+     * Returns the winner of the current episode.
+     *
+     * @return the index of the winning player, or 0 if the episode is still running
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Checks if the current episode is over.
+     *
+     * @return true if a hero has been killed, false otherwise
+     */
+    public boolean isDone() {
+        return winner != Constants.ZERO;
+    }
+
+    /**
+     * Returns the index of the deck player one plays, which is the first deck if the setup
+     * holds an invalid index.
+     *
+     * @return the deck index
+     */
+    public int getPlayerOneDeckIdx() {
+        return deckIndex(playerOneDecks, setup.getPlayerOneDeckIdx());
+    }
+
+    /**
+     * Returns the index of the deck player two plays, which is the first deck if the setup
+     * holds an invalid index.
+     *
+     * @return the deck index
+     */
+    public int getPlayerTwoDeckIdx() {
+        return deckIndex(playerTwoDecks, setup.getPlayerTwoDeckIdx());
+    }
+
+    /**
+     * Returns the current round of the episode, starting from 1.
+     *
+     * @return the round
+     */
+    public int getRound() {
+        return round;
+    }
+}
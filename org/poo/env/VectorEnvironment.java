@@ -0,0 +1,160 @@
+package org.poo.env;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Steps several {@link GameEnvironment}s at once, splitting them between a fixed set of worker
+ * threads. Environments whose episode ends are reset automatically with a new seed, so the
+ * observation written for them is the first observation of the next episode.
+ * <p>
+ * The workers are parked between calls and woken up directly, so a step does not allocate.
+ */
+public final class VectorEnvironment implements AutoCloseable {
+
+    private final GameEnvironment[] environments;
+    private final long[] seeds;
+    private final Thread[] workers;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private volatile int generation;
+    private volatile boolean closed;
+    private volatile Thread caller;
+    private volatile RuntimeException failure;
+
+    private int[] stepActions;
+    private float[] stepRewards;
+    private boolean[] stepDones;
+    private FloatBuffer stepObservations;
+
+    /**
+     * Creates a vectorized environment and starts its worker threads.
+     *
+     * @param environments the environments to step together
+     * @param threads      the number of worker threads
+     */
+    public VectorEnvironment(final GameEnvironment[] environments, final int threads) {
+        this.environments = environments;
+        this.seeds = new long[environments.length];
+        this.workers = new Thread[Math.max(1, Math.min(threads, environments.length))];
+
+        for (int i = 0; i < workers.length; i++) {
+            final int worker = i;
+            workers[i] = new Thread(() -> work(worker), "environment-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Returns the number of environments.
+     *
+     * @return the number of environments
+     */
+    public int size() {
+        return environments.length;
+    }
+
+    /**
+     * Resets every environment, using consecutive seeds starting from the given one, and writes
+     * the first observations.
+     *
+     * @param seed         the seed of the first environment
+     * @param observations the destination of the observations, {@link
+     *                     GameEnvironment#OBSERVATION_SIZE} values per environment
+     */
+    public void reset(final long seed, final FloatBuffer observations) {
+        for (int i = 0; i < environments.length; i++) {
+            seeds[i] = seed + i;
+            environments[i].reset(seeds[i]);
+            environments[i].writeObservation(observations,
+                    i * GameEnvironment.OBSERVATION_SIZE);
+        }
+    }
+
+    /**
+     * Performs one action in every environment.
+     *
+     * @param actions      the action id of each environment
+     * @param rewards      receives the reward of each environment
+     * @param dones        receives whether the episode of each environment ended
+     * @param observations the destination of the observations, {@link
+     *                     GameEnvironment#OBSERVATION_SIZE} values per environment
+     */
+    public void step(final int[] actions, final float[] rewards, final boolean[] dones,
+                     final FloatBuffer observations) {
+        if (closed) {
+            throw new IllegalStateException("The environment is closed.");
+        }
+        this.stepActions = actions;
+        this.stepRewards = rewards;
+        this.stepDones = dones;
+        this.stepObservations = observations;
+        this.caller = Thread.currentThread();
+
+        pending.set(workers.length);
+        generation++;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        while (pending.get() != 0) {
+            LockSupport.park(this);
+        }
+
+        RuntimeException error = failure;
+        if (error != null) {
+            failure = null;
+            throw error;
+        }
+    }
+
+    private void work(final int worker) {
+        int seen = 0;
+        while (true) {
+            while (generation == seen && !closed) {
+                LockSupport.park(this);
+            }
+            if (closed) {
+                return;
+            }
+            seen = generation;
+
+            try {
+                for (int i = worker; i < environments.length; i += workers.length) {
+                    stepEnvironment(i);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+
+            if (pending.decrementAndGet() == 0) {
+                LockSupport.unpark(caller);
+            }
+        }
+    }
+
+    private void stepEnvironment(final int index) {
+        GameEnvironment environment = environments[index];
+
+        stepRewards[index] = environment.step(stepActions[index]);
+        stepDones[index] = environment.isDone();
+        if (stepDones[index]) {
+            seeds[index] += environments.length;
+            environment.reset(seeds[index]);
+        }
+        environment.writeObservation(stepObservations,
+                index * GameEnvironment.OBSERVATION_SIZE);
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package org.poo.game;
+
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.Coordinates;
+import org.poo.fileio.StartGameInput;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records the sessions of a game in an append-only binary log, as installed by
+ * {@link Game#setActionLog(ActionLog)}: the start of every session, every move with its
+ * result, and a {@link SessionCodec} snapshot of the session every few rounds. Queries are not
+ * logged, since they change nothing. {@link ActionLogReplay} rebuilds any point of a session
+ * from the nearest snapshot and the moves after it.
+ * <p>
+ * Next to the log, in the file given by {@link #indexFile(Path)}, a keyframe index lists the
+ * start of every session and every snapshot: after a magic number and a version, fixed-size
+ * entries of the offset of the record in the log, the index of the session in the log, the
+ * number of moves of the session so far, the round and the type of the record. Entries are in
+ * the order of the log, so they can be searched by session and move, and by round within a
+ * session: the round never decreases during a session, but a game appending to an existing log
+ * counts rounds from its own start. The index is appended after the records it points to.
+ * <p>
+ * When an existing log is opened, a record left cut short at its end by an interrupted write
+ * is discarded, and the index is rebuilt from a scan of the log if it does not list exactly
+ * the records kept, so the new records follow the last complete one.
+ * <p>
+ * The file starts with a magic number and a version byte, followed by records: a type byte,
+ * the length of the payload as a variable-length quantity and the payload, whose integers are
+ * written like {@link SessionCodec#putInt(ByteBuffer, int)}. Records are collected in a batch
+ * and appended together when the batch is full, on {@link #flush()} and on {@link #close()};
+ * with {@code sync}, every batch is also forced to the disk.
+ */
+public final class ActionLog implements AutoCloseable {
+
+    public static final int MAGIC = 0x4757414C;
+    public static final int VERSION = 1;
+
+    /**
+     * A session starts: the deck indices, shuffle seed, starting player, the dictionary index,
+     * mana and attack damage of both heroes, then the round and the wins of both players.
+     */
+    public static final int SESSION = 1;
+    /**
+     * A move: the command index, hand index, affected row, player index, x, y, both cards as
+     * x and y (-1 for a missing card), the error, as an index in
+     * {@link Exceptions#MOVE_ERRORS} plus one, or 0, and the winner, or 0.
+     */
+    public static final int MOVE = 2;
+    /**
+     * A snapshot of the session: the number of moves of the session so far, then the snapshot.
+     */
+    public static final int CHECKPOINT = 3;
+
+    /**
+     * Identifies a keyframe index.
+     */
+    public static final int INDEX_MAGIC = 0x47574958;
+    /**
+     * The size of the magic number and version of a keyframe index.
+     */
+    public static final int INDEX_HEADER = 2 * Integer.BYTES;
+    /**
+     * The size of an entry of a keyframe index.
+     */
+    public static final int INDEX_ENTRY = Long.BYTES + 4 * Integer.BYTES;
+
+    /**
+     * The size of the magic number and version of a log.
+     */
+    static final int LOG_HEADER = Integer.BYTES + 1;
+    /**
+     * The largest size of the type and length of a record.
+     */
+    static final int FRAME_HEADER = 1 + Integer.BYTES + 1;
+    private static final int MAX_MOVE_BYTES = 64;
+    private static final int INDEX_BATCH_ENTRIES = 256;
+
+    private final FileChannel channel;
+    private final FileChannel indexChannel;
+    private final SessionCodec codec;
+    private final int checkpointRounds;
+    private final boolean sync;
+    private final ByteBuffer batch;
+    private final ByteBuffer indexBatch;
+
+    private ByteBuffer scratch;
+    private long logBytes;
+    private int session;
+    private int moves;
+    private int lastCheckpointRound;
+    private long records;
+
+    /**
+     * Opens a log and its keyframe index, appending to the files if they exist. A log cut
+     * short before the end of its header is started again.
+     *
+     * @param file             the log file
+     * @param codec            the codec of the input played, writing the snapshots
+     * @param checkpointRounds the number of rounds between snapshots
+     * @param batchBytes       the size of a batch of records
+     * @param sync             whether every batch is forced to the disk
+     * @throws IOException if the files cannot be opened
+     * @throws IllegalArgumentException if the file is not an action log of a known version
+     */
+    public ActionLog(final Path file, final SessionCodec codec, final int checkpointRounds,
+                     final int batchBytes, final boolean sync) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.codec = codec;
+        this.checkpointRounds = Math.max(1, checkpointRounds);
+        this.sync = sync;
+        this.batch = ByteBuffer.allocateDirect(Math.max(batchBytes, MAX_MOVE_BYTES));
+        this.scratch = ByteBuffer.allocate(batch.capacity());
+        this.indexChannel = FileChannel.open(indexFile(file), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.indexBatch = ByteBuffer.allocateDirect(INDEX_BATCH_ENTRIES * INDEX_ENTRY);
+
+        try {
+            logBytes = channel.size();
+            session = -1;
+            if (logBytes < LOG_HEADER) {
+                logBytes = 0;
+                channel.truncate(0);
+                indexChannel.truncate(0);
+                batch.putInt(MAGIC);
+                batch.put((byte) VERSION);
+                indexBatch.putInt(INDEX_MAGIC);
+                indexBatch.putInt(VERSION);
+            } else {
+                session = recover();
+            }
+            channel.position(logBytes);
+            indexChannel.position(indexChannel.size());
+        } catch (IOException | IllegalArgumentException e) {
+            channel.close();
+            indexChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the file holding the keyframe index of a log.
+     *
+     * @param file the log file
+     * @return the index file, next to the log
+     */
+    public static Path indexFile(final Path file) {
+        return file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    /**
+     * Drops a record cut short at the end of the log being appended to, rebuilds its index if
+     * it does not match the records kept, and reads the index of the last session of the log.
+     */
+    private int recover() throws IOException {
+        if (logBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The log is too large to append to.");
+        }
+        ByteBuffer log = channel.map(FileChannel.MapMode.READ_ONLY, 0, logBytes);
+        if (log.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not an action log.");
+        }
+        int version = log.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported action log version: " + version);
+        }
+
+        ByteBuffer built = ActionLogReplay.buildIndex(log);
+        if (log.limit() < logBytes) {
+            logBytes = log.limit();
+            channel.truncate(logBytes);
+        }
+        ByteBuffer current = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0,
+                indexChannel.size());
+        if (!current.equals(built)) {
+            indexChannel.truncate(0);
+            indexChannel.position(0);
+            while (built.hasRemaining()) {
+                indexChannel.write(built);
+            }
+        }
+
+        int entries = (built.limit() - INDEX_HEADER) / INDEX_ENTRY;
+        return (entries > 0)
+                ? built.getInt(INDEX_HEADER + (entries - 1) * INDEX_ENTRY + Long.BYTES) : -1;
+    }
+
+    /**
+     * Records the start of a session, once its players are set up.
+     *
+     * @param startGame the setup of the session
+     */
+    void sessionStarted(final StartGameInput startGame) {
+        int heroOne = codec.faceIndex(startGame.getPlayerOneHero());
+        int heroTwo = codec.faceIndex(startGame.getPlayerTwoHero());
+        if (heroOne < 0 || heroTwo < 0) {
+            throw new IllegalArgumentException("The heroes are not part of the input.");
+        }
+
+        scratch.clear();
+        SessionCodec.putInt(scratch, startGame.getPlayerOneDeckIdx());
+        SessionCodec.putInt(scratch, startGame.getPlayerTwoDeckIdx());
+        SessionCodec.putInt(scratch, startGame.getShuffleSeed());
+        SessionCodec.putInt(scratch, startGame.getStartingPlayer());
+        putHero(scratch, heroOne, startGame.getPlayerOneHero());
+        putHero(scratch, heroTwo, startGame.getPlayerTwoHero());
+        SessionCodec.putInt(scratch, Game.getRound());
+        SessionCodec.putInt(scratch, Game.getPlayerOneWins());
+        SessionCodec.putInt(scratch, Game.getPlayerTwoWins());
+        long offset = append(SESSION);
+
+        session++;
+        moves = 0;
+        lastCheckpointRound = Game.getRound();
+        addKeyframe(offset, SESSION);
+    }
+
+    private static void putHero(final ByteBuffer buffer, final int face, final CardInput hero) {
+        SessionCodec.putInt(buffer, face);
+        SessionCodec.putInt(buffer, hero.getMana());
+        SessionCodec.putInt(buffer, hero.getAttackDamage());
+    }
+
+    /**
+     * Records a move once played, and a snapshot if enough rounds passed since the last one.
+     *
+     * @param index  the index of the command
+     * @param action the move
+     * @param error  the error the move was rejected with, as an index in
+     *               {@link Exceptions#MOVE_ERRORS} plus one, or 0
+     * @param winner the player whose win the move ended the session with, or 0
+     */
+    void movePlayed(final int index, final ActionsInput action, final int error,
+                    final int winner) {
+        scratch.clear();
+        SessionCodec.putInt(scratch, index);
+        SessionCodec.putInt(scratch, action.getHandIdx());
+        SessionCodec.putInt(scratch, action.getAffectedRow());
+        SessionCodec.putInt(scratch, action.getPlayerIdx());
+        SessionCodec.putInt(scratch, action.getX());
+        SessionCodec.putInt(scratch, action.getY());
+        putCoordinates(scratch, action.getCardAttacker());
+        putCoordinates(scratch, action.getCardAttacked());
+        SessionCodec.putInt(scratch, error);
+        SessionCodec.putInt(scratch, winner);
+        append(MOVE);
+        moves++;
+
+        if (Game.getRound() - lastCheckpointRound >= checkpointRounds) {
+            checkpoint();
+        }
+    }
+
+    private static void putCoordinates(final ByteBuffer buffer, final Coordinates coordinates) {
+        SessionCodec.putInt(buffer, (coordinates != null) ? coordinates.getX() : -1);
+        SessionCodec.putInt(buffer, (coordinates != null) ? coordinates.getY() : -1);
+    }
+
+    private void checkpoint() {
+        while (true) {
+            try {
+                scratch.clear();
+                SessionCodec.putInt(scratch, moves);
+                codec.save(scratch);
+                break;
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(2 * scratch.capacity());
+            }
+        }
+        long offset = append(CHECKPOINT);
+        lastCheckpointRound = Game.getRound();
+        addKeyframe(offset, CHECKPOINT);
+    }
+
+    private void addKeyframe(final long offset, final int type) {
+        try {
+            if (indexBatch.remaining() < INDEX_ENTRY) {
+                commit();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing the action log failed.", e);
+        }
+        indexBatch.putLong(offset);
+        indexBatch.putInt(session);
+        indexBatch.putInt(moves);
+        indexBatch.putInt(Game.getRound());
+        indexBatch.putInt(type);
+    }
+
+    /**
+     * Frames the payload held by the scratch buffer and adds it to the batch, committing the
+     * batch first if the record does not fit.
+     *
+     * @return the offset of the record in the log file
+     */
+    private long append(final int type) {
+        scratch.flip();
+        int length = scratch.remaining();
+        long offset;
+        try {
+            if (batch.remaining() < FRAME_HEADER + length) {
+                commit();
+            }
+            offset = logBytes + batch.position();
+            if (batch.remaining() < FRAME_HEADER + length) {
+                ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + length);
+                putFrame(frame, type, scratch);
+                frame.flip();
+                write(channel, frame);
+            } else {
+                putFrame(batch, type, scratch);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing the action log failed.", e);
+        }
+        records++;
+        return offset;
+    }
+
+    private static void putFrame(final ByteBuffer buffer, final int type,
+                                 final ByteBuffer payload) {
+        buffer.put((byte) type);
+        SessionCodec.putInt(buffer, payload.remaining());
+        buffer.put(payload);
+    }
+
+    /**
+     * Writes the batch of records, then the batch of index entries, so the index never points
+     * past the end of the log.
+     */
+    private void commit() throws IOException {
+        batch.flip();
+        write(channel, batch);
+        batch.clear();
+        indexBatch.flip();
+        write(indexChannel, indexBatch);
+        indexBatch.clear();
+    }
+
+    private void write(final FileChannel target, final ByteBuffer buffer) throws IOException {
+        if (target == channel) {
+            logBytes += buffer.remaining();
+        }
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        if (sync) {
+            target.force(false);
+        }
+    }
+
+    /**
+     * Appends the records and index entries collected so far to the files.
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        if (batch.position() > 0 || indexBatch.position() > 0) {
+            commit();
+        }
+    }
+
+    /**
+     * Returns the number of records logged since the log was opened.
+     *
+     * @return the number of records
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Appends the remaining records and index entries and closes the files.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+            indexChannel.close();
+        }
+    }
+}
@@ -0,0 +1,634 @@
+package org.poo.game;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.Coordinates;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Rebuilds sessions recorded by an {@link ActionLog}. A point of a session is rebuilt from the
+ * last keyframe (session start or snapshot) logged before it, replaying only the moves after
+ * it, without any output; the rebuilt session becomes the running session of {@link Game} and
+ * can be inspected with {@link #query(ActionsInput)}. No log may be set on the game while
+ * replaying.
+ * <p>
+ * The log and its keyframe index are memory-mapped and searched in place, so seeking costs a
+ * binary search, a snapshot load and the moves of at most a few rounds, whatever the size of
+ * the log. If the index is missing, or misses records of the log, it is rebuilt in memory from
+ * a scan of the log. A record cut short at the end of the log by an interrupted write is
+ * ignored.
+ */
+public final class ActionLogReplay {
+
+    private static final int ENTRY_SESSION = Long.BYTES;
+    private static final int ENTRY_MOVES = ENTRY_SESSION + Integer.BYTES;
+    private static final int ENTRY_ROUND = ENTRY_MOVES + Integer.BYTES;
+    private static final int ENTRY_TYPE = ENTRY_ROUND + Integer.BYTES;
+    /**
+     * The number of integers of a session start record before the round.
+     */
+    private static final int SESSION_FIELDS = 10;
+
+    private final Input inputData;
+    private final SessionCodec codec;
+    private final ByteBuffer log;
+    private final ByteBuffer index;
+    private final int entries;
+    private final int sessions;
+
+    private final ActionsInput action = new ActionsInput();
+    private ByteBuffer scratch = ByteBuffer.allocate(Short.MAX_VALUE);
+
+    private Game game;
+    private int currentSession = -1;
+    private int currentMoves;
+
+    /**
+     * Maps a log and its keyframe index.
+     *
+     * @param file      the log file
+     * @param inputData the input whose sessions were logged
+     * @throws IOException if the files cannot be read
+     * @throws IllegalArgumentException if the file is not a log of a known version
+     */
+    public ActionLogReplay(final Path file, final Input inputData) throws IOException {
+        this.inputData = inputData;
+        this.codec = new SessionCodec(inputData);
+        this.log = map(file);
+
+        if (log.remaining() < Integer.BYTES + 1 || log.getInt() != ActionLog.MAGIC) {
+            throw new IllegalArgumentException("Not an action log.");
+        }
+        int version = log.get();
+        if (version != ActionLog.VERSION) {
+            throw new IllegalArgumentException("Unsupported action log version: " + version);
+        }
+
+        ByteBuffer mapped = mapIndex(ActionLog.indexFile(file));
+        this.index = (mapped != null) ? mapped : buildIndex(log);
+        this.entries = (index.limit() - ActionLog.INDEX_HEADER) / ActionLog.INDEX_ENTRY;
+        this.sessions = (entries > 0) ? entrySession(entries - 1) + 1 : 0;
+
+        action.setCardAttacker(new Coordinates());
+        action.setCardAttacked(new Coordinates());
+    }
+
+    private static ByteBuffer map(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The file is too large to map: " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Maps the keyframe index of the log, or returns null if it is missing, invalid or does
+     * not cover the whole log. A record cut short at the end of the log is left out of it by
+     * moving the limit of the log to the start of the record.
+     */
+    private ByteBuffer mapIndex(final Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ByteBuffer mapped = map(file);
+        if (mapped.limit() < ActionLog.INDEX_HEADER
+                || (mapped.limit() - ActionLog.INDEX_HEADER) % ActionLog.INDEX_ENTRY != 0
+                || mapped.getInt(0) != ActionLog.INDEX_MAGIC
+                || mapped.getInt(Integer.BYTES) != ActionLog.VERSION) {
+            return null;
+        }
+
+        int count = (mapped.limit() - ActionLog.INDEX_HEADER) / ActionLog.INDEX_ENTRY;
+        int position = log.position();
+        if (count > 0) {
+            long offset = mapped.getLong(ActionLog.INDEX_HEADER
+                    + (count - 1) * ActionLog.INDEX_ENTRY);
+            if (offset >= log.limit() || frameEnd(log, (int) offset) < 0) {
+                return null;
+            }
+            log.position((int) offset);
+            skipFrame();
+        }
+        while (log.hasRemaining()) {
+            int end = frameEnd(log, log.position());
+            if (end < 0) {
+                log.limit(log.position());
+            } else if (log.get(log.position()) != ActionLog.MOVE) {
+                return null;
+            } else {
+                log.position(end);
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Builds the keyframe index of a log in memory, from a scan of its records. The scan stops
+     * at a record cut short by an interrupted write, and the limit of the log is moved to the
+     * start of that record.
+     *
+     * @param log the log, starting with its magic number and version
+     * @return the index, ready to be read
+     */
+    static ByteBuffer buildIndex(final ByteBuffer log) {
+        ByteBuffer built = ByteBuffer.allocate(ActionLog.INDEX_HEADER);
+        built.putInt(ActionLog.INDEX_MAGIC);
+        built.putInt(ActionLog.VERSION);
+
+        int session = -1;
+        int moves = 0;
+        log.position(Integer.BYTES + 1);
+        while (log.hasRemaining()) {
+            int offset = log.position();
+            int end = frameEnd(log, offset);
+            if (end < 0) {
+                log.limit(offset);
+                break;
+            }
+            int type = log.get();
+            SessionCodec.getInt(log);
+            int round;
+            switch (type) {
+                case ActionLog.SESSION -> {
+                    session++;
+                    moves = 0;
+                    round = readSessionRound(log);
+                }
+                case ActionLog.MOVE -> {
+                    moves++;
+                    round = -1;
+                }
+                case ActionLog.CHECKPOINT -> {
+                    SessionCodec.getInt(log);
+                    log.position(log.position() + Integer.BYTES + 1);
+                    round = SessionCodec.getInt(log);
+                }
+                default -> throw new IllegalArgumentException("Unknown record type: " + type);
+            }
+            if (type != ActionLog.MOVE) {
+                if (built.remaining() < ActionLog.INDEX_ENTRY) {
+                    ByteBuffer larger = ByteBuffer.allocate(2 * built.capacity()
+                            + ActionLog.INDEX_ENTRY);
+                    built.flip();
+                    larger.put(built);
+                    built = larger;
+                }
+                built.putLong(offset);
+                built.putInt(session);
+                built.putInt(moves);
+                built.putInt(round);
+                built.putInt(type);
+            }
+            log.position(end);
+        }
+        built.flip();
+        return built;
+    }
+
+    /**
+     * Reads the round of a session start record, from the position of the log at its payload.
+     */
+    private static int readSessionRound(final ByteBuffer log) {
+        for (int i = 0; i < SESSION_FIELDS; i++) {
+            SessionCodec.getInt(log);
+        }
+        return SessionCodec.getInt(log);
+    }
+
+    /**
+     * Returns the end of the record at an offset of a log, or -1 if the record does not end
+     * within the limit of the log, as when its write was interrupted.
+     */
+    private static int frameEnd(final ByteBuffer log, final int offset) {
+        int position = log.position();
+        try {
+            log.position(offset + 1);
+            int length = SessionCodec.getInt(log);
+            long end = (long) log.position() + length;
+            return (length < 0 || end > log.limit()) ? -1 : (int) end;
+        } catch (BufferUnderflowException e) {
+            return -1;
+        } finally {
+            log.position(position);
+        }
+    }
+
+    private void skipFrame() {
+        log.get();
+        int length = SessionCodec.getInt(log);
+        log.position(log.position() + length);
+    }
+
+    private int entryPosition(final int entry) {
+        return ActionLog.INDEX_HEADER + entry * ActionLog.INDEX_ENTRY;
+    }
+
+    private int entryOffset(final int entry) {
+        return (int) index.getLong(entryPosition(entry));
+    }
+
+    private int entrySession(final int entry) {
+        return index.getInt(entryPosition(entry) + ENTRY_SESSION);
+    }
+
+    private int entryMoves(final int entry) {
+        return index.getInt(entryPosition(entry) + ENTRY_MOVES);
+    }
+
+    private int entryRound(final int entry) {
+        return index.getInt(entryPosition(entry) + ENTRY_ROUND);
+    }
+
+    private int entryType(final int entry) {
+        return index.getInt(entryPosition(entry) + ENTRY_TYPE);
+    }
+
+    /**
+     * Returns the last keyframe at or before a move of a session.
+     */
+    private int findKeyframe(final int session, final int moves) {
+        int low = 0;
+        int high = entries - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            int entrySession = entrySession(middle);
+            if (entrySession < session
+                    || entrySession == session && entryMoves(middle) <= moves) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the last keyframe of a session before a round, or the start of the session if
+     * there is none.
+     */
+    private int findRound(final int session, final int round) {
+        int low = findKeyframe(session, 0);
+        int high = findKeyframe(session, Integer.MAX_VALUE);
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (entryRound(middle) < round) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of sessions logged.
+     *
+     * @return the number of sessions
+     */
+    public int getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Returns the number of moves logged for a session.
+     *
+     * @param session the index of the session in the log
+     * @return the number of moves
+     */
+    public int getMoves(final int session) {
+        checkSession(session);
+        int keyframe = findKeyframe(session, Integer.MAX_VALUE);
+        int moves = entryMoves(keyframe);
+        log.position(entryOffset(keyframe));
+        skipFrame();
+        while (log.hasRemaining() && log.get(log.position()) != ActionLog.SESSION) {
+            if (log.get(log.position()) == ActionLog.MOVE) {
+                moves++;
+            }
+            skipFrame();
+        }
+        return moves;
+    }
+
+    /**
+     * Returns the number of snapshots in the log.
+     *
+     * @return the number of snapshots
+     */
+    public int getCheckpoints() {
+        return entries - sessions;
+    }
+
+    /**
+     * Returns the session rebuilt last.
+     *
+     * @return the index of the session in the log, or -1 if none was rebuilt
+     */
+    public int getCurrentSession() {
+        return currentSession;
+    }
+
+    /**
+     * Returns the number of moves of the session rebuilt last.
+     *
+     * @return the number of moves played in the session
+     */
+    public int getCurrentMoves() {
+        return currentMoves;
+    }
+
+    /**
+     * Makes a logged session the running session, as it was after a number of its moves.
+     *
+     * @param session the index of the session in the log
+     * @param moves   the number of moves played, at most {@link #getMoves(int)}
+     * @return the number of moves replayed after the keyframe the session was rebuilt from
+     * @throws IllegalArgumentException if the session does not have that many moves
+     */
+    public int rebuild(final int session, final int moves) {
+        checkSession(session);
+        if (moves < 0) {
+            throw new IllegalArgumentException("Invalid number of moves: " + moves);
+        }
+        restoreKeyframe(findKeyframe(session, moves));
+
+        int replayed = 0;
+        while (currentMoves < moves) {
+            if (!log.hasRemaining() || log.get(log.position()) == ActionLog.SESSION) {
+                throw new IllegalArgumentException("Session " + session + " has fewer than "
+                        + moves + " moves.");
+            }
+            if (replayFrame()) {
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Makes a logged session the running session, at the point where it first reached a
+     * round: right after the move that ended the previous round, or at its start for its first
+     * round. Rounds are counted from the start of the session, since the rounds of the game
+     * restart whenever a new game appends to the log.
+     *
+     * @param session the index of the session in the log
+     * @param round   the round of the session, 1 for the round it started in
+     * @return the number of moves replayed after the keyframe the session was rebuilt from
+     * @throws IllegalArgumentException if the session ends before the round
+     */
+    public int seekRound(final int session, final int round) {
+        checkSession(session);
+        if (round < 1) {
+            throw new IllegalArgumentException("Invalid round: " + round);
+        }
+        int target = entryRound(findKeyframe(session, 0)) + round - 1;
+        restoreKeyframe(findRound(session, target));
+
+        int replayed = 0;
+        while (Game.getRound() < target) {
+            if (!log.hasRemaining() || log.get(log.position()) == ActionLog.SESSION) {
+                throw new IllegalArgumentException("Session " + session + " ends before round "
+                        + round + ".");
+            }
+            if (replayFrame()) {
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Answers a query, such as {@code getCardsOnTable} or {@code getPlayerHero}, on the
+     * session rebuilt last.
+     *
+     * @param query the query
+     * @return the output of the query
+     * @throws IllegalStateException if no session was rebuilt
+     */
+    public ObjectNode query(final ActionsInput query) {
+        if (game == null) {
+            throw new IllegalStateException("No session was rebuilt.");
+        }
+        return game.answerQuery(query);
+    }
+
+    private void checkSession(final int session) {
+        if (session < 0 || session >= sessions) {
+            throw new IllegalArgumentException("Invalid session: " + session);
+        }
+    }
+
+    /**
+     * Restores a keyframe, leaving the log after its record.
+     */
+    private void restoreKeyframe(final int keyframe) {
+        if (entryType(keyframe) == ActionLog.SESSION) {
+            currentSession = entrySession(keyframe) - 1;
+            startSession(entryOffset(keyframe));
+            return;
+        }
+        log.position(entryOffset(keyframe));
+        log.get();
+        SessionCodec.getInt(log);
+        SessionCodec.getInt(log);
+        game = new Game(inputData, null, true);
+        codec.load(log);
+        currentSession = entrySession(keyframe);
+        currentMoves = entryMoves(keyframe);
+    }
+
+    /**
+     * Replays the record at the position of the log, if it is a move, and skips it otherwise.
+     *
+     * @return whether a move was replayed
+     */
+    private boolean replayFrame() {
+        int type = log.get();
+        int length = SessionCodec.getInt(log);
+        int start = log.position();
+        if (type == ActionLog.MOVE) {
+            game.playMove(readMove(), action);
+            currentMoves++;
+        }
+        log.position(start + length);
+        return type == ActionLog.MOVE;
+    }
+
+    /**
+     * Replays every session of the log from its start, checking the result of every move and
+     * every snapshot against the replayed session.
+     *
+     * @return the number of results and snapshots that differ
+     */
+    public int verify() {
+        int mismatches = 0;
+        currentSession = -1;
+        log.position(Integer.BYTES + 1);
+        while (log.hasRemaining()) {
+            int offset = log.position();
+            int type = log.get();
+            int length = SessionCodec.getInt(log);
+            int start = log.position();
+            if (type == ActionLog.SESSION) {
+                startSession(offset);
+            } else if (type == ActionLog.MOVE) {
+                int index = readMove();
+                int expectedError = SessionCodec.getInt(log);
+                int expectedWinner = SessionCodec.getInt(log);
+                int wins = Game.getPlayerOneWins();
+                int games = wins + Game.getPlayerTwoWins();
+
+                int error = game.playMove(index, action);
+                currentMoves++;
+                int winner = Constants.ZERO;
+                if (Game.getPlayerOneWins() != wins) {
+                    winner = Constants.ONE;
+                } else if (Game.getPlayerOneWins() + Game.getPlayerTwoWins() != games) {
+                    winner = Constants.TWO;
+                }
+                if (error != expectedError || winner != expectedWinner) {
+                    mismatches++;
+                }
+            } else if (type == ActionLog.CHECKPOINT) {
+                SessionCodec.getInt(log);
+                if (!matchesSnapshot(start + length)) {
+                    mismatches++;
+                }
+            }
+            log.position(start + length);
+        }
+        return mismatches;
+    }
+
+    /**
+     * Compares the running session with the snapshot between the position of the log and
+     * the given end.
+     */
+    private boolean matchesSnapshot(final int end) {
+        while (true) {
+            try {
+                scratch.clear();
+                codec.save(scratch);
+                break;
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(2 * scratch.capacity());
+            }
+        }
+        scratch.flip();
+        return scratch.equals(log.slice(log.position(), end - log.position()));
+    }
+
+    /**
+     * Starts the logged session whose start record is at an offset, leaving the log after the
+     * record; the session must follow the current session.
+     */
+    private void startSession(final int offset) {
+        log.position(offset);
+        log.get();
+        SessionCodec.getInt(log);
+
+        StartGameInput startGame = readStartGame(log);
+        int round = SessionCodec.getInt(log);
+        int playerOneWins = SessionCodec.getInt(log);
+        int playerTwoWins = SessionCodec.getInt(log);
+
+        GameInput gameInput = new GameInput();
+        gameInput.setStartGame(startGame);
+        gameInput.setActions(new ArrayList<>());
+
+        game = new Game(inputData, null, true);
+        game.startSession(gameInput);
+        Game.restoreState(new GameSnapshot(Game.getPlayerOne(), Game.getPlayerTwo(),
+                Game.isPlayerOneCurrent(), playerOneWins, playerTwoWins, round), true);
+        currentSession++;
+        currentMoves = 0;
+    }
+
+    /**
+     * Reads the setup of a session, from the payload of its start record up to the round.
+     *
+     * @param buffer the buffer to read from, at the payload
+     * @return the setup
+     */
+    StartGameInput readStartGame(final ByteBuffer buffer) {
+        StartGameInput startGame = new StartGameInput();
+        startGame.setPlayerOneDeckIdx(SessionCodec.getInt(buffer));
+        startGame.setPlayerTwoDeckIdx(SessionCodec.getInt(buffer));
+        startGame.setShuffleSeed(SessionCodec.getInt(buffer));
+        startGame.setStartingPlayer(SessionCodec.getInt(buffer));
+        startGame.setPlayerOneHero(readHero(buffer));
+        startGame.setPlayerTwoHero(readHero(buffer));
+        return startGame;
+    }
+
+    private CardInput readHero(final ByteBuffer buffer) {
+        CardInput face = codec.getFace(SessionCodec.getInt(buffer));
+        CardInput hero = new CardInput();
+        hero.setName(face.getName());
+        hero.setDescription(face.getDescription());
+        hero.setColors(face.getColors());
+        hero.setMana(SessionCodec.getInt(buffer));
+        hero.setAttackDamage(SessionCodec.getInt(buffer));
+        hero.setHealth(face.getHealth());
+        return hero;
+    }
+
+    private int readMove() {
+        return readMove(log, action);
+    }
+
+    /**
+     * Reads a move, leaving the buffer at its result.
+     *
+     * @param buffer the buffer to read from, at the payload of the move
+     * @param move   the action receiving the move, with both cards set
+     * @return the command index of the move
+     */
+    static int readMove(final ByteBuffer buffer, final ActionsInput move) {
+        int index = SessionCodec.getInt(buffer);
+        move.setHandIdx(SessionCodec.getInt(buffer));
+        move.setAffectedRow(SessionCodec.getInt(buffer));
+        move.setPlayerIdx(SessionCodec.getInt(buffer));
+        move.setX(SessionCodec.getInt(buffer));
+        move.setY(SessionCodec.getInt(buffer));
+        move.getCardAttacker().setX(SessionCodec.getInt(buffer));
+        move.getCardAttacker().setY(SessionCodec.getInt(buffer));
+        move.getCardAttacked().setX(SessionCodec.getInt(buffer));
+        move.getCardAttacked().setY(SessionCodec.getInt(buffer));
+        return index;
+    }
+
+    /**
+     * Returns a view of the whole log, with its own position, for reading from another thread.
+     *
+     * @return the view
+     */
+    ByteBuffer viewLog() {
+        return log.duplicate();
+    }
+
+    /**
+     * Returns the offset of the start record of a session.
+     *
+     * @param session the index of the session in the log
+     * @return the offset of the record in the log
+     */
+    int getSessionOffset(final int session) {
+        checkSession(session);
+        return entryOffset(findKeyframe(session, 0));
+    }
+}
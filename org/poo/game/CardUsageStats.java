@@ -0,0 +1,305 @@
+package org.poo.game;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.cards.Card;
+
+/**
+ * Card-level statistics of replayed sessions, as computed by {@link LogAnalytics}. Minions are
+ * counted by type id ({@link Card#getMinionId(String)}) and heroes by hero id
+ * ({@link Card#getHeroId(String)}); only moves accepted by the game are counted.
+ * <p>
+ * The survival of a minion is the number of turns ended between its placement and its
+ * removal from the board; a minion still on the board when its session ends survived until
+ * then. Damage is the health taken from enemy minions and heroes; the health of a minion
+ * killed counts in full.
+ */
+public final class CardUsageStats {
+
+    private final long[] played = new long[Card.getMinionTypes() + 1];
+    private final long[] survivalTurns = new long[played.length];
+    private final long[] survivals = new long[played.length];
+    private final long[] damage = new long[played.length];
+    private final long[] heroDamage = new long[played.length];
+    private final long[] attackKills = new long[played.length];
+    private final long[] abilityUses = new long[played.length];
+    private final long[] abilityKills = new long[played.length];
+
+    private final long[] heroGames = new long[Card.getHeroTypes() + 1];
+    private final long[] heroWins = new long[heroGames.length];
+    private final long[] heroAbilityUses = new long[heroGames.length];
+    private final long[] heroAbilityKills = new long[heroGames.length];
+    private final long[] heroDamageTaken = new long[heroGames.length];
+
+    private long sessions;
+    private long moves;
+    private long mismatches;
+
+    void addPlayed(final int typeId) {
+        played[typeId]++;
+    }
+
+    void addSurvival(final int typeId, final int turns) {
+        survivalTurns[typeId] += turns;
+        survivals[typeId]++;
+    }
+
+    void addAttack(final int typeId, final int dealt, final int kills) {
+        damage[typeId] += dealt;
+        attackKills[typeId] += kills;
+    }
+
+    void addAbility(final int typeId, final int dealt, final int kills) {
+        abilityUses[typeId]++;
+        damage[typeId] += dealt;
+        abilityKills[typeId] += kills;
+    }
+
+    void addHeroAttack(final int typeId, final int heroId, final int dealt) {
+        heroDamage[typeId] += dealt;
+        heroDamageTaken[heroId] += dealt;
+    }
+
+    void addHeroAbility(final int heroId, final int kills) {
+        heroAbilityUses[heroId]++;
+        heroAbilityKills[heroId] += kills;
+    }
+
+    void addSession(final int heroOne, final int heroTwo, final int winner) {
+        sessions++;
+        heroGames[heroOne]++;
+        heroGames[heroTwo]++;
+        if (winner == Constants.ONE) {
+            heroWins[heroOne]++;
+        } else if (winner == Constants.TWO) {
+            heroWins[heroTwo]++;
+        }
+    }
+
+    void addMove() {
+        moves++;
+    }
+
+    void addMismatch() {
+        mismatches++;
+    }
+
+    /**
+     * Adds the counts of other statistics to these.
+     *
+     * @param other the other statistics
+     * @return these statistics
+     */
+    public CardUsageStats merge(final CardUsageStats other) {
+        add(played, other.played);
+        add(survivalTurns, other.survivalTurns);
+        add(survivals, other.survivals);
+        add(damage, other.damage);
+        add(heroDamage, other.heroDamage);
+        add(attackKills, other.attackKills);
+        add(abilityUses, other.abilityUses);
+        add(abilityKills, other.abilityKills);
+        add(heroGames, other.heroGames);
+        add(heroWins, other.heroWins);
+        add(heroAbilityUses, other.heroAbilityUses);
+        add(heroAbilityKills, other.heroAbilityKills);
+        add(heroDamageTaken, other.heroDamageTaken);
+        sessions += other.sessions;
+        moves += other.moves;
+        mismatches += other.mismatches;
+        return this;
+    }
+
+    private static void add(final long[] counts, final long[] others) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += others[i];
+        }
+    }
+
+    /**
+     * Returns the number of sessions replayed.
+     *
+     * @return the number of sessions
+     */
+    public long getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Returns the number of moves replayed.
+     *
+     * @return the number of moves
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * Returns the number of moves whose logged result the replay did not reproduce. It is 0
+     * unless the logs were written with other rules or another input.
+     *
+     * @return the number of mismatches
+     */
+    public long getMismatches() {
+        return mismatches;
+    }
+
+    /**
+     * Returns how many times a minion type was placed.
+     *
+     * @param typeId the minion type id
+     * @return the number of placements
+     */
+    public long getPlayed(final int typeId) {
+        return played[typeId];
+    }
+
+    /**
+     * Returns the average survival of a minion type.
+     *
+     * @param typeId the minion type id
+     * @return the average number of turns, or 0 if the type was never placed
+     */
+    public double getAverageSurvival(final int typeId) {
+        return (survivals[typeId] != 0) ? (double) survivalTurns[typeId] / survivals[typeId] : 0;
+    }
+
+    /**
+     * Returns the damage a minion type dealt to enemy minions, by attacks and abilities.
+     *
+     * @param typeId the minion type id
+     * @return the damage dealt
+     */
+    public long getDamage(final int typeId) {
+        return damage[typeId];
+    }
+
+    /**
+     * Returns the damage a minion type dealt to enemy heroes.
+     *
+     * @param typeId the minion type id
+     * @return the damage dealt
+     */
+    public long getHeroDamage(final int typeId) {
+        return heroDamage[typeId];
+    }
+
+    /**
+     * Returns the number of minions a minion type killed by attacking.
+     *
+     * @param typeId the minion type id
+     * @return the number of kills
+     */
+    public long getAttackKills(final int typeId) {
+        return attackKills[typeId];
+    }
+
+    /**
+     * Returns how many times a minion type used its ability.
+     *
+     * @param typeId the minion type id
+     * @return the number of ability uses
+     */
+    public long getAbilityUses(final int typeId) {
+        return abilityUses[typeId];
+    }
+
+    /**
+     * Returns the number of minions removed by the ability of a minion type, such as the
+     * minions The Cursed One left without health.
+     *
+     * @param typeId the minion type id
+     * @return the number of kills
+     */
+    public long getAbilityKills(final int typeId) {
+        return abilityKills[typeId];
+    }
+
+    /**
+     * Returns the number of sessions a hero played.
+     *
+     * @param heroId the hero id
+     * @return the number of sessions
+     */
+    public long getHeroGames(final int heroId) {
+        return heroGames[heroId];
+    }
+
+    /**
+     * Returns the number of sessions a hero won.
+     *
+     * @param heroId the hero id
+     * @return the number of wins
+     */
+    public long getHeroWins(final int heroId) {
+        return heroWins[heroId];
+    }
+
+    /**
+     * Returns how many times a hero used its ability.
+     *
+     * @param heroId the hero id
+     * @return the number of ability uses
+     */
+    public long getHeroAbilityUses(final int heroId) {
+        return heroAbilityUses[heroId];
+    }
+
+    /**
+     * Returns the number of minions removed by the ability of a hero, such as the minions
+     * Empress Thorina destroyed.
+     *
+     * @param heroId the hero id
+     * @return the number of kills
+     */
+    public long getHeroAbilityKills(final int heroId) {
+        return heroAbilityKills[heroId];
+    }
+
+    /**
+     * Returns the damage a hero took from minions.
+     *
+     * @param heroId the hero id
+     * @return the damage taken
+     */
+    public long getHeroDamageTaken(final int heroId) {
+        return heroDamageTaken[heroId];
+    }
+
+    /**
+     * Converts the statistics to JSON, with the minions and heroes by name.
+     *
+     * @return the statistics
+     */
+    public ObjectNode toJson() {
+        ObjectNode output = JsonNodeFactory.instance.objectNode();
+        output.put("sessions", sessions);
+        output.put("moves", moves);
+
+        ArrayNode minions = output.putArray("minions");
+        for (int id = 1; id < played.length; id++) {
+            ObjectNode minion = minions.addObject();
+            minion.put("name", Card.getMinionName(id));
+            minion.put("played", played[id]);
+            minion.put("averageSurvival", getAverageSurvival(id));
+            minion.put("damage", damage[id]);
+            minion.put("heroDamage", heroDamage[id]);
+            minion.put("attackKills", attackKills[id]);
+            minion.put("abilityUses", abilityUses[id]);
+            minion.put("abilityKills", abilityKills[id]);
+        }
+
+        ArrayNode heroes = output.putArray("heroes");
+        for (int id = 1; id < heroGames.length; id++) {
+            ObjectNode hero = heroes.addObject();
+            hero.put("name", Card.getHeroName(id));
+            hero.put("games", heroGames[id]);
+            hero.put("wins", heroWins[id]);
+            hero.put("abilityUses", heroAbilityUses[id]);
+            hero.put("abilityKills", heroAbilityKills[id]);
+            hero.put("damageTaken", heroDamageTaken[id]);
+        }
+        return output;
+    }
+}
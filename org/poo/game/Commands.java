@@ -1,19 +1,19 @@
 package org.poo.game;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.poo.cards.Card;
 import org.poo.cards.Hero;
 import org.poo.cards.Minion;
 import org.poo.fileio.ActionsInput;
 import org.poo.player.Player;
+import org.poo.player.RowStats;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.List;
 
 import static org.poo.cards.Card.isTank;
-import static org.poo.cards.Card.tankExists;
 import static org.poo.game.Exceptions.throwException;
 import static org.poo.game.Game.createCardsArrayNode;
 import static org.poo.game.Game.getCardNode;
@@ -26,6 +26,32 @@ public final class Commands {
      */
     private Commands() { }
 
+    private static final List<String> ENEMY_TARGET_MINIONS = List.of(
+            "Ripper",
+            "Miraj",
+            "The Cursed One"
+    );
+
+    private static final List<String> ENEMY_ROW_HEROES = List.of(
+            "Lord Royce",
+            "Empress Thorina"
+    );
+
+    private static final List<String> OWN_ROW_HEROES = List.of(
+            "General Kocioraw",
+            "King Mudface"
+    );
+
+    private static final QueryCache QUERY_CACHE = new QueryCache();
+
+    /**
+     * The row affected by a hero ability aimed at a row that does not exist; always empty.
+     */
+    private static final ArrayList<Minion> NO_ROW = new ArrayList<>(0);
+
+    private static final String PLAYER_ONE_KILLED = "Player one killed the enemy hero.";
+    private static final String PLAYER_TWO_KILLED = "Player two killed the enemy hero.";
+
     /**
      * Maps a given command string to a predefined constant index.
      *
@@ -54,6 +80,9 @@ public final class Commands {
             case "getTotalGamesPlayed" -> Constants.FIFTEEN;
             case "getPlayerOneWins" -> Constants.SIXTEEN;
             case "getPlayerTwoWins" -> Constants.SEVENTEEN;
+
+            case "getBoardStats" -> Constants.EIGHTEEN;
+            case "getRowStats" -> Constants.NINETEEN;
             default -> Constants.ZERO;
         };
     }
@@ -68,7 +97,7 @@ public final class Commands {
     public static void getPlayerDeck(final ObjectNode actionOutput, final ActionsInput action,
                                      final Player player) {
         actionOutput.put("playerIdx", action.getPlayerIdx());
-        actionOutput.set("output", createCardsArrayNode(player.getDeckManager().getCurrentDeck()));
+        actionOutput.set("output", QUERY_CACHE.playerDeck(player));
     }
 
     /**
@@ -104,28 +133,22 @@ public final class Commands {
      *
      * @param currentPlayer the current player
      * @param opponent      the opponent player
+     * @return true if both players have ended their turns and a new round was started
      */
-    public static void endPlayerTurn(final Player currentPlayer, final Player opponent) {
-        ArrayList<Card> cardsOnTable = new ArrayList<>();
-        cardsOnTable.addAll(currentPlayer.getFrontRow());
-        cardsOnTable.addAll(currentPlayer.getBackRow());
-
-        for (Card card : cardsOnTable) {
-            card.setFrozen(false);
-            card.setHasAttacked(false);
-        }
+    public static boolean endPlayerTurn(final Player currentPlayer, final Player opponent) {
+        currentPlayer.resetTurnFlags();
 
         currentPlayer.getHero().setHasAttacked(false);
         currentPlayer.setTurnEnded(true);
 
         if (currentPlayer.hasTurnEnded() && opponent.hasTurnEnded()) {
-            Game.incrementRound();
-
             currentPlayer.setTurnEnded(false);
             opponent.setTurnEnded(false);
 
-            Game.startNewRound();
+            Game.startNewRound(currentPlayer, opponent);
+            return true;
         }
+        return false;
     }
 
     /**
@@ -138,8 +161,7 @@ public final class Commands {
     public static void getCardsInHand(final ObjectNode output, final ActionsInput action,
                                       final Player player) {
         output.put("playerIdx", action.getPlayerIdx());
-        ArrayNode cardsInHand = createCardsArrayNode(player.getCardsInHand());
-        output.set("output", cardsInHand);
+        output.set("output", QUERY_CACHE.cardsInHand(player));
     }
 
     /**
@@ -164,16 +186,44 @@ public final class Commands {
      */
     public static void getCardsOnTable(final ObjectNode output, final Player player1,
                                        final Player player2) {
-        ObjectMapper objectMapper = new ObjectMapper();
+        output.set("output", QUERY_CACHE.cardsOnTable(player1, player2));
+    }
 
-        ArrayNode table = objectMapper.createArrayNode();
+    /**
+     * Creates the rows of both players, from the back row of player two to the back row of
+     * player one.
+     *
+     * @param player1 player one
+     * @param player2 player two
+     * @return an array holding the four rows
+     */
+    static ArrayNode createTableNode(final Player player1, final Player player2) {
+        ArrayNode table = JsonNodeFactory.instance.arrayNode();
 
         table.add(createCardsArrayNode(player2.getBackRow()));
         table.add(createCardsArrayNode(player2.getFrontRow()));
         table.add(createCardsArrayNode(player1.getFrontRow()));
         table.add(createCardsArrayNode(player1.getBackRow()));
 
-        output.set("output", table);
+        return table;
+    }
+
+    /**
+     * Validates placing a card from the player's hand onto the table.
+     *
+     * @param currentPlayer the player placing the card
+     * @param card          the card to be placed
+     * @return the error message from {@link Exceptions}, or null if the card can be placed
+     */
+    public static String checkPlaceCard(final Player currentPlayer, final Card card) {
+        if (card.getMana() > currentPlayer.getManaManager().getMana()) {
+            return Exceptions.NOT_ENOUGH_MANA;
+        }
+
+        if (currentPlayer.rowForMinion(card.getName()).size() >= Constants.MAX_CARDS_IN_ROW) {
+            return Exceptions.ROW_IS_FULL;
+        }
+        return null;
     }
 
     /**
@@ -183,24 +233,51 @@ public final class Commands {
      * @param action        the action input
      * @param currentPlayer the current player performing the action
      * @param handIndex     the index of the card in the player's hand
+     * @return the error message the move was rejected with, or null if the card was placed
      */
-    public static void placeCard(final ArrayNode output, final ActionsInput action,
-                                 final Player currentPlayer, final int handIndex) {
+    public static String placeCard(final ArrayNode output, final ActionsInput action,
+                                   final Player currentPlayer, final int handIndex) {
         Card card = currentPlayer.getCardsInHand().get(handIndex);
 
-        if (card.getMana() > currentPlayer.getManaManager().getMana()) {
-            throwException(output, Exceptions.NOT_ENOUGH_MANA, action);
-            return;
-        }
-
-        if (currentPlayer.rowForMinion(card.getName()).size() >= Constants.MAX_CARDS_IN_ROW) {
-            throwException(output, Exceptions.ROW_IS_FULL, action);
-            return;
+        String error = checkPlaceCard(currentPlayer, card);
+        if (error != null) {
+            throwException(output, error, action);
+            return error;
         }
 
         currentPlayer.addCardIndex(handIndex);
         currentPlayer.getManaManager().subtractMana(card.getMana());
         currentPlayer.removeCardFromHand(handIndex);
+        return null;
+    }
+
+    /**
+     * Validates an attack between two cards.
+     *
+     * @param attacker      the player owning the attacking card
+     * @param defender      the player owning the attacked card
+     * @param attackingCard the card performing the attack
+     * @param defendingCard the card being attacked
+     * @return the error message from {@link Exceptions}, or null if the attack is allowed
+     */
+    public static String checkCardAttack(final Player attacker, final Player defender,
+                                         final Minion attackingCard, final Minion defendingCard) {
+        if (attacker.equals(defender)) {
+            return Exceptions.NOT_ENEMY_CARD;
+        }
+
+        if (attackingCard.getHasAttacked()) {
+            return Exceptions.CARD_ATTACKED;
+        }
+
+        if (attackingCard.isFrozen()) {
+            return Exceptions.FROZEN;
+        }
+
+        if (!isTank(defendingCard) && defender.getFrontRowStats().getTanks() > 0) {
+            return Exceptions.TANK_NOT_ATTACKED;
+        }
+        return null;
     }
 
     /**
@@ -210,9 +287,10 @@ public final class Commands {
      * @param action     the action input
      * @param player1    player one
      * @param player2    player two
+     * @return the error message the move was rejected with, or null if the attack was played
      */
-    public static void cardUsesAttack(final ArrayNode outputData, final ActionsInput action,
-                                      final Player player1, final Player player2) {
+    public static String cardUsesAttack(final ArrayNode outputData, final ActionsInput action,
+                                        final Player player1, final Player player2) {
         int attackX = action.getCardAttacker().getX();
         int attackY = action.getCardAttacker().getY();
         int defendX = action.getCardAttacked().getX();
@@ -227,24 +305,10 @@ public final class Commands {
         Minion attackingCard = attackingRow.get(attackY);
         Minion defendingCard = defendingRow.get(defendY);
 
-        if (attacker.equals(defender)) {
-            throwException(outputData, Exceptions.NOT_ENEMY_CARD, action);
-            return;
-        }
-
-        if (attackingCard.getHasAttacked()) {
-            throwException(outputData, Exceptions.CARD_ATTACKED, action);
-            return;
-        }
-
-        if (attackingCard.isFrozen()) {
-            throwException(outputData, Exceptions.FROZEN, action);
-            return;
-        }
-
-        if (!isTank(defendingCard) && tankExists(defender.getFrontRow())) {
-            throwException(outputData, Exceptions.TANK_NOT_ATTACKED, action);
-            return;
+        String error = checkCardAttack(attacker, defender, attackingCard, defendingCard);
+        if (error != null) {
+            throwException(outputData, error, action);
+            return error;
         }
 
         attackingCard.setHasAttacked(true);
@@ -253,6 +317,9 @@ public final class Commands {
         if (defendingCard.getHealth() <= 0) {
             defendingRow.remove(defendingCard);
         }
+        attacker.touchBoard();
+        defender.touchBoard();
+        return null;
     }
 
     /**
@@ -267,7 +334,7 @@ public final class Commands {
                                          final Player player1, final Player player2) {
         int x = action.getX();
 
-        ArrayList<Minion> row =  new ArrayList<>();
+        ArrayList<Minion> row = NO_ROW;
         if (x == Constants.ZERO) {
             row = player2.getBackRow();
         } else if (x == Constants.ONE) {
@@ -291,6 +358,40 @@ public final class Commands {
         }
     }
 
+    /**
+     * Validates the use of a card's special ability on a target card.
+     *
+     * @param attacker      the player owning the card using the ability
+     * @param defender      the player owning the target card
+     * @param attackingCard the card using the ability
+     * @param defendingCard the target card
+     * @return the error message from {@link Exceptions}, or null if the ability can be used
+     */
+    public static String checkCardAbility(final Player attacker, final Player defender,
+                                          final Minion attackingCard, final Minion defendingCard) {
+        if (attackingCard.isFrozen()) {
+            return Exceptions.FROZEN;
+        }
+
+        if (attackingCard.getHasAttacked()) {
+            return Exceptions.CARD_ATTACKED;
+        }
+        if (!attacker.equals(defender) && attackingCard.getName().equals("Disciple")) {
+            return Exceptions.NOT_OWN_CARD;
+        }
+
+        if (ENEMY_TARGET_MINIONS.contains(attackingCard.getName())) {
+            if (defender.equals(attacker)) {
+                return Exceptions.NOT_ENEMY_CARD;
+            }
+
+            if (!isTank(defendingCard) && defender.getFrontRowStats().getTanks() > 0) {
+                return Exceptions.TANK_NOT_ATTACKED;
+            }
+        }
+        return null;
+    }
+
     /**
      * Executes a special ability of a card on a target card.
      *
@@ -298,9 +399,10 @@ public final class Commands {
      * @param action     the action input containing attacker and target details
      * @param player1    player one
      * @param player2    player two
+     * @return the error message the move was rejected with, or null if the ability was used
      */
-    public static void cardUsesAbility(final ArrayNode outputData, final ActionsInput action,
-                                       final Player player1, final Player player2) {
+    public static String cardUsesAbility(final ArrayNode outputData, final ActionsInput action,
+                                         final Player player1, final Player player2) {
         int attackX = action.getCardAttacker().getX();
         int attackY = action.getCardAttacker().getY();
         int defendX = action.getCardAttacked().getX();
@@ -312,53 +414,56 @@ public final class Commands {
         ArrayList<Minion> attackingRow = getRowIndex(attacker, attackX);
         ArrayList<Minion> defendingRow = getRowIndex(defender, defendX);
 
-        Minion attackingCard;
-        try {
-            attackingCard = attackingRow.get(attackY);
-        } catch (IndexOutOfBoundsException e) {
-            throw e;
-        }
+        Minion attackingCard = attackingRow.get(attackY);
         Minion defendingCard = defendingRow.get(defendY);
 
+        String error = checkCardAbility(attacker, defender, attackingCard, defendingCard);
+        if (error != null) {
+            throwException(outputData, error, action);
+            return error;
+        }
+
+        attackingCard.useAbility(attackingCard, defendingCard, defendingRow);
+        attacker.touchBoard();
+        defender.touchBoard();
+        return null;
+    }
+
+    /**
+     * Validates an attack of a card on the enemy hero.
+     *
+     * @param defender      the player owning the attacked hero
+     * @param attackingCard the card performing the attack
+     * @return the error message from {@link Exceptions}, or null if the attack is allowed
+     */
+    public static String checkAttackHero(final Player defender, final Minion attackingCard) {
         if (attackingCard.isFrozen()) {
-            throwException(outputData, Exceptions.FROZEN, action);
-            return;
+            return Exceptions.FROZEN;
         }
 
         if (attackingCard.getHasAttacked()) {
-            throwException(outputData, Exceptions.CARD_ATTACKED, action);
-            return;
+            return Exceptions.CARD_ATTACKED;
         }
-        if (!attacker.equals(defender) && attackingCard.getName().matches("Disciple")) {
-            throwException(outputData, Exceptions.NOT_OWN_CARD, action);
-            return;
-        }
-
-        if (Arrays.asList("Ripper", "Miraj", "The Cursed One").contains(attackingCard.getName())) {
-            if (defender.equals(attacker)) {
-                throwException(outputData, Exceptions.NOT_ENEMY_CARD, action);
-                return;
-            }
 
-            if (!isTank(defendingCard) && tankExists(defender.getFrontRow())) {
-                throwException(outputData, Exceptions.TANK_NOT_ATTACKED, action);
-                return;
-            }
+        if (!isTank(defender.getHero()) && defender.getFrontRowStats().getTanks() > 0) {
+            return Exceptions.TANK_NOT_ATTACKED;
         }
-
-        attackingCard.useAbility(attackingCard, defendingCard, defendingRow);
+        return null;
     }
 
     /**
-     * Executes a special ability of a card on a target card.
+     * Executes an attack of a card on the enemy hero.
      *
      * @param outputData the output object for the action
      * @param action     the action input containing attacker and target details
      * @param player1    player one
      * @param player2    player two
+     * @return the error message the move was rejected with, or null if the attack was played;
+     *         {@link #heroKiller(ActionsInput, Player, Player)} then tells whether it killed
+     *         the enemy hero
      */
-    public static void useAttackHero(final ArrayNode outputData, final ActionsInput action,
-                                     final Player player1, final Player player2) {
+    public static String useAttackHero(final ArrayNode outputData, final ActionsInput action,
+                                       final Player player1, final Player player2) {
         int attackX = action.getCardAttacker().getX();
         int attackY = action.getCardAttacker().getY();
 
@@ -370,39 +475,81 @@ public final class Commands {
         Minion attackingCard = attackingRow.get(attackY);
         Hero attackedHero = defender.getHero();
 
-        if (attackingCard.isFrozen()) {
-            throwException(outputData, Exceptions.FROZEN, action);
-            return;
+        String error = checkAttackHero(defender, attackingCard);
+        if (error != null) {
+            throwException(outputData, error, action);
+            return error;
         }
 
-        if (attackingCard.getHasAttacked()) {
-            throwException(outputData, Exceptions.CARD_ATTACKED, action);
-            return;
-        }
+        attackedHero.setHealth(attackedHero.getHealth() - attackingCard.getAttackDamage());
+        attackingCard.setHasAttacked(true);
+        attacker.touchBoard();
 
-        if (!isTank(attackedHero) && tankExists(defender.getFrontRow())) {
-            throwException(outputData, Exceptions.TANK_NOT_ATTACKED, action);
-            return;
+        int winner = heroKiller(action, player1, player2);
+        if (winner != Constants.ZERO) {
+            addGameEnded(outputData, winner);
         }
+        return null;
+    }
 
-        attackedHero.setHealth(attackedHero.getHealth() - attackingCard.getAttackDamage());
-        attackingCard.setHasAttacked(true);
+    /**
+     * Finds the player who killed the enemy hero with an attack on the hero that was played.
+     *
+     * @param action  the action input containing the attacker details
+     * @param player1 player one
+     * @param player2 player two
+     * @return the index of the player owning the attacker if the attacked hero is dead,
+     *         or {@code Constants.ZERO} if it is still alive
+     */
+    public static int heroKiller(final ActionsInput action, final Player player1,
+                                 final Player player2) {
+        if (action.getCardAttacker().getX() <= Constants.ONE) {
+            return (player1.getHero().getHealth() <= 0) ? Constants.TWO : Constants.ZERO;
+        }
+        return (player2.getHero().getHealth() <= 0) ? Constants.ONE : Constants.ZERO;
+    }
 
-        if (attackedHero.getHealth() <= 0) {
-            ObjectNode node = new ObjectMapper().createObjectNode();
+    /**
+     * Adds the message announcing the end of a game to the output.
+     *
+     * @param outputData the output array, or null when the game is played without output
+     * @param winner     the index of the player who killed the enemy hero
+     */
+    public static void addGameEnded(final ArrayNode outputData, final int winner) {
+        if (outputData == null) {
+            return;
+        }
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
 
-            if (attacker.equals(player1)) {
-                Game.incrementPlayerOneWins();
-            } else {
-                Game.incrementPlayerTwoWins();
-            }
+        node.put("gameEnded", (winner == Constants.ONE) ? PLAYER_ONE_KILLED : PLAYER_TWO_KILLED);
+        outputData.add(node);
+    }
 
-            node.put("gameEnded", "Player "
-                    + ((attacker.equals(player1)) ? "one" : "two")
-                    + " killed the enemy hero.");
-            outputData.add(node);
+    /**
+     * Validates the use of the current player's hero ability on a row of the given player.
+     *
+     * @param currentPlayer the player using the hero ability
+     * @param target        the player owning the affected row
+     * @return the error message from {@link Exceptions}, or null if the ability can be used
+     */
+    public static String checkHeroAbility(final Player currentPlayer, final Player target) {
+        Hero hero = currentPlayer.getHero();
+        if (hero.getMana() > currentPlayer.getManaManager().getMana()) {
+            return Exceptions.NOT_ENOUGH_MANA_HERO;
+        }
+        if (hero.getHasAttacked()) {
+            return Exceptions.HERO_ATTACKED;
         }
 
+        if (ENEMY_ROW_HEROES.contains(hero.getName())
+                && target.equals(currentPlayer)) {
+            return Exceptions.ROW_NOT_ENEMY;
+        }
+        if (OWN_ROW_HEROES.contains(hero.getName())
+                && !target.equals(currentPlayer)) {
+            return Exceptions.ROW_NOT_OWN;
+        }
+        return null;
     }
 
     /**
@@ -413,23 +560,16 @@ public final class Commands {
      * @param currentPlayer the player currently executing the action
      * @param player1       player one
      * @param player2       player two
+     * @return the error message the move was rejected with, or null if the ability was used
      */
-    public static void useHeroAbility(final ArrayNode output, final ActionsInput action,
-                                      final Player currentPlayer, final Player player1,
-                                      final Player player2) {
+    public static String useHeroAbility(final ArrayNode output, final ActionsInput action,
+                                        final Player currentPlayer, final Player player1,
+                                        final Player player2) {
 
         Hero hero = currentPlayer.getHero();
-        if (hero.getMana() > currentPlayer.getManaManager().getMana()) {
-            throwException(output, Exceptions.NOT_ENOUGH_MANA_HERO, action);
-            return;
-        }
-        if (hero.getHasAttacked()) {
-            throwException(output, Exceptions.HERO_ATTACKED, action);
-            return;
-        }
 
         Player target = currentPlayer;
-        ArrayList<Minion> affectedRow = new ArrayList<>();
+        ArrayList<Minion> affectedRow = NO_ROW;
         if (action.getAffectedRow() == Constants.ZERO) {
             target = player2;
             affectedRow = player2.getBackRow();
@@ -444,19 +584,16 @@ public final class Commands {
             affectedRow = player1.getBackRow();
         }
 
-        if (Arrays.asList("Lord Royce", "Empress Thorina").contains(hero.getName())
-                && target.equals(currentPlayer)) {
-            throwException(output, Exceptions.ROW_NOT_ENEMY, action);
-            return;
-        }
-        if (Arrays.asList("General Kocioraw", "King Mudface").contains(hero.getName())
-                && !target.equals(currentPlayer)) {
-            throwException(output, Exceptions.ROW_NOT_OWN, action);
-            return;
+        String error = checkHeroAbility(currentPlayer, target);
+        if (error != null) {
+            throwException(output, error, action);
+            return error;
         }
 
         hero.useAbility(affectedRow);
+        target.touchBoard();
         currentPlayer.getManaManager().subtractMana(hero.getMana());
+        return null;
     }
 
     /**
@@ -468,22 +605,34 @@ public final class Commands {
      */
     public static void getFrozenCardsOnTable(final ObjectNode output, final Player player1,
                                              final Player player2) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        ArrayNode node = objectMapper.createArrayNode();
+        output.set("output", QUERY_CACHE.frozenCardsOnTable(player1, player2));
+    }
 
-        ArrayList<Card> cardsOnTable = new ArrayList<>();
-        cardsOnTable.addAll(player2.getBackRow());
-        cardsOnTable.addAll(player2.getFrontRow());
-        cardsOnTable.addAll(player1.getFrontRow());
-        cardsOnTable.addAll(player1.getBackRow());
+    /**
+     * Creates the list of frozen cards on the table, in the order of
+     * {@link #createTableNode(Player, Player)}.
+     *
+     * @param player1 player one
+     * @param player2 player two
+     * @return an array holding the frozen cards
+     */
+    static ArrayNode createFrozenCardsNode(final Player player1, final Player player2) {
+        ArrayNode node = JsonNodeFactory.instance.arrayNode();
+
+        addFrozenCards(node, player2.getBackRow());
+        addFrozenCards(node, player2.getFrontRow());
+        addFrozenCards(node, player1.getFrontRow());
+        addFrozenCards(node, player1.getBackRow());
 
-        for (Card card : cardsOnTable) {
+        return node;
+    }
+
+    private static void addFrozenCards(final ArrayNode node, final ArrayList<Minion> row) {
+        for (Card card : row) {
             if (card.isFrozen()) {
                 node.add(getCardNode(card));
             }
         }
-
-        output.set("output", node);
     }
 
     /**
@@ -512,4 +661,55 @@ public final class Commands {
     public static void getPlayerTwoWins(final ObjectNode actionOutput) {
         actionOutput.put("output", Game.getPlayerTwoWins());
     }
+
+    /**
+     * Retrieves the totals of both rows of a player and the change of their hero's health
+     * during the current round, and adds them to the action output.
+     *
+     * @param actionOutput the output object for the action
+     * @param action       the action input
+     * @param player       the player whose board is described
+     */
+    public static void getBoardStats(final ObjectNode actionOutput, final ActionsInput action,
+                                     final Player player) {
+        actionOutput.put("playerIdx", action.getPlayerIdx());
+
+        ObjectNode stats = actionOutput.putObject("output");
+        stats.set("frontRow", createRowStatsNode(player.getFrontRowStats()));
+        stats.set("backRow", createRowStatsNode(player.getBackRowStats()));
+        stats.put("heroHealthDelta", player.getHeroHealthDelta());
+    }
+
+    /**
+     * Retrieves the totals of a row of the table and adds them to the action output.
+     *
+     * @param actionOutput the output object for the action
+     * @param action       the action input containing the row (x)
+     * @param player1      player one
+     * @param player2      player two
+     */
+    public static void getRowStats(final ObjectNode actionOutput, final ActionsInput action,
+                                   final Player player1, final Player player2) {
+        int x = action.getX();
+
+        RowStats stats = new RowStats();
+        if (x == Constants.ZERO || x == Constants.ONE) {
+            stats = player2.getRowStats(x);
+        } else if (x == Constants.TWO || x == Constants.THREE) {
+            stats = player1.getRowStats(x);
+        }
+
+        actionOutput.put("x", x);
+        actionOutput.set("output", createRowStatsNode(stats));
+    }
+
+    private static ObjectNode createRowStatsNode(final RowStats stats) {
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        node.put("minions", stats.getMinions());
+        node.put("health", stats.getHealth());
+        node.put("attackDamage", stats.getAttack());
+        node.put("tanks", stats.getTanks());
+        node.put("frozen", stats.getFrozen());
+        return node;
+    }
 }
@@ -1,11 +1,12 @@
 package org.poo.game;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.poo.fileio.ActionsInput;
 
+import java.util.List;
+
 /**
  * Handles game-related exceptions by providing descriptive error messages
  * and generating structured JSON output for each exception scenario.
@@ -32,15 +33,29 @@ public final class Exceptions {
     public static final String ROW_NOT_ENEMY = "Selected row does not belong to the enemy.";
     public static final String ROW_NOT_OWN = "Selected row does not belong to the current player.";
 
+    /**
+     * The errors a move can be rejected with, in the order used by {@link GameSummary}.
+     */
+    public static final List<String> MOVE_ERRORS = List.of(NOT_ENOUGH_MANA, ROW_IS_FULL,
+            ROW_NOT_FROM_ENEMY, ROW_FULL, NOT_ENEMY_CARD, CARD_ATTACKED, FROZEN,
+            TANK_NOT_ATTACKED, NOT_OWN_CARD, NOT_ENOUGH_MANA_HERO, HERO_ATTACKED, ROW_NOT_ENEMY,
+            ROW_NOT_OWN);
+
     /**
      * Generates an exception response based on the given exception name and action input.
+     * Without an output container, as when a game is simulated without output, nothing is
+     * generated.
      *
-     * @param outputData    the output data container
+     * @param outputData    the output data container, or null for no output
      * @param exceptionName the name of the exception
      * @param action        the action input associated with the exception
      */
     public static void throwException(final ArrayNode outputData, final String exceptionName,
                                       final ActionsInput action) {
+        if (outputData == null) {
+            return;
+        }
+
         ObjectNode actionOutput = JsonNodeFactory.instance.objectNode();
         outputData.add(actionOutput);
         actionOutput.put("command", action.getCommand());
@@ -235,9 +250,7 @@ public final class Exceptions {
      * @param action       the action input containing attacker card details
      */
     public static void printCardAttacker(final ObjectNode actionOutput, final ActionsInput action) {
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        ObjectNode cardAttacker = objectMapper.createObjectNode();
+        ObjectNode cardAttacker = JsonNodeFactory.instance.objectNode();
         cardAttacker.put("x", action.getCardAttacker().getX());
         cardAttacker.put("y", action.getCardAttacker().getY());
         actionOutput.set("cardAttacker", cardAttacker);
@@ -250,9 +263,7 @@ public final class Exceptions {
      * @param action       the action input containing attacked card details
      */
     public static void printCardAttacked(final ObjectNode actionOutput, final ActionsInput action) {
-        ObjectMapper objectMapper = new ObjectMapper();
-
-        ObjectNode cardAttacked = objectMapper.createObjectNode();
+        ObjectNode cardAttacked = JsonNodeFactory.instance.objectNode();
         cardAttacked.put("x", action.getCardAttacked().getX());
         cardAttacked.put("y", action.getCardAttacked().getY());
         actionOutput.set("cardAttacked", cardAttacked);
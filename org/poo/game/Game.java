@@ -1,28 +1,41 @@
 package org.poo.game;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.Getter;
+import org.poo.bot.BotMatch;
+import org.poo.cache.GameOutcome;
+import org.poo.cache.OutcomeCache;
+import org.poo.cache.SessionMemo;
+import org.poo.cache.SetupKey;
 import org.poo.cards.Card;
-import org.poo.cards.Hero;
 import org.poo.cards.Minion;
 import org.poo.fileio.ActionsInput;
 import org.poo.fileio.CardInput;
 import org.poo.fileio.GameInput;
 import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
 import org.poo.player.Player;
+import org.poo.telemetry.TelemetryWriter;
 
 import java.util.ArrayList;
-
-import static org.poo.cards.Card.convertCardInputToCard;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Manages the main game logic, including setup, round progression, and handling actions.
  */
 public class Game {
 
+    /**
+     * Commands whose effect and output after a hero was killed depend only on the turn order,
+     * the win counters and the heroes, none of which is changed by them.
+     */
+    private static final List<Integer> FAST_FORWARD_COMMANDS = List.of(Constants.ONE,
+            Constants.TEN, Constants.ELEVEN, Constants.FIFTEEN, Constants.SIXTEEN,
+            Constants.SEVENTEEN);
+
     private static Input inputData;
     private static ArrayNode outputData;
 
@@ -39,7 +52,18 @@ public class Game {
     @Getter
     private static int round = Constants.ZERO;
 
+    private static SessionMemo sessionMemo;
+    private static ActionLog actionLog;
+    private static TelemetryWriter telemetry;
+
+    private static int sessionWinner = Constants.ZERO;
+    private static final SessionArena ARENA = new SessionArena();
+
+    private final int[] errorCounts = new int[Exceptions.MOVE_ERRORS.size()];
+    private int lastError = Constants.ZERO;
     private GameInput currentSession;
+    private final BotMatch botMatch;
+    private final ArrayList<GameSummary> summaries;
 
     /**
      * Increments the round counter.
@@ -64,16 +88,54 @@ public class Game {
 
     /**
      * Starts a new round by incrementing mana, adding cards to hands, and resetting card attacks.
+     *
+     * @param first  one of the two players
+     * @param second the other player
      */
-    public static void startNewRound() {
-        player1.getManaManager().incrementMana();
-        player2.getManaManager().incrementMana();
+    public static void startNewRound(final Player first, final Player second) {
+        first.getManaManager().incrementMana();
+        second.getManaManager().incrementMana();
+
+        first.addCardInHand();
+        second.addCardInHand();
 
-        player1.addCardInHand();
-        player2.addCardInHand();
+        first.resetCardAttacks();
+        second.resetCardAttacks();
+
+        first.markRoundStart();
+        second.markRoundStart();
+    }
 
-        player1.resetCardAttacks();
-        player2.resetCardAttacks();
+    /**
+     * Records a win for the given player.
+     *
+     * @param winner the index of the winning player, or {@code Constants.ZERO} for no winner
+     */
+    private static void recordWin(final int winner) {
+        if (winner == Constants.ONE) {
+            incrementPlayerOneWins();
+        } else if (winner == Constants.TWO) {
+            incrementPlayerTwoWins();
+        }
+        if (sessionWinner == Constants.ZERO) {
+            sessionWinner = winner;
+        }
+    }
+
+    /**
+     * Counts a move rejected during the current session.
+     *
+     * @param error the error message from {@link Exceptions}, or null if the move was played
+     */
+    private void countError(final String error) {
+        if (error == null) {
+            return;
+        }
+        int index = Exceptions.MOVE_ERRORS.indexOf(error);
+        if (index >= 0) {
+            errorCounts[index]++;
+            lastError = index + 1;
+        }
     }
 
     /**
@@ -83,15 +145,70 @@ public class Game {
      * @param outputData the output data container
      */
     public Game(final Input inputData, final ArrayNode outputData) {
+        this(inputData, outputData, null);
+    }
+
+    /**
+     * Constructs a new Game instance in which bots choose the moves of both players instead
+     * of the scripted actions of each session.
+     *
+     * @param inputData  the game input data
+     * @param outputData the output data container
+     * @param botMatch   the bots playing the games, or null to use the scripted actions
+     */
+    public Game(final Input inputData, final ArrayNode outputData, final BotMatch botMatch) {
+        this(inputData, outputData, botMatch, null);
+    }
+
+    /**
+     * Constructs a Game instance and plays all of its sessions.
+     *
+     * @param inputData  the game input data
+     * @param outputData the output data container, or null to build no output
+     * @param botMatch   the bots playing the games, or null to use the scripted actions
+     * @param summaries  receives the summary of every session, or null
+     */
+    private Game(final Input inputData, final ArrayNode outputData, final BotMatch botMatch,
+                 final ArrayList<GameSummary> summaries) {
+        this.botMatch = botMatch;
+        this.summaries = summaries;
         Game.inputData = inputData;
         Game.outputData = outputData;
 
-        player1 = playerSetup(1, inputData);
-        player2 = playerSetup(2, inputData);
-
         generateGame();
     }
 
+    /**
+     * Constructs a Game instance whose sessions are played one step at a time by the caller,
+     * through {@link #startSession(GameInput)} and {@link #playAction(ActionsInput)}.
+     *
+     * @param inputData  the game input data
+     * @param outputData the output data container
+     * @param stepwise   distinguishes this constructor; the value is ignored
+     */
+    Game(final Input inputData, final ArrayNode outputData, final boolean stepwise) {
+        this.botMatch = null;
+        this.summaries = null;
+        Game.inputData = inputData;
+        Game.outputData = outputData;
+    }
+
+    /**
+     * Plays every session of an input without building any output: debug queries are skipped,
+     * rejected moves are only counted and no end of game message is created. The win and
+     * round counters are updated as for a normal game.
+     *
+     * @param inputData the game input data
+     * @param botMatch  the bots playing the games, or null to use the scripted actions
+     * @return the summary of every session, in order
+     */
+    public static ArrayList<GameSummary> simulate(final Input inputData,
+                                                  final BotMatch botMatch) {
+        ArrayList<GameSummary> results = new ArrayList<>(inputData.getGames().size());
+        new Game(inputData, null, botMatch, results);
+        return results;
+    }
+
     /**
      * Sets up a player with their decks and hero based on input data.
      *
@@ -132,6 +249,37 @@ public class Game {
         Game.playerTwoWins = playerTwoWins;
     }
 
+    /**
+     * Sets the memo used to skip scripted sessions already played, in this or another game.
+     *
+     * @param sessionMemo the memo, or null to play every session
+     */
+    public static void setSessionMemo(final SessionMemo sessionMemo) {
+        Game.sessionMemo = sessionMemo;
+    }
+
+    /**
+     * Sets the log receiving the sessions played. While a log is set, every move is played,
+     * without the session memo, the outcome cache of the bots or fast-forwarding.
+     *
+     * @param actionLog the log, or null to log nothing
+     */
+    public static void setActionLog(final ActionLog actionLog) {
+        Game.actionLog = actionLog;
+    }
+
+    /**
+     * Sets the writer receiving the state of both players at the start of every round. While
+     * telemetry is recorded, every move is played, without the session memo, the outcome cache
+     * of the bots or fast-forwarding, so the turns passed after a hero is killed are recorded
+     * too.
+     *
+     * @param telemetry the writer, or null to record nothing
+     */
+    public static void setTelemetry(final TelemetryWriter telemetry) {
+        Game.telemetry = telemetry;
+    }
+
     /**
      * Generates the output data for the game.
      *
@@ -148,8 +296,7 @@ public class Game {
      * @return an ObjectNode representing the card
      */
     public static ObjectNode getCardNode(final Card card) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        ObjectNode cardNode = objectMapper.createObjectNode();
+        ObjectNode cardNode = JsonNodeFactory.instance.objectNode();
 
         int cardType = Card.getCardType(card.getName());
 
@@ -166,13 +313,11 @@ public class Game {
         cardNode.put("description", card.getDescription());
         cardNode.put("name", card.getName());
 
-        ArrayNode colors = objectMapper.createArrayNode();
+        ArrayNode colors = cardNode.putArray("colors");
         for (String color : card.getColors()) {
             colors.add(color);
         }
 
-        cardNode.set("colors", colors);
-
         return cardNode;
     }
 
@@ -183,8 +328,7 @@ public class Game {
      * @return an ArrayNode representing the cards
      */
     public static ArrayNode createCardsArrayNode(final ArrayList<Minion> cards) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        ArrayNode cardList = objectMapper.createArrayNode();
+        ArrayNode cardList = JsonNodeFactory.instance.arrayNode(cards.size());
 
         for (Card card : cards) {
             ObjectNode node = getCardNode(card);
@@ -199,65 +343,312 @@ public class Game {
      */
     private void generateGame() {
         for (GameInput session : inputData.getGames()) {
-            currentSession = session;
+            startSession(session);
+            int firstRound = round;
+
+            if (botMatch != null) {
+                playBots();
+            } else if (sessionMemo == null || outputData == null || actionLog != null
+                    || telemetry != null) {
+                playActions();
+            } else {
+                playMemoized(session);
+            }
 
-            player1 = playerSetup(1, inputData);
-            player2 = playerSetup(2, inputData);
+            if (summaries != null) {
+                summaries.add(new GameSummary(sessionWinner, round - firstRound,
+                        player1.getHero().getHealth(), player2.getHero().getHealth(),
+                        errorCounts));
+            }
+        }
+    }
 
-            gameSetUp(player1);
-            gameSetUp(player2);
+    /**
+     * Executes the scripted actions of the current session, unless the session memo already
+     * holds its output.
+     *
+     * @param session the current session
+     */
+    private void playMemoized(final GameInput session) {
+        SetupKey key = SessionMemo.keyOf(inputData, session, playerOneWins, playerTwoWins);
+        SessionMemo.Entry entry = sessionMemo.get(key);
+        if (entry != null) {
+            outputData.addAll(entry.getOutput());
+            playerOneWins = entry.getPlayerOneWins();
+            playerTwoWins = entry.getPlayerTwoWins();
+            round += entry.getRounds();
+            return;
+        }
 
-            currentPlayer = (session.getStartGame().getStartingPlayer() == 1) ? player1 : player2;
-            oponentPlayer = (session.getStartGame().getStartingPlayer() == 1) ? player2 : player1;
+        int firstOutput = outputData.size();
+        int firstRound = round;
+        playActions();
 
-            for (ActionsInput action : session.getActions()) {
-                int commandIndex = Commands.getCommandIndex(action.getCommand());
-                getCommand(commandIndex, action);
-            }
+        ArrayNode sessionOutput = JsonNodeFactory.instance.arrayNode();
+        for (int i = firstOutput; i < outputData.size(); i++) {
+            sessionOutput.add(outputData.get(i));
         }
+        sessionMemo.put(key, new SessionMemo.Entry(sessionOutput, playerOneWins,
+                playerTwoWins, round - firstRound));
     }
 
     /**
-     * Sets up the player's deck, hero, and initial state for the game.
+     * Sets up the players for a new session. The players and their cards are reused from
+     * the previous session, so they must no longer be referenced once it is over.
      *
-     * @param player the player to set up
+     * @param session the session to start
      */
-    private void gameSetUp(final Player player) {
-        int playerOneIndex = currentSession.getStartGame().getPlayerOneDeckIdx();
-        int playerTwoIndex = currentSession.getStartGame().getPlayerTwoDeckIdx();
+    void startSession(final GameInput session) {
+        currentSession = session;
+        sessionWinner = Constants.ZERO;
+        Arrays.fill(errorCounts, 0);
+
+        StartGameInput startGame = session.getStartGame();
+        player1 = ARENA.setUpPlayer(Constants.ONE,
+                ARENA.convertDecks(Constants.ONE, inputData.getPlayerOneDecks().getDecks()),
+                startGame.getPlayerOneDeckIdx(), startGame.getPlayerOneHero(),
+                startGame.getShuffleSeed());
+        player2 = ARENA.setUpPlayer(Constants.TWO,
+                ARENA.convertDecks(Constants.TWO, inputData.getPlayerTwoDecks().getDecks()),
+                startGame.getPlayerTwoDeckIdx(), startGame.getPlayerTwoHero(),
+                startGame.getShuffleSeed());
+
+        currentPlayer = (session.getStartGame().getStartingPlayer() == 1) ? player1 : player2;
+        oponentPlayer = (session.getStartGame().getStartingPlayer() == 1) ? player2 : player1;
+
+        if (actionLog != null) {
+            actionLog.sessionStarted(startGame);
+        }
+        if (telemetry != null) {
+            telemetry.sessionStarted(player1, player2);
+        }
+    }
 
-        Hero playerOneHero = (Hero) convertCardInputToCard(currentSession.getStartGame()
-                .getPlayerOneHero());
-        Hero playerTwoHero = (Hero) convertCardInputToCard(currentSession.getStartGame()
-                .getPlayerTwoHero());
+    /**
+     * Executes the scripted actions of the current session. Once a hero is killed, if the
+     * remaining actions only end turns or query the turn, the heroes and the win counters,
+     * the session is fast-forwarded: turns are passed without touching the cards and the
+     * queries are answered, which gives the same output and counters as playing them. Sessions
+     * are never fast-forwarded while moves are logged or telemetry is recorded, since the
+     * skipped rounds would be missing from the log and the telemetry.
+     */
+    private void playActions() {
+        ArrayList<ActionsInput> actions = currentSession.getActions();
+        int gamesBefore = playerOneWins + playerTwoWins;
+        boolean finished = false;
+
+        for (int i = 0; i < actions.size(); i++) {
+            playAction(actions.get(i));
+
+            if (!finished && playerOneWins + playerTwoWins != gamesBefore) {
+                finished = true;
+                if (actionLog == null && telemetry == null
+                        && canFastForward(actions, i + 1)) {
+                    fastForward(actions, i + 1);
+                    return;
+                }
+            }
+        }
+    }
 
-        if (player.equals(player1)) {
-            if (playerOneIndex >= 0 && playerOneIndex < player.getDeckManager().
-                    getAllDecks().size()) {
-                player.getDeckManager().setCurrentDeckIndex(playerOneIndex);
+    /**
+     * Checks whether the actions from the given index on can be fast-forwarded.
+     */
+    private static boolean canFastForward(final ArrayList<ActionsInput> actions,
+                                          final int from) {
+        for (int i = from; i < actions.size(); i++) {
+            if (!FAST_FORWARD_COMMANDS.contains(
+                    Commands.getCommandIndex(actions.get(i).getCommand()))) {
+                return false;
             }
-        } else {
-            if (playerTwoIndex >= 0 && playerTwoIndex
-                    < player.getDeckManager().getAllDecks().size()) {
-                player.getDeckManager().setCurrentDeckIndex(playerTwoIndex);
+        }
+        return true;
+    }
+
+    /**
+     * Plays the actions from the given index on, all of them in {@link #FAST_FORWARD_COMMANDS}.
+     */
+    private void fastForward(final ArrayList<ActionsInput> actions, final int from) {
+        for (int i = from; i < actions.size(); i++) {
+            ActionsInput action = actions.get(i);
+            int index = Commands.getCommandIndex(action.getCommand());
+            if (index == Constants.ONE) {
+                passTurn();
+            } else {
+                getCommand(index, action);
             }
         }
+    }
 
-        player.getDeckManager().replaceCurrentDeck(player.getDeckManager().getAllDecks()
-                .get(player.getDeckManager().getCurrentDeckIndex()));
-        player.getDeckManager().shuffleDeck(currentSession.getStartGame()
-                .getShuffleSeed() + "");
+    /**
+     * Ends the turn of the current player like {@link Commands#endPlayerTurn(Player, Player)},
+     * keeping the turn order and the round counter but leaving the cards, the mana and the
+     * hands as they are.
+     */
+    private static void passTurn() {
+        currentPlayer.setTurnEnded(true);
+        if (oponentPlayer.hasTurnEnded()) {
+            currentPlayer.setTurnEnded(false);
+            oponentPlayer.setTurnEnded(false);
+            incrementRound();
+        }
 
-        player.resetCards();
-        player.addCardInHand();
+        Player tmp = currentPlayer;
+        currentPlayer = oponentPlayer;
+        oponentPlayer = tmp;
+    }
 
-        if (player.equals(player1)) {
-            player.setHero(playerOneHero);
-        } else {
-            player.setHero(playerTwoHero);
+    /**
+     * Executes one action of the current session.
+     *
+     * @param action the action to execute
+     */
+    void playAction(final ActionsInput action) {
+        getCommand(Commands.getCommandIndex(action.getCommand()), action);
+    }
+
+    /**
+     * Executes one move of the current session, given its command index.
+     *
+     * @param index  the index of the command, at most {@code Constants.SIX}
+     * @param action the move
+     * @return the error the move was rejected with, as an index in
+     *         {@link Exceptions#MOVE_ERRORS} plus one, or 0
+     */
+    int playMove(final int index, final ActionsInput action) {
+        getCommand(index, action);
+        return lastError;
+    }
+
+    /**
+     * Answers a query on the current session, without adding it to the output.
+     *
+     * @param action the query
+     * @return the output of the query
+     * @throws IllegalArgumentException if the action is not a query
+     */
+    ObjectNode answerQuery(final ActionsInput action) {
+        int index = Commands.getCommandIndex(action.getCommand());
+        if (index <= Constants.SIX) {
+            throw new IllegalArgumentException("Not a query: " + action.getCommand());
+        }
+        ArrayNode output = outputData;
+        Game.outputData = JsonNodeFactory.instance.arrayNode();
+        try {
+            getCommand(index, action);
+            return (ObjectNode) outputData.get(0);
+        } finally {
+            Game.outputData = output;
         }
+    }
 
-        player.getManaManager().resetMana();
+    /**
+     * Returns player one of the current session.
+     *
+     * @return the player, shared with the running game
+     */
+    static Player getPlayerOne() {
+        return player1;
+    }
+
+    /**
+     * Returns player two of the current session.
+     *
+     * @return the player, shared with the running game
+     */
+    static Player getPlayerTwo() {
+        return player2;
+    }
+
+    /**
+     * Returns whether it is player one's turn.
+     *
+     * @return true if player one is the current player
+     */
+    static boolean isPlayerOneCurrent() {
+        return currentPlayer == player1;
+    }
+
+    /**
+     * Captures the state of the current session, with copies of both players.
+     *
+     * @return the snapshot
+     */
+    static GameSnapshot saveState() {
+        return new GameSnapshot(player1.copy(), player2.copy(), currentPlayer.equals(player1),
+                playerOneWins, playerTwoWins, round);
+    }
+
+    /**
+     * Restores the state of a session captured by {@link #saveState()}.
+     *
+     * @param snapshot the snapshot to restore
+     * @param reuse    whether the players of the snapshot may be used directly, when the
+     *                 snapshot is not restored again afterwards
+     */
+    static void restoreState(final GameSnapshot snapshot, final boolean reuse) {
+        player1 = reuse ? snapshot.getPlayer1() : snapshot.getPlayer1().copy();
+        player2 = reuse ? snapshot.getPlayer2() : snapshot.getPlayer2().copy();
+        currentPlayer = snapshot.isPlayerOneCurrent() ? player1 : player2;
+        oponentPlayer = snapshot.isPlayerOneCurrent() ? player2 : player1;
+        playerOneWins = snapshot.getPlayerOneWins();
+        playerTwoWins = snapshot.getPlayerTwoWins();
+        round = snapshot.getRound();
+    }
+
+    /**
+     * Lets the bots play the current session until a hero is killed or the decision limit
+     * of the match is reached. If the match has an outcome cache, a session already played
+     * is not simulated again: its cached outcome is applied instead, including the final
+     * health of the heroes, so the summary of the session is the same as if it was played.
+     */
+    private void playBots() {
+        OutcomeCache cache = (actionLog == null && telemetry == null)
+                ? botMatch.getOutcomeCache() : null;
+        SetupKey key = null;
+        if (cache != null) {
+            key = SetupKey.of(inputData, currentSession.getStartGame(), botMatch.getPolicyId());
+            GameOutcome outcome = cache.get(key);
+            if (outcome != null) {
+                round += outcome.getRounds();
+                player1.getHero().setHealth(outcome.getPlayerOneHealth());
+                player2.getHero().setHealth(outcome.getPlayerTwoHealth());
+
+                if (outcome.getWinner() != Constants.ZERO) {
+                    Commands.addGameEnded(outputData, outcome.getWinner());
+                    recordWin(outcome.getWinner());
+                }
+                return;
+            }
+        }
+
+        int oneWinsBefore = playerOneWins;
+        int gamesBefore = playerOneWins + playerTwoWins;
+        int firstRound = round;
+        long timeoutsBefore = botMatch.getStats(Constants.ONE).getTimeouts()
+                + botMatch.getStats(Constants.TWO).getTimeouts();
+
+        int decisions = 0;
+        while (decisions < botMatch.getMaxDecisions()
+                && playerOneWins + playerTwoWins == gamesBefore) {
+            ActionsInput action = botMatch.decide(player1, player2, currentPlayer,
+                    round - firstRound + 1);
+            getCommand(Commands.getCommandIndex(action.getCommand()), action);
+            decisions++;
+        }
+
+        long timeouts = botMatch.getStats(Constants.ONE).getTimeouts()
+                + botMatch.getStats(Constants.TWO).getTimeouts() - timeoutsBefore;
+        if (cache != null && timeouts == 0) {
+            int winner = Constants.ZERO;
+            if (playerOneWins != oneWinsBefore) {
+                winner = Constants.ONE;
+            } else if (playerOneWins + playerTwoWins != gamesBefore) {
+                winner = Constants.TWO;
+            }
+            cache.put(key, new GameOutcome(winner, round - firstRound, decisions,
+                    player1.getHero().getHealth(), player2.getHero().getHealth()));
+        }
     }
 
     /**
@@ -269,7 +660,7 @@ public class Game {
     private void getCommand(final int index, final ActionsInput action) {
         Player player = (action.getPlayerIdx() == Constants.ONE) ? player1 : player2;
 
-        if (index > Constants.SIX) {
+        if (index > Constants.SIX && outputData != null) {
             ObjectNode actionOutput = JsonNodeFactory.instance.objectNode();
             outputData.add(actionOutput);
             actionOutput.put("command", action.getCommand());
@@ -288,27 +679,52 @@ public class Game {
                 case Constants.FIFTEEN -> Commands.getTotalGamesPlayed(actionOutput);
                 case Constants.SIXTEEN -> Commands.getPlayerOneWins(actionOutput);
                 case Constants.SEVENTEEN -> Commands.getPlayerTwoWins(actionOutput);
+                case Constants.EIGHTEEN -> Commands.getBoardStats(actionOutput, action, player);
+                case Constants.NINETEEN -> Commands.getRowStats(actionOutput, action, player1,
+                        player2);
                 default -> {
                 }
             }
         }
 
+        lastError = Constants.ZERO;
+        int winner = Constants.ZERO;
+        String error = null;
         switch (index) {
             case Constants.ONE -> {
-                Commands.endPlayerTurn(currentPlayer, oponentPlayer);
+                if (Commands.endPlayerTurn(currentPlayer, oponentPlayer)) {
+                    incrementRound();
+                    if (telemetry != null) {
+                        telemetry.roundStarted(player1, player2);
+                    }
+                }
                 Player tmp = currentPlayer;
                 currentPlayer = oponentPlayer;
                 oponentPlayer = tmp;
             }
-            case Constants.TWO -> Commands.placeCard(outputData, action, currentPlayer,
+            case Constants.TWO -> error = Commands.placeCard(outputData, action, currentPlayer,
                     action.getHandIdx());
-            case Constants.THREE -> Commands.cardUsesAttack(outputData, action, player1, player2);
-            case Constants.FOUR -> Commands.cardUsesAbility(outputData, action, player1, player2);
-            case Constants.FIVE -> Commands.useAttackHero(outputData, action, player1, player2);
-            case Constants.SIX -> Commands.useHeroAbility(outputData, action, currentPlayer,
-                    player1, player2);
+            case Constants.THREE -> error = Commands.cardUsesAttack(outputData, action, player1,
+                    player2);
+            case Constants.FOUR -> error = Commands.cardUsesAbility(outputData, action, player1,
+                    player2);
+            case Constants.FIVE -> {
+                error = Commands.useAttackHero(outputData, action, player1, player2);
+                if (error == null) {
+                    winner = Commands.heroKiller(action, player1, player2);
+                    recordWin(winner);
+                }
+            }
+            case Constants.SIX -> error = Commands.useHeroAbility(outputData, action,
+                    currentPlayer, player1, player2);
             default -> {
+                return;
             }
         }
+        countError(error);
+
+        if (actionLog != null) {
+            actionLog.movePlayed(index, action, lastError, winner);
+        }
     }
 }
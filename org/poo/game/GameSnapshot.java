@@ -0,0 +1,60 @@
+package org.poo.game;
+
+import org.poo.player.Player;
+
+/**
+ * The state of a session at some point, as captured by {@link Game#saveState()}.
+ */
+final class GameSnapshot {
+
+    private final Player player1;
+    private final Player player2;
+    private final boolean playerOneCurrent;
+    private final int playerOneWins;
+    private final int playerTwoWins;
+    private final int round;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param player1          player one, not shared with a running game
+     * @param player2          player two, not shared with a running game
+     * @param playerOneCurrent whether it is player one's turn
+     * @param playerOneWins    the wins of player one
+     * @param playerTwoWins    the wins of player two
+     * @param round            the round counter
+     */
+    GameSnapshot(final Player player1, final Player player2, final boolean playerOneCurrent,
+                 final int playerOneWins, final int playerTwoWins, final int round) {
+        this.player1 = player1;
+        this.player2 = player2;
+        this.playerOneCurrent = playerOneCurrent;
+        this.playerOneWins = playerOneWins;
+        this.playerTwoWins = playerTwoWins;
+        this.round = round;
+    }
+
+    Player getPlayer1() {
+        return player1;
+    }
+
+    Player getPlayer2() {
+        return player2;
+    }
+
+    boolean isPlayerOneCurrent() {
+        return playerOneCurrent;
+    }
+
+    int getPlayerOneWins() {
+        return playerOneWins;
+    }
+
+    int getPlayerTwoWins() {
+        return playerTwoWins;
+    }
+
+    int getRound() {
+        return round;
+    }
+}
@@ -0,0 +1,116 @@
+package org.poo.game;
+
+/**
+ * The result of a session played without output, as returned by
+ * {@link Game#simulate(org.poo.fileio.Input, org.poo.bot.BotMatch)}.
+ */
+public final class GameSummary {
+
+    private final int winner;
+    private final int rounds;
+    private final int playerOneHealth;
+    private final int playerTwoHealth;
+    private final int[] errorCounts;
+
+    /**
+     * Creates a summary.
+     *
+     * @param winner          the index of the player who first killed the enemy hero, or 0 if
+     *                        no hero was killed
+     * @param rounds          the number of rounds started after the first round of the session
+     * @param playerOneHealth the final health of player one's hero
+     * @param playerTwoHealth the final health of player two's hero
+     * @param errorCounts     the number of rejected moves for every error of
+     *                        {@link Exceptions#MOVE_ERRORS}, in the same order
+     */
+    public GameSummary(final int winner, final int rounds, final int playerOneHealth,
+                       final int playerTwoHealth, final int[] errorCounts) {
+        this.winner = winner;
+        this.rounds = rounds;
+        this.playerOneHealth = playerOneHealth;
+        this.playerTwoHealth = playerTwoHealth;
+        this.errorCounts = errorCounts.clone();
+    }
+
+    /**
+     * Returns the winner of the session.
+     *
+     * @return the index of the player who first killed the enemy hero, or 0 if no hero was
+     *         killed
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Returns the number of rounds started after the first round of the session.
+     *
+     * @return the number of rounds
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Returns the final health of player one's hero.
+     *
+     * @return the health
+     */
+    public int getPlayerOneHealth() {
+        return playerOneHealth;
+    }
+
+    /**
+     * Returns the final health of player two's hero.
+     *
+     * @return the health
+     */
+    public int getPlayerTwoHealth() {
+        return playerTwoHealth;
+    }
+
+    /**
+     * Returns the number of moves rejected with the given error.
+     *
+     * @param error one of the error messages of {@link Exceptions}
+     * @return the number of moves, or 0 if the message is not a move error
+     */
+    public int getErrorCount(final String error) {
+        int index = Exceptions.MOVE_ERRORS.indexOf(error);
+        return (index < 0) ? 0 : errorCounts[index];
+    }
+
+    /**
+     * Returns the number of moves rejected during the session, whatever the error.
+     *
+     * @return the number of rejected moves
+     */
+    public int getTotalErrors() {
+        int total = 0;
+        for (int count : errorCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("winner=").append(winner)
+                .append(" rounds=").append(rounds)
+                .append(" health=").append(playerOneHealth).append('/').append(playerTwoHealth)
+                .append(" errors={");
+        boolean first = true;
+        for (int i = 0; i < errorCounts.length; i++) {
+            if (errorCounts[i] == 0) {
+                continue;
+            }
+            if (!first) {
+                text.append(", ");
+            }
+            first = false;
+            text.append('"').append(Exceptions.MOVE_ERRORS.get(i)).append("\"=")
+                    .append(errorCounts[i]);
+        }
+        return text.append('}').toString();
+    }
+}
@@ -0,0 +1,324 @@
+package org.poo.game;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.cards.Card;
+import org.poo.cards.Minion;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Coordinates;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+import org.poo.player.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Computes {@link CardUsageStats} over the sessions recorded by {@link ActionLog}s. The
+ * sessions are split into chunks replayed in parallel: every thread replays its chunks into its
+ * own arena and statistics, merged once every chunk is done, so the threads share nothing but
+ * the read-only logs and input.
+ * <p>
+ * A session is replayed from its start record by playing its logged moves directly on the
+ * players, without a {@link Game}; moves the game rejected are skipped, and the board is
+ * compared before and after every attack and ability to find the damage dealt and the minions
+ * removed.
+ * <p>
+ * Usage: {@code LogAnalytics <input> <log>...}, for example
+ * {@code LogAnalytics input/big_game.json big_game.log}; the statistics of the sessions of
+ * the logs, all recorded while playing the input, are printed as JSON.
+ */
+public final class LogAnalytics {
+
+    private static final int CHUNK_SESSIONS = 256;
+    private static final int ROWS = 4;
+
+    private final Input inputData;
+
+    /**
+     * Creates analytics over the logs of the sessions of an input.
+     *
+     * @param inputData the input whose sessions were logged
+     */
+    public LogAnalytics(final Input inputData) {
+        this.inputData = inputData;
+    }
+
+    /**
+     * Prints the statistics of the sessions of some logs.
+     *
+     * @param args the input file, then the log files
+     * @throws IOException if the input or a log cannot be read
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: LogAnalytics <input> <log>...");
+            return;
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Input inputData = objectMapper.readValue(new File(args[0]), Input.class);
+
+        List<Path> logs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            logs.add(Path.of(args[i]));
+        }
+        CardUsageStats stats = new LogAnalytics(inputData).analyze(logs);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsString(stats.toJson()));
+    }
+
+    /**
+     * A range of sessions of one log.
+     */
+    private record Chunk(ByteBuffer log, int offset, int sessions,
+                         ActionLogReplay replay) {
+    }
+
+    /**
+     * Replays every session of some logs.
+     *
+     * @param logs the log files
+     * @return the statistics of all the sessions
+     * @throws IOException if a log cannot be read
+     */
+    public CardUsageStats analyze(final List<Path> logs) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        for (Path file : logs) {
+            ActionLogReplay replay = new ActionLogReplay(file, inputData);
+            for (int first = 0; first < replay.getSessions(); first += CHUNK_SESSIONS) {
+                chunks.add(new Chunk(replay.viewLog(), replay.getSessionOffset(first),
+                        Math.min(CHUNK_SESSIONS, replay.getSessions() - first), replay));
+            }
+        }
+        return chunks.parallelStream()
+                .collect(() -> new Worker(inputData), Worker::replay, Worker::merge)
+                .stats;
+    }
+
+    /**
+     * The arena, statistics and scratch state of one thread.
+     */
+    private static final class Worker {
+
+        private final Input inputData;
+        private final SessionArena arena = new SessionArena();
+        private final CardUsageStats stats = new CardUsageStats();
+        private final ActionsInput move = new ActionsInput();
+        private final IdentityHashMap<Minion, Integer> placedTurns = new IdentityHashMap<>();
+
+        private final Minion[] board = new Minion[ROWS * Constants.FIVE];
+        private final int[] health = new int[board.length];
+        private final Player[] owners = new Player[board.length];
+        private int boardSize;
+
+        private Player player1;
+        private Player player2;
+        private Player currentPlayer;
+        private Player opponentPlayer;
+        private int turns;
+
+        Worker(final Input inputData) {
+            this.inputData = inputData;
+            move.setCardAttacker(new Coordinates());
+            move.setCardAttacked(new Coordinates());
+        }
+
+        void replay(final Chunk chunk) {
+            ByteBuffer log = chunk.log();
+            log.position(chunk.offset());
+            int sessions = 0;
+            int heroOne = 0;
+            int heroTwo = 0;
+            int winner = Constants.ZERO;
+
+            while (log.hasRemaining()) {
+                int type = log.get();
+                int length = SessionCodec.getInt(log);
+                int end = log.position() + length;
+                if (type == ActionLog.SESSION) {
+                    if (sessions > 0) {
+                        endSession(heroOne, heroTwo, winner);
+                    }
+                    if (sessions++ == chunk.sessions()) {
+                        return;
+                    }
+                    StartGameInput startGame = chunk.replay().readStartGame(log);
+                    startSession(startGame);
+                    heroOne = Card.getHeroId(startGame.getPlayerOneHero().getName());
+                    heroTwo = Card.getHeroId(startGame.getPlayerTwoHero().getName());
+                    winner = Constants.ZERO;
+                } else if (type == ActionLog.MOVE) {
+                    int index = ActionLogReplay.readMove(log, move);
+                    int error = SessionCodec.getInt(log);
+                    int expectedWinner = SessionCodec.getInt(log);
+                    int moveWinner = (error == Constants.ZERO) ? playMove(index) : Constants.ZERO;
+                    if (moveWinner != expectedWinner) {
+                        stats.addMismatch();
+                    }
+                    if (winner == Constants.ZERO) {
+                        winner = moveWinner;
+                    }
+                }
+                log.position(end);
+            }
+            if (sessions > 0) {
+                endSession(heroOne, heroTwo, winner);
+            }
+        }
+
+        Worker merge(final Worker other) {
+            stats.merge(other.stats);
+            return this;
+        }
+
+        private void startSession(final StartGameInput startGame) {
+            player1 = arena.setUpPlayer(Constants.ONE,
+                    arena.convertDecks(Constants.ONE, inputData.getPlayerOneDecks().getDecks()),
+                    startGame.getPlayerOneDeckIdx(), startGame.getPlayerOneHero(),
+                    startGame.getShuffleSeed());
+            player2 = arena.setUpPlayer(Constants.TWO,
+                    arena.convertDecks(Constants.TWO, inputData.getPlayerTwoDecks().getDecks()),
+                    startGame.getPlayerTwoDeckIdx(), startGame.getPlayerTwoHero(),
+                    startGame.getShuffleSeed());
+            currentPlayer = (startGame.getStartingPlayer() == Constants.ONE) ? player1 : player2;
+            opponentPlayer = (currentPlayer == player1) ? player2 : player1;
+            placedTurns.clear();
+            turns = 0;
+        }
+
+        /**
+         * Counts the minions still on the board as surviving until the end of the session.
+         */
+        private void endSession(final int heroOne, final int heroTwo, final int winner) {
+            snapshot();
+            for (int i = 0; i < boardSize; i++) {
+                survived(board[i]);
+            }
+            stats.addSession(heroOne, heroTwo, winner);
+        }
+
+        /**
+         * Plays a move the game accepted, recording its effects.
+         *
+         * @return the index of the player whose hero the move killed, or 0
+         */
+        private int playMove(final int index) {
+            stats.addMove();
+            switch (index) {
+                case Constants.ONE -> {
+                    Commands.endPlayerTurn(currentPlayer, opponentPlayer);
+                    Player tmp = currentPlayer;
+                    currentPlayer = opponentPlayer;
+                    opponentPlayer = tmp;
+                    turns++;
+                }
+                case Constants.TWO -> {
+                    Minion card = currentPlayer.getCardsInHand().get(move.getHandIdx());
+                    Commands.placeCard(null, move, currentPlayer, move.getHandIdx());
+                    placedTurns.put(card, turns);
+                    stats.addPlayed(card.getTypeId());
+                }
+                case Constants.THREE -> {
+                    Minion attacker = minionAt(move.getCardAttacker());
+                    snapshot();
+                    Commands.cardUsesAttack(null, move, player1, player2);
+                    stats.addAttack(attacker.getTypeId(), damageDealt(), removedMinions());
+                }
+                case Constants.FOUR -> {
+                    Minion attacker = minionAt(move.getCardAttacker());
+                    snapshot();
+                    Commands.cardUsesAbility(null, move, player1, player2);
+                    stats.addAbility(attacker.getTypeId(), damageDealt(), removedMinions());
+                }
+                case Constants.FIVE -> {
+                    Minion attacker = minionAt(move.getCardAttacker());
+                    int heroHealth = opponentPlayer.getHero().getHealth();
+                    Commands.useAttackHero(null, move, player1, player2);
+                    stats.addHeroAttack(attacker.getTypeId(),
+                            Card.getHeroId(opponentPlayer.getHero().getName()),
+                            heroHealth - opponentPlayer.getHero().getHealth());
+                    return Commands.heroKiller(move, player1, player2);
+                }
+                case Constants.SIX -> {
+                    snapshot();
+                    Commands.useHeroAbility(null, move, currentPlayer, player1, player2);
+                    stats.addHeroAbility(Card.getHeroId(currentPlayer.getHero().getName()),
+                            removedMinions());
+                }
+                default -> {
+                }
+            }
+            return Constants.ZERO;
+        }
+
+        private Minion minionAt(final Coordinates position) {
+            Player owner = (position.getX() <= Constants.ONE) ? player2 : player1;
+            return Player.getRowIndex(owner, position.getX()).get(position.getY());
+        }
+
+        /**
+         * Records the minions on the board and their health.
+         */
+        private void snapshot() {
+            boardSize = 0;
+            add(player1, player1.getFrontRow());
+            add(player1, player1.getBackRow());
+            add(player2, player2.getFrontRow());
+            add(player2, player2.getBackRow());
+        }
+
+        private void add(final Player owner, final ArrayList<Minion> row) {
+            for (Minion minion : row) {
+                board[boardSize] = minion;
+                health[boardSize] = minion.getHealth();
+                owners[boardSize] = owner;
+                boardSize++;
+            }
+        }
+
+        /**
+         * Returns the health the minions of the opponent lost since the snapshot.
+         */
+        private int damageDealt() {
+            int dealt = 0;
+            for (int i = 0; i < boardSize; i++) {
+                if (owners[i] == opponentPlayer) {
+                    int left = isOnBoard(i) ? board[i].getHealth() : 0;
+                    dealt += Math.max(0, health[i] - left);
+                }
+            }
+            return dealt;
+        }
+
+        /**
+         * Counts the minions removed from the board since the snapshot, recording their
+         * survival.
+         */
+        private int removedMinions() {
+            int removed = 0;
+            for (int i = 0; i < boardSize; i++) {
+                if (!isOnBoard(i)) {
+                    survived(board[i]);
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        private boolean isOnBoard(final int i) {
+            Player owner = owners[i];
+            return owner.getFrontRow().contains(board[i]) || owner.getBackRow().contains(board[i]);
+        }
+
+        private void survived(final Minion minion) {
+            Integer placed = placedTurns.remove(minion);
+            if (placed != null) {
+                stats.addSurvival(minion.getTypeId(), turns - placed);
+            }
+        }
+    }
+}
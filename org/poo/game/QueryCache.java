@@ -0,0 +1,118 @@
+package org.poo.game;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.player.Player;
+
+import static org.poo.game.Game.createCardsArrayNode;
+
+/**
+ * Remembers the last results of the queries listing cards, along with the players and the
+ * versions of the hands, decks and rows they were built from. A query repeated while nothing
+ * it lists has changed returns the same node instead of serializing the cards again, so the
+ * returned nodes must not be modified.
+ */
+final class QueryCache {
+
+    private final Entry[] hands = {new Entry(), new Entry()};
+    private final Entry[] decks = {new Entry(), new Entry()};
+    private final Entry table = new Entry();
+    private final Entry frozenCards = new Entry();
+
+    private int nextHand;
+    private int nextDeck;
+
+    /**
+     * A cached result and what it was built from.
+     */
+    private static final class Entry {
+
+        private Player first;
+        private Player second;
+        private long firstVersion;
+        private long secondVersion;
+        private ArrayNode node;
+
+        boolean matches(final Player one, final long oneVersion, final Player two,
+                        final long twoVersion) {
+            return node != null && first == one && firstVersion == oneVersion
+                    && second == two && secondVersion == twoVersion;
+        }
+
+        ArrayNode store(final Player one, final long oneVersion, final Player two,
+                        final long twoVersion, final ArrayNode result) {
+            first = one;
+            firstVersion = oneVersion;
+            second = two;
+            secondVersion = twoVersion;
+            node = result;
+            return result;
+        }
+    }
+
+    /**
+     * Returns the cards in the hand of a player.
+     *
+     * @param player the player
+     * @return the cards, as built by {@link Game#createCardsArrayNode}
+     */
+    ArrayNode cardsInHand(final Player player) {
+        long version = player.getHandVersion();
+        for (Entry entry : hands) {
+            if (entry.matches(player, version, null, 0)) {
+                return entry.node;
+            }
+        }
+        Entry entry = hands[nextHand];
+        nextHand = (nextHand + 1) % hands.length;
+        return entry.store(player, version, null, 0, createCardsArrayNode(player.getCardsInHand()));
+    }
+
+    /**
+     * Returns the cards left in the current deck of a player.
+     *
+     * @param player the player
+     * @return the cards, as built by {@link Game#createCardsArrayNode}
+     */
+    ArrayNode playerDeck(final Player player) {
+        long version = player.getDeckManager().getVersion();
+        for (Entry entry : decks) {
+            if (entry.matches(player, version, null, 0)) {
+                return entry.node;
+            }
+        }
+        Entry entry = decks[nextDeck];
+        nextDeck = (nextDeck + 1) % decks.length;
+        return entry.store(player, version, null, 0,
+                createCardsArrayNode(player.getDeckManager().getCurrentDeck()));
+    }
+
+    /**
+     * Returns the rows of both players.
+     *
+     * @param one player one
+     * @param two player two
+     * @return the rows, as built by {@link Commands#createTableNode(Player, Player)}
+     */
+    ArrayNode cardsOnTable(final Player one, final Player two) {
+        if (table.matches(one, one.getBoardVersion(), two, two.getBoardVersion())) {
+            return table.node;
+        }
+        return table.store(one, one.getBoardVersion(), two, two.getBoardVersion(),
+                Commands.createTableNode(one, two));
+    }
+
+    /**
+     * Returns the frozen cards on the rows of both players.
+     *
+     * @param one player one
+     * @param two player two
+     * @return the cards, as built by {@link Commands#createFrozenCardsNode(Player, Player)}
+     */
+    ArrayNode frozenCardsOnTable(final Player one, final Player two) {
+        if (frozenCards.matches(one, one.getBoardVersion(), two, two.getBoardVersion())) {
+            return frozenCards.node;
+        }
+        return frozenCards.store(one, one.getBoardVersion(), two, two.getBoardVersion(),
+                Commands.createFrozenCardsNode(one, two));
+    }
+}
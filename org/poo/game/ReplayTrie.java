@@ -0,0 +1,215 @@
+package org.poo.game;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.Coordinates;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+/**
+ * Plays many inputs at once, simulating the steps they have in common only once. Inputs with
+ * the same decks are turned into sequences of steps, the start of every session followed by its
+ * actions, and stored in a trie. The trie is walked depth first: a shared prefix is played once,
+ * and the game is forked with {@link Game#saveState()} where the sequences branch.
+ * <p>
+ * The output of every input is the same as if the input was played on its own, starting with
+ * no wins, as {@code Main.action} does. Output nodes produced by a shared prefix are shared by
+ * the outputs of all the inputs having that prefix.
+ */
+public final class ReplayTrie {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LinkedHashMap<String, Node> roots = new LinkedHashMap<>();
+    private final ArrayList<ArrayNode> outputs = new ArrayList<>();
+
+    private int steps;
+    private int playedSteps;
+    private int forks;
+
+    /**
+     * A step of the trie: starting a session or executing an action.
+     */
+    private static final class Node {
+
+        private final GameInput session;
+        private final ActionsInput action;
+        private final LinkedHashMap<String, Node> children = new LinkedHashMap<>();
+        private final ArrayList<Integer> inputs = new ArrayList<>();
+
+        private Input inputData;
+
+        Node(final GameInput session, final ActionsInput action) {
+            this.session = session;
+            this.action = action;
+        }
+
+        Node child(final String key, final GameInput childSession,
+                   final ActionsInput childAction) {
+            return children.computeIfAbsent(key, k -> new Node(childSession, childAction));
+        }
+    }
+
+    /**
+     * Adds an input to be played.
+     *
+     * @param inputData the input
+     * @return the index of the input, used to retrieve its output
+     */
+    public int add(final Input inputData) {
+        int index = outputs.size();
+        outputs.add(null);
+
+        Node node = roots.computeIfAbsent(key(inputData.getPlayerOneDecks())
+                + key(inputData.getPlayerTwoDecks()), k -> new Node(null, null));
+        node.inputData = inputData;
+
+        for (GameInput session : inputData.getGames()) {
+            node = node.child("S" + key(session.getStartGame()), session, null);
+            steps++;
+            for (ActionsInput action : session.getActions()) {
+                node = node.child(actionKey(action), null, action);
+                steps++;
+            }
+        }
+        node.inputs.add(index);
+        return index;
+    }
+
+    /**
+     * Builds the key of an action from all of its fields; cheaper than serializing it, since
+     * inputs hold far more actions than anything else.
+     */
+    private static String actionKey(final ActionsInput action) {
+        StringBuilder key = new StringBuilder("A").append(action.getCommand())
+                .append(',').append(action.getHandIdx())
+                .append(',').append(action.getAffectedRow())
+                .append(',').append(action.getPlayerIdx())
+                .append(',').append(action.getX())
+                .append(',').append(action.getY());
+        appendCoordinates(key, action.getCardAttacker());
+        appendCoordinates(key, action.getCardAttacked());
+        return key.toString();
+    }
+
+    private static void appendCoordinates(final StringBuilder key,
+                                          final Coordinates coordinates) {
+        if (coordinates == null) {
+            key.append(",-");
+        } else {
+            key.append(',').append(coordinates.getX()).append(':').append(coordinates.getY());
+        }
+    }
+
+    private static String key(final Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the input.", e);
+        }
+    }
+
+    /**
+     * Plays every input added so far.
+     *
+     * @return the outputs of the inputs, in the order they were added
+     */
+    public ArrayList<ArrayNode> run() {
+        playedSteps = 0;
+        forks = 0;
+        for (Node root : roots.values()) {
+            ArrayNode path = JsonNodeFactory.instance.arrayNode();
+            Game game = new Game(root.inputData, path, true);
+            Game.setPlayerOneWins(0);
+            Game.setPlayerTwoWins(0);
+            visit(game, root, path);
+        }
+        return outputs;
+    }
+
+    /**
+     * Plays the subtree of a node whose step has already been played.
+     */
+    private void visit(final Game game, final Node start, final ArrayNode path) {
+        Node node = start;
+        while (true) {
+            for (int index : node.inputs) {
+                ArrayNode output = JsonNodeFactory.instance.arrayNode();
+                output.addAll(path);
+                outputs.set(index, output);
+            }
+
+            if (node.children.isEmpty()) {
+                return;
+            }
+            if (node.children.size() == 1) {
+                node = node.children.values().iterator().next();
+                play(game, node);
+                continue;
+            }
+
+            GameSnapshot snapshot = Game.saveState();
+            int mark = path.size();
+            int remaining = node.children.size();
+            boolean first = true;
+            forks++;
+
+            for (Node child : node.children.values()) {
+                remaining--;
+                if (!first) {
+                    while (path.size() > mark) {
+                        path.remove(path.size() - 1);
+                    }
+                    Game.restoreState(snapshot, remaining == 0);
+                }
+                first = false;
+
+                play(game, child);
+                visit(game, child, path);
+            }
+            return;
+        }
+    }
+
+    private void play(final Game game, final Node node) {
+        if (node.session != null) {
+            game.startSession(node.session);
+        } else {
+            game.playAction(node.action);
+        }
+        playedSteps++;
+    }
+
+    /**
+     * Returns the number of steps of all the inputs added.
+     *
+     * @return the number of session starts and actions
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Returns the number of steps played by the last {@link #run()}.
+     *
+     * @return the number of session starts and actions simulated
+     */
+    public int getPlayedSteps() {
+        return playedSteps;
+    }
+
+    /**
+     * Returns the number of times the game was forked by the last {@link #run()}.
+     *
+     * @return the number of branch points
+     */
+    public int getForks() {
+        return forks;
+    }
+}
@@ -0,0 +1,141 @@
+package org.poo.game;
+
+import org.poo.cards.Hero;
+import org.poo.cards.Minion;
+import org.poo.fileio.CardInput;
+import org.poo.player.DeckLibrary;
+import org.poo.player.DeckManager;
+import org.poo.player.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Keeps the objects of a session between games, so that starting a game reuses them instead of
+ * allocating new ones: the two players with their mana and deck managers, the minions of every
+ * deck and the heroes. Before a game, the pooled minions are restored from the converted decks
+ * and the lists of the players are cleared, keeping their capacity.
+ * <p>
+ * Once a player is set up for a new game, the cards and the player of the previous game must
+ * no longer be used. An arena is not thread-safe; every thread simulating games uses its own.
+ */
+public final class SessionArena {
+
+    private final Slot[] slots = {new Slot(), new Slot()};
+
+    /**
+     * The reused objects of one player.
+     */
+    private static final class Slot {
+
+        private final Player player = new Player();
+        private final HashMap<String, Hero> heroes = new HashMap<>();
+        private final ArrayList<ArrayList<Minion>> pools = new ArrayList<>();
+
+        private ArrayList<ArrayList<CardInput>> decksInput;
+        private ArrayList<ArrayList<Minion>> decks;
+    }
+
+    /**
+     * Converts the decks of a player, reusing the conversion of the previous call if the
+     * decks are the same list.
+     *
+     * @param playerIndex the index of the player (1 or 2)
+     * @param decksInput  the decks of the player
+     * @return the converted decks, which must not be modified
+     */
+    public ArrayList<ArrayList<Minion>> convertDecks(final int playerIndex,
+                                                     final ArrayList<ArrayList<CardInput>>
+                                                             decksInput) {
+        Slot slot = slots[playerIndex - 1];
+        if (slot.decksInput != decksInput) {
+            slot.decksInput = decksInput;
+            slot.decks = slot.player.getDeckManager().getConvertedDecks(decksInput);
+        }
+        return slot.decks;
+    }
+
+    /**
+     * Prepares a player for a new game: selects and shuffles the deck, draws the first card,
+     * assigns the hero and resets the mana. Returns the same player for every game.
+     *
+     * @param playerIndex the index of the player (1 or 2)
+     * @param decks       the converted decks of the player, as returned by
+     *                    {@link #convertDecks(int, ArrayList)} or not modified otherwise
+     * @param deckIndex   the index of the deck the player uses in this game; an invalid index
+     *                    selects the first deck
+     * @param heroInput   the hero of the player
+     * @param shuffleSeed the seed used to shuffle the deck
+     * @return the player, set up for the game
+     */
+    public Player setUpPlayer(final int playerIndex, final ArrayList<ArrayList<Minion>> decks,
+                              final int deckIndex, final CardInput heroInput,
+                              final long shuffleSeed) {
+        Slot slot = slots[playerIndex - 1];
+        Player player = slot.player;
+        DeckManager deckManager = player.getDeckManager();
+
+        if (deckManager.getAllDecks() != decks) {
+            deckManager.setAllDecks(decks);
+            slot.pools.clear();
+            for (ArrayList<Minion> deck : decks) {
+                slot.pools.add(DeckManager.copyDeck(deck));
+            }
+        }
+
+        int index = (deckIndex >= 0 && deckIndex < decks.size()) ? deckIndex : 0;
+        ArrayList<Minion> template = decks.get(index);
+        ArrayList<Minion> pool = slot.pools.get(index);
+        for (int i = 0; i < pool.size(); i++) {
+            pool.get(i).resetTo(template.get(i));
+        }
+
+        player.resetGameState();
+        player.setTurnEnded(false);
+
+        deckManager.setCurrentDeckIndex(index);
+        deckManager.refillCurrentDeck(pool);
+        deckManager.shuffleDeck(shuffleSeed);
+        return startGame(slot, heroInput);
+    }
+
+    /**
+     * Prepares a player for a new game with a deck of a library, whose minions are only
+     * created when drawn. Returns the same player for every game.
+     *
+     * @param playerIndex the index of the player (1 or 2)
+     * @param library     the library holding the deck
+     * @param deckId      the id of the deck in the library
+     * @param heroInput   the hero of the player
+     * @param shuffleSeed the seed used to shuffle the deck
+     * @return the player, set up for the game
+     */
+    public Player setUpPlayer(final int playerIndex, final DeckLibrary library,
+                              final int deckId, final CardInput heroInput,
+                              final long shuffleSeed) {
+        Slot slot = slots[playerIndex - 1];
+        slot.player.resetGameState();
+        slot.player.setTurnEnded(false);
+        slot.player.getDeckManager().loadDeck(library, deckId, shuffleSeed);
+        return startGame(slot, heroInput);
+    }
+
+    /**
+     * Draws the first card of a player whose deck is ready and assigns the hero.
+     */
+    private static Player startGame(final Slot slot, final CardInput heroInput) {
+        Player player = slot.player;
+        player.addCardInHand();
+
+        Hero hero = slot.heroes.get(heroInput.getName());
+        if (hero == null) {
+            hero = Hero.create(heroInput);
+            slot.heroes.put(heroInput.getName(), hero);
+        }
+        hero.resetTo(heroInput);
+        player.setHero(hero);
+        player.markRoundStart();
+
+        return player;
+    }
+}
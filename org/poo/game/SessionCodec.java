@@ -0,0 +1,331 @@
+package org.poo.game;
+
+import org.poo.cards.Card;
+import org.poo.cards.Hero;
+import org.poo.cards.Minion;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.player.ManaManager;
+import org.poo.player.Player;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+/**
+ * Saves the running session to a compact binary snapshot and loads it back: both players with
+ * their mana, hero, hand, rows and remaining deck, the current player, the round and the win
+ * counters. Integers are written as variable-length quantities, so small values take a byte.
+ * <p>
+ * Cards refer to a dictionary of the cards (name, description and colors) found in the decks
+ * and heroes of an input; the program loading a snapshot must create its codec from the same
+ * input. A card missing from the dictionary is written in full. A codec is not thread-safe.
+ * <p>
+ * Format, version 1: the magic number and the version, the round, the wins of both players,
+ * the index of the current player, then for each player the mana, mana increment, turn ended
+ * flag, deck index and hero health at the start of the round, the hero, and the counts and
+ * cards of the hand, the front row, the back row and the deck. A card is its dictionary index
+ * plus one (0 for a card written in full, followed by its name, description and colors), its
+ * mana, health and attack damage and its flags.
+ */
+public final class SessionCodec {
+
+    /**
+     * Identifies a snapshot.
+     */
+    public static final int MAGIC = 0x47575353;
+    /**
+     * The version of the format written.
+     */
+    public static final int VERSION = 1;
+
+    private static final int FROZEN_FLAG = 1;
+    private static final int ATTACKED_FLAG = 2;
+
+    private static final int VALUE_BITS = 7;
+    private static final int MORE_BIT = 0x80;
+    private static final int VALUE_MASK = 0x7F;
+
+    private final ArrayList<CardInput> faces = new ArrayList<>();
+    private final HashMap<String, Integer> faceIds = new HashMap<>();
+    private final IdentityHashMap<ArrayList<String>, Integer> faceIdsByColors =
+            new IdentityHashMap<>();
+
+    /**
+     * Creates a codec for the sessions of an input.
+     *
+     * @param inputData the input whose decks and heroes make the card dictionary
+     */
+    public SessionCodec(final Input inputData) {
+        addFaces(inputData.getPlayerOneDecks().getDecks());
+        addFaces(inputData.getPlayerTwoDecks().getDecks());
+        for (GameInput session : inputData.getGames()) {
+            addFace(session.getStartGame().getPlayerOneHero());
+            addFace(session.getStartGame().getPlayerTwoHero());
+        }
+    }
+
+    private void addFaces(final ArrayList<ArrayList<CardInput>> decks) {
+        for (ArrayList<CardInput> deck : decks) {
+            for (CardInput card : deck) {
+                addFace(card);
+            }
+        }
+    }
+
+    private void addFace(final CardInput card) {
+        Integer id = faceIds.get(faceKey(card.getName(), card.getDescription(),
+                card.getColors()));
+        if (id == null) {
+            id = faces.size();
+            faces.add(card);
+            faceIds.put(faceKey(card.getName(), card.getDescription(), card.getColors()), id);
+        }
+        faceIdsByColors.put(card.getColors(), id);
+    }
+
+    private static String faceKey(final String name, final String description,
+                                  final ArrayList<String> colors) {
+        return name + '\0' + description + '\0' + colors;
+    }
+
+    /**
+     * Writes a snapshot of the running session.
+     *
+     * @param buffer the buffer to write to, at its position
+     * @throws java.nio.BufferOverflowException if the snapshot does not fit the buffer
+     */
+    public void save(final ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.put((byte) VERSION);
+        putInt(buffer, Game.getRound());
+        putInt(buffer, Game.getPlayerOneWins());
+        putInt(buffer, Game.getPlayerTwoWins());
+        putInt(buffer, Game.isPlayerOneCurrent() ? Constants.ONE : Constants.TWO);
+        writePlayer(buffer, Game.getPlayerOne());
+        writePlayer(buffer, Game.getPlayerTwo());
+    }
+
+    /**
+     * Replaces the running session with a snapshot.
+     *
+     * @param buffer the buffer to read from, at its position
+     * @throws IllegalArgumentException if the buffer does not hold a snapshot of a known version
+     */
+    public void load(final ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a session snapshot.");
+        }
+        int version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+        }
+        int round = getInt(buffer);
+        int playerOneWins = getInt(buffer);
+        int playerTwoWins = getInt(buffer);
+        boolean playerOneCurrent = getInt(buffer) == Constants.ONE;
+        Player player1 = readPlayer(buffer);
+        Player player2 = readPlayer(buffer);
+
+        Game.restoreState(new GameSnapshot(player1, player2, playerOneCurrent, playerOneWins,
+                playerTwoWins, round), true);
+    }
+
+    private void writePlayer(final ByteBuffer buffer, final Player player) {
+        putInt(buffer, player.getManaManager().getMana());
+        putInt(buffer, player.getManaManager().getManaIncrement());
+        putInt(buffer, player.hasTurnEnded() ? 1 : 0);
+        putInt(buffer, player.getDeckManager().getCurrentDeckIndex());
+        putInt(buffer, player.getHeroHealthAtRoundStart());
+        writeCard(buffer, player.getHero());
+        writeCards(buffer, player.getCardsInHand());
+        writeCards(buffer, player.getFrontRow());
+        writeCards(buffer, player.getBackRow());
+        writeCards(buffer, player.getDeckManager().getCurrentDeck());
+    }
+
+    private Player readPlayer(final ByteBuffer buffer) {
+        Player player = new Player();
+        ManaManager manaManager = player.getManaManager();
+        manaManager.setMana(getInt(buffer));
+        manaManager.setManaIncrement(getInt(buffer));
+        player.setTurnEnded(getInt(buffer) != 0);
+        player.getDeckManager().setCurrentDeckIndex(getInt(buffer));
+        player.setHeroHealthAtRoundStart(getInt(buffer));
+        player.setHero((Hero) readCard(buffer, null));
+
+        readCards(buffer, player.getCardsInHand(), null);
+        readCards(buffer, player.getFrontRow(), player);
+        readCards(buffer, player.getBackRow(), player);
+        ArrayList<Minion> deck = new ArrayList<>();
+        readCards(buffer, deck, null);
+        player.getDeckManager().setCurrentDeck(deck);
+
+        player.touchHand();
+        player.touchBoard();
+        return player;
+    }
+
+    private void writeCards(final ByteBuffer buffer, final ArrayList<Minion> cards) {
+        putInt(buffer, cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            writeCard(buffer, cards.get(i));
+        }
+    }
+
+    private void readCards(final ByteBuffer buffer, final ArrayList<Minion> cards,
+                           final Player rowOwner) {
+        int count = getInt(buffer);
+        for (int i = 0; i < count; i++) {
+            cards.add((Minion) readCard(buffer, rowOwner));
+        }
+    }
+
+    private void writeCard(final ByteBuffer buffer, final Card card) {
+        int face = faceOf(card);
+        putInt(buffer, face + 1);
+        if (face < 0) {
+            putString(buffer, card.getName());
+            putString(buffer, card.getDescription());
+            putInt(buffer, card.getColors().size());
+            for (String color : card.getColors()) {
+                putString(buffer, color);
+            }
+        }
+        putInt(buffer, card.getMana());
+        putInt(buffer, card.getHealth());
+        putInt(buffer, card.getAttackDamage());
+        putInt(buffer, (card.isFrozen() ? FROZEN_FLAG : 0)
+                | (card.getHasAttacked() ? ATTACKED_FLAG : 0));
+    }
+
+    /**
+     * Reads a card; a minion read for a row is bound to the turn clock of the row's owner
+     * before its flags are set.
+     */
+    private Card readCard(final ByteBuffer buffer, final Player rowOwner) {
+        int face = getInt(buffer) - 1;
+        String name;
+        String description;
+        ArrayList<String> colors;
+        if (face >= 0) {
+            CardInput input = faces.get(face);
+            name = input.getName();
+            description = input.getDescription();
+            colors = input.getColors();
+        } else {
+            name = getString(buffer);
+            description = getString(buffer);
+            int count = getInt(buffer);
+            colors = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                colors.add(getString(buffer));
+            }
+        }
+        int mana = getInt(buffer);
+        int health = getInt(buffer);
+        int attackDamage = getInt(buffer);
+        int flags = getInt(buffer);
+
+        Card card;
+        if (Card.getCardType(name) == Constants.ONE) {
+            card = Minion.create(mana, attackDamage, health, description, colors, name);
+        } else {
+            card = Hero.create(mana, description, colors, name, attackDamage);
+            card.setHealth(health);
+        }
+        if (rowOwner != null) {
+            card.bindClock(rowOwner.getTurnClock());
+        }
+        card.setFrozen((flags & FROZEN_FLAG) != 0);
+        card.setHasAttacked((flags & ATTACKED_FLAG) != 0);
+        return card;
+    }
+
+    /**
+     * Returns the dictionary index of a card, or -1 if it is not in the dictionary. Cards
+     * created from the input share its color lists, which are looked up first.
+     */
+    private int faceOf(final Card card) {
+        Integer id = faceIdsByColors.get(card.getColors());
+        if (id != null) {
+            CardInput face = faces.get(id);
+            if (face.getName().equals(card.getName())
+                    && face.getDescription().equals(card.getDescription())) {
+                return id;
+            }
+        }
+        id = faceIds.get(faceKey(card.getName(), card.getDescription(), card.getColors()));
+        return (id != null) ? id : -1;
+    }
+
+    /**
+     * Returns the dictionary index of a card of the input.
+     *
+     * @param card the card
+     * @return the index, or -1 if the card is not in the dictionary
+     */
+    int faceIndex(final CardInput card) {
+        Integer id = faceIds.get(faceKey(card.getName(), card.getDescription(),
+                card.getColors()));
+        return (id != null) ? id : -1;
+    }
+
+    /**
+     * Returns a card of the dictionary.
+     *
+     * @param index the dictionary index of the card
+     * @return the card, as found in the input
+     */
+    CardInput getFace(final int index) {
+        return faces.get(index);
+    }
+
+    /**
+     * Writes an int as a zigzag-encoded variable-length quantity.
+     *
+     * @param buffer the buffer to write to, at its position
+     * @param value  the value
+     */
+    static void putInt(final ByteBuffer buffer, final int value) {
+        int bits = (value << 1) ^ (value >> (Integer.SIZE - 1));
+        while ((bits & ~VALUE_MASK) != 0) {
+            buffer.put((byte) ((bits & VALUE_MASK) | MORE_BIT));
+            bits >>>= VALUE_BITS;
+        }
+        buffer.put((byte) bits);
+    }
+
+    /**
+     * Reads an int written by {@link #putInt(ByteBuffer, int)}.
+     *
+     * @param buffer the buffer to read from, at its position
+     * @return the value
+     */
+    static int getInt(final ByteBuffer buffer) {
+        int bits = 0;
+        int shift = 0;
+        int next;
+        do {
+            next = buffer.get();
+            bits |= (next & VALUE_MASK) << shift;
+            shift += VALUE_BITS;
+        } while ((next & MORE_BIT) != 0);
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+
+    private static void putString(final ByteBuffer buffer, final String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(final ByteBuffer buffer) {
+        byte[] bytes = new byte[getInt(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -5,6 +5,7 @@ import org.poo.checker.Checker;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.cache.SessionMemo;
 import org.poo.checker.CheckerConstants;
 import org.poo.fileio.Input;
 import org.poo.game.Game;
@@ -20,6 +21,13 @@ import java.util.Objects;
  * The entry point to this homework. It runs the checker that tests your implentation.
  */
 public final class Main {
+    /**
+     * Number of sessions whose output is remembered across input files.
+     */
+    private static final int MEMO_SESSIONS = 1024;
+
+    private static final SessionMemo SESSION_MEMO = new SessionMemo(MEMO_SESSIONS);
+
     /**
      * for coding style
      */
@@ -66,6 +74,7 @@ public final class Main {
                               final String filePath2) throws IOException {
         Game.setPlayerOneWins(0);
         Game.setPlayerTwoWins(0);
+        Game.setSessionMemo(SESSION_MEMO);
 
         ObjectMapper objectMapper = new ObjectMapper();
 
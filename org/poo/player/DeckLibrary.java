@@ -0,0 +1,267 @@
+package org.poo.player;
+
+import org.poo.cards.Card;
+import org.poo.cards.Minion;
+import org.poo.fileio.CardInput;
+import org.poo.game.Constants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Stores many decks compactly. Every distinct card (name, stats, description and colors) is
+ * stored once as a definition, and a deck is a {@code short[]} of definition ids; identical
+ * decks are stored once too, so two decks are equal exactly when their ids are. The base stats
+ * of every definition are packed into a {@code long}: type id, mana, attack damage and health,
+ * 16 bits each.
+ * <p>
+ * Minions are created from the definitions only when needed, see
+ * {@link DeckManager#loadDeck(DeckLibrary, int, long)}. Decks are added before the library is
+ * shared; once filled, it can be read by any number of threads.
+ */
+public final class DeckLibrary {
+
+    /**
+     * The largest number of definitions, and the largest value of a packed stat.
+     */
+    public static final int MAX_VALUE = 0xFFFF;
+
+    private static final int STAT_BITS = 16;
+    private static final int MANA_SHIFT = STAT_BITS;
+    private static final int ATTACK_SHIFT = 2 * STAT_BITS;
+    private static final int HEALTH_SHIFT = 3 * STAT_BITS;
+    private static final int INITIAL_DEFINITIONS = 16;
+
+    private final ArrayList<Minion> templates = new ArrayList<>();
+    private long[] stats = new long[INITIAL_DEFINITIONS];
+    private final HashMap<String, Integer> definitionIds = new HashMap<>();
+
+    private final ArrayList<DeckKey> decks = new ArrayList<>();
+    private final HashMap<DeckKey, Integer> deckIds = new HashMap<>();
+
+    /**
+     * The cards of a deck, with their hash computed once.
+     */
+    private static final class DeckKey {
+
+        private final short[] cards;
+        private final int hash;
+
+        DeckKey(final short[] cards) {
+            this.cards = cards;
+            this.hash = Arrays.hashCode(cards);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof DeckKey && Arrays.equals(cards, ((DeckKey) o).cards);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Adds a deck, unless an identical deck was already added.
+     *
+     * @param deck the cards of the deck, in order
+     * @return the id of the deck
+     * @throws IllegalArgumentException if a card is not a minion or a stat does not fit
+     */
+    public int addDeck(final ArrayList<CardInput> deck) {
+        short[] cards = new short[deck.size()];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = (short) definitionId(deck.get(i));
+        }
+
+        DeckKey key = new DeckKey(cards);
+        Integer id = deckIds.get(key);
+        if (id == null) {
+            id = decks.size();
+            decks.add(key);
+            deckIds.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * Adds all the decks of a player.
+     *
+     * @param decksInput the decks
+     * @return the ids of the decks, in the same order
+     */
+    public int[] addDecks(final ArrayList<ArrayList<CardInput>> decksInput) {
+        int[] ids = new int[decksInput.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = addDeck(decksInput.get(i));
+        }
+        return ids;
+    }
+
+    private int definitionId(final CardInput card) {
+        if (Card.getCardType(card.getName()) != Constants.ONE) {
+            throw new IllegalArgumentException("Only minions can be stored in a deck: "
+                    + card.getName());
+        }
+        String key = card.getName() + '\0' + card.getMana() + '\0' + card.getAttackDamage()
+                + '\0' + card.getHealth() + '\0' + card.getDescription() + '\0'
+                + card.getColors();
+        Integer id = definitionIds.get(key);
+        if (id != null) {
+            return id;
+        }
+
+        Minion template = Minion.create(card);
+        id = templates.size();
+        if (id > MAX_VALUE) {
+            throw new IllegalArgumentException("Too many distinct cards.");
+        }
+        if (id == stats.length) {
+            stats = Arrays.copyOf(stats, 2 * id);
+        }
+        templates.add(template);
+        stats[id] = pack(template.getTypeId(), template.getMana(), template.getAttackDamage(),
+                template.getHealth());
+        definitionIds.put(key, id);
+        return id;
+    }
+
+    private static long pack(final int typeId, final int mana, final int attackDamage,
+                             final int health) {
+        return field(typeId) | field(mana) << MANA_SHIFT
+                | field(attackDamage) << ATTACK_SHIFT | field(health) << HEALTH_SHIFT;
+    }
+
+    private static long field(final int value) {
+        if (value < 0 || value > MAX_VALUE) {
+            throw new IllegalArgumentException("Card stat out of range: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of decks stored.
+     *
+     * @return the number of distinct decks
+     */
+    public int getDeckCount() {
+        return decks.size();
+    }
+
+    /**
+     * Returns the number of card definitions stored.
+     *
+     * @return the number of distinct cards
+     */
+    public int getDefinitionCount() {
+        return templates.size();
+    }
+
+    /**
+     * Returns the number of cards of a deck.
+     *
+     * @param deckId the id of the deck
+     * @return the number of cards
+     */
+    public int getDeckSize(final int deckId) {
+        return decks.get(deckId).cards.length;
+    }
+
+    /**
+     * Returns the definition id of a card of a deck.
+     *
+     * @param deckId   the id of the deck
+     * @param position the position of the card in the deck
+     * @return the definition id
+     */
+    public int getCard(final int deckId, final int position) {
+        return decks.get(deckId).cards[position] & MAX_VALUE;
+    }
+
+    /**
+     * Returns a hash of the cards of a deck, computed when the deck was added.
+     *
+     * @param deckId the id of the deck
+     * @return the hash
+     */
+    public int getDeckHash(final int deckId) {
+        return decks.get(deckId).hash;
+    }
+
+    /**
+     * Returns the base stats of a card definition, packed into a {@code long}.
+     *
+     * @param definitionId the id of the definition
+     * @return the type id, mana, attack damage and health, 16 bits each from the lowest
+     */
+    public long getPackedStats(final int definitionId) {
+        return stats[definitionId];
+    }
+
+    /**
+     * Returns the type id of a card definition, as given by {@link Card#getMinionId(String)}.
+     *
+     * @param definitionId the id of the definition
+     * @return the type id
+     */
+    public int getTypeId(final int definitionId) {
+        return (int) (stats[definitionId] & MAX_VALUE);
+    }
+
+    /**
+     * Returns the mana cost of a card definition.
+     *
+     * @param definitionId the id of the definition
+     * @return the mana cost
+     */
+    public int getMana(final int definitionId) {
+        return (int) (stats[definitionId] >>> MANA_SHIFT & MAX_VALUE);
+    }
+
+    /**
+     * Returns the attack damage of a card definition.
+     *
+     * @param definitionId the id of the definition
+     * @return the attack damage
+     */
+    public int getAttackDamage(final int definitionId) {
+        return (int) (stats[definitionId] >>> ATTACK_SHIFT & MAX_VALUE);
+    }
+
+    /**
+     * Returns the health of a card definition.
+     *
+     * @param definitionId the id of the definition
+     * @return the health
+     */
+    public int getHealth(final int definitionId) {
+        return (int) (stats[definitionId] >>> HEALTH_SHIFT & MAX_VALUE);
+    }
+
+    /**
+     * Creates a minion from a card definition.
+     *
+     * @param definitionId the id of the definition
+     * @return a new minion with the base stats of the definition
+     */
+    public Minion materialize(final int definitionId) {
+        Minion template = templates.get(definitionId);
+        return Minion.create(template.getMana(), template.getAttackDamage(),
+                template.getHealth(), template.getDescription(), template.getColors(),
+                template.getName());
+    }
+
+    /**
+     * Restores a minion created by {@link #materialize(int)} from the same definition to the
+     * base stats of the definition.
+     *
+     * @param definitionId the id of the definition
+     * @param minion       the minion to restore
+     */
+    public void restore(final int definitionId, final Minion minion) {
+        minion.resetTo(templates.get(definitionId));
+    }
+}
@@ -6,6 +6,7 @@ import org.poo.cards.Minion;
 import org.poo.fileio.CardInput;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Random;
 
@@ -13,9 +14,18 @@ import static org.poo.cards.Card.convertCardInputToCard;
 
 /**
  * Manages the player's decks, including shuffling, drawing cards, and handling multiple decks.
+ * <p>
+ * A deck loaded from a {@link DeckLibrary} is kept as a shuffled order of positions in the
+ * library deck, and its minions are only created when drawn. Any other access to the cards of
+ * the current deck creates the remaining minions first.
  */
 public class DeckManager {
 
+    private static final int HASH_MULTIPLIER = 31;
+    private static final int MANA_SHIFT = 4;
+    private static final int ATTACK_SHIFT = 12;
+    private static final int HEALTH_SHIFT = 20;
+
     @Setter
     @Getter
     private int nrDecks;
@@ -27,6 +37,15 @@ public class DeckManager {
     private int currentDeckIndex;
     private ArrayList<Minion> currentDeck = new ArrayList<>();
     private ArrayList<ArrayList<Minion>> allDecks = new ArrayList<>();
+    private long version;
+    private final Random random = new Random();
+
+    private DeckLibrary library;
+    private int libraryDeck;
+    private int[] libraryOrder = new int[0];
+    private Minion[] libraryCards = new Minion[0];
+    private int nextLibraryCard;
+    private int libraryEnd;
 
     /**
      * Gets the current active deck.
@@ -34,9 +53,69 @@ public class DeckManager {
      * @return the current deck as an ArrayList of Minion objects
      */
     public ArrayList<Minion> getCurrentDeck() {
+        while (nextLibraryCard < libraryEnd) {
+            currentDeck.add(materialize(nextLibraryCard++));
+        }
         return currentDeck;
     }
 
+    /**
+     * Hashes the stats of a card, as folded into the hashes of {@link #hashCurrentDeck()}.
+     *
+     * @param typeId       the type id of the minion
+     * @param mana         the mana cost
+     * @param attackDamage the attack damage
+     * @param health       the health
+     * @return the hash of the card
+     */
+    public static int hashCard(final int typeId, final int mana, final int attackDamage,
+                               final int health) {
+        return typeId | mana << MANA_SHIFT | attackDamage << ATTACK_SHIFT
+                | health << HEALTH_SHIFT;
+    }
+
+    /**
+     * Folds the cards left in the current deck, in drawing order, into a hash. The cards of a
+     * deck loaded from a library that were not drawn yet are hashed from their definitions,
+     * without creating their minions; the hash is the same as for a list of the same cards.
+     *
+     * @return the hash of the current deck
+     */
+    public int hashCurrentDeck() {
+        int hash = 0;
+        for (int i = 0; i < currentDeck.size(); i++) {
+            Minion card = currentDeck.get(i);
+            hash = hash * HASH_MULTIPLIER + hashCard(card.getTypeId(), card.getMana(),
+                    card.getAttackDamage(), card.getHealth());
+        }
+        for (int i = nextLibraryCard; i < libraryEnd; i++) {
+            int definitionId = library.getCard(libraryDeck, libraryOrder[i]);
+            hash = hash * HASH_MULTIPLIER + hashCard(library.getTypeId(definitionId),
+                    library.getMana(definitionId), library.getAttackDamage(definitionId),
+                    library.getHealth(definitionId));
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the number of cards left in the current deck, without creating the minions of a
+     * deck loaded from a library.
+     *
+     * @return the number of cards in the current deck
+     */
+    public int getDeckSize() {
+        return currentDeck.size() + libraryEnd - nextLibraryCard;
+    }
+
+    /**
+     * Returns the version of the current deck, increased by every change of its contents.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return version;
+    }
+
     /**
      * Sets the current deck to the specified deck.
      *
@@ -44,6 +123,9 @@ public class DeckManager {
      */
     public void setCurrentDeck(final ArrayList<Minion> deck) {
         this.currentDeck = new ArrayList<>(deck);
+        libraryEnd = 0;
+        nextLibraryCard = 0;
+        version++;
     }
 
     /**
@@ -61,8 +143,34 @@ public class DeckManager {
      * @param seed a string representing the seed for shuffling
      */
     public void shuffleDeck(final String seed) {
-        Random random = new Random(Long.parseLong(seed));
-        Collections.shuffle(currentDeck, random);
+        shuffleDeck(Long.parseLong(seed));
+    }
+
+    /**
+     * Shuffles the current deck using a specified seed, the same way as
+     * {@link #shuffleDeck(String)} but without parsing the seed.
+     *
+     * @param seed the seed for shuffling
+     */
+    public void shuffleDeck(final long seed) {
+        random.setSeed(seed);
+        Collections.shuffle(getCurrentDeck(), random);
+        version++;
+    }
+
+    /**
+     * Makes the given cards the current deck, reusing the current list.
+     *
+     * @param cards the cards of the deck, in order; they are not copied
+     */
+    public void refillCurrentDeck(final ArrayList<Minion> cards) {
+        currentDeck.clear();
+        libraryEnd = 0;
+        nextLibraryCard = 0;
+        for (int i = 0; i < cards.size(); i++) {
+            currentDeck.add(cards.get(i));
+        }
+        version++;
     }
 
     /**
@@ -71,7 +179,12 @@ public class DeckManager {
      * @return the drawn card as a Minion object or null if the deck is empty
      */
     public Minion drawCard() {
+        if (nextLibraryCard < libraryEnd) {
+            version++;
+            return materialize(nextLibraryCard++);
+        }
         if (!currentDeck.isEmpty()) {
+            version++;
             return currentDeck.remove(0); // Replace `removeFirst` with `remove(0)`
         }
         return null;
@@ -84,6 +197,65 @@ public class DeckManager {
      */
     public void replaceCurrentDeck(final ArrayList<Minion> deck) {
         this.currentDeck = copyDeck(deck);
+        libraryEnd = 0;
+        nextLibraryCard = 0;
+        version++;
+    }
+
+    /**
+     * Makes a deck of a library the current deck and shuffles it the same way as
+     * {@link #shuffleDeck(long)} shuffles a list of its cards. No minion is created until a
+     * card is drawn; when the same deck is loaded again, the minions created for the previous
+     * game are restored and reused, so they must no longer be in use.
+     *
+     * @param deckLibrary the library holding the deck
+     * @param deckId      the id of the deck in the library
+     * @param seed        the seed for shuffling
+     */
+    public void loadDeck(final DeckLibrary deckLibrary, final int deckId, final long seed) {
+        int size = deckLibrary.getDeckSize(deckId);
+        if (deckLibrary != library || deckId != libraryDeck) {
+            library = deckLibrary;
+            libraryDeck = deckId;
+            if (libraryOrder.length < size) {
+                libraryOrder = new int[size];
+                libraryCards = new Minion[size];
+            } else {
+                Arrays.fill(libraryCards, null);
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            libraryOrder[i] = i;
+        }
+        random.setSeed(seed);
+        for (int i = size; i > 1; i--) {
+            int j = random.nextInt(i);
+            int position = libraryOrder[i - 1];
+            libraryOrder[i - 1] = libraryOrder[j];
+            libraryOrder[j] = position;
+        }
+
+        currentDeck.clear();
+        nextLibraryCard = 0;
+        libraryEnd = size;
+        version++;
+    }
+
+    /**
+     * Creates, or restores, the minion of a card of the deck loaded from a library.
+     */
+    private Minion materialize(final int index) {
+        int position = libraryOrder[index];
+        int definitionId = library.getCard(libraryDeck, position);
+        Minion card = libraryCards[position];
+        if (card == null) {
+            card = library.materialize(definitionId);
+            libraryCards[position] = card;
+        } else {
+            library.restore(definitionId, card);
+        }
+        return card;
     }
 
     /**
@@ -143,9 +315,39 @@ public class DeckManager {
      * @param index the index of the card to remove
      */
     public void removeCardFromDeck(final int index) {
+        getCurrentDeck();
         if (!currentDeck.isEmpty() && currentDeck.size() > index) {
             currentDeck.remove(index);
+            version++;
+        }
+    }
+
+    /**
+     * Creates a copy of the deck manager. The current deck is copied deeply, since its cards
+     * end up in play, while the decks the current deck was chosen from are shared. The cards
+     * of a deck loaded from a library that were not drawn yet stay in the library.
+     *
+     * @return a new deck manager in the same state
+     */
+    public DeckManager copy() {
+        DeckManager copy = new DeckManager();
+        copy.nrDecks = nrDecks;
+        copy.nrCardsInDeck = nrCardsInDeck;
+        copy.currentDeckIndex = currentDeckIndex;
+        copy.allDecks = allDecks;
+        copy.currentDeck = new ArrayList<>(currentDeck.size());
+        for (Minion card : currentDeck) {
+            copy.currentDeck.add(card.copy());
+        }
+        if (nextLibraryCard < libraryEnd) {
+            copy.library = library;
+            copy.libraryDeck = libraryDeck;
+            copy.libraryOrder = libraryOrder.clone();
+            copy.libraryCards = new Minion[libraryOrder.length];
+            copy.nextLibraryCard = nextLibraryCard;
+            copy.libraryEnd = libraryEnd;
         }
+        return copy;
     }
 
     /**
@@ -13,6 +13,8 @@ public class ManaManager {
     @Getter
     @Setter
     private int mana = 1;
+    @Getter
+    @Setter
     private int manaIncrement = 1;
 
     /**
@@ -35,6 +37,18 @@ public class ManaManager {
         this.mana -= amount;
     }
 
+    /**
+     * Creates a copy of the mana manager.
+     *
+     * @return a new mana manager with the same mana and mana increment
+     */
+    public ManaManager copy() {
+        ManaManager copy = new ManaManager();
+        copy.mana = mana;
+        copy.manaIncrement = manaIncrement;
+        return copy;
+    }
+
     /**
      * Resets the player's mana and the mana increment to their initial values.
      */
@@ -1,13 +1,15 @@
 package org.poo.player;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
-import org.poo.cards.Card;
 import org.poo.cards.Hero;
 import org.poo.cards.Minion;
+import org.poo.cards.TurnClock;
 import org.poo.game.Constants;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents a player in the game, managing their hero, cards, mana, and gameplay actions.
@@ -16,6 +18,13 @@ import java.util.ArrayList;
 @Getter
 public class Player {
 
+    private static final List<String> FRONT_ROW_MINIONS = List.of(
+            "The Ripper",
+            "Miraj",
+            "Goliath",
+            "Warden"
+    );
+
     private ManaManager manaManager;
     private DeckManager deckManager;
 
@@ -28,6 +37,16 @@ public class Player {
     private int gamesPlayed = 0;
     private boolean turnEnded = false;
 
+    @Setter(AccessLevel.NONE)
+    private long handVersion;
+    @Setter(AccessLevel.NONE)
+    private long boardVersion;
+
+    private final TurnClock turnClock = new TurnClock();
+    private final RowStats frontRowStats = new RowStats();
+    private final RowStats backRowStats = new RowStats();
+    private int heroHealthAtRoundStart;
+
     /**
      * Default constructor for initializing a Player with a new mana and deck manager.
      */
@@ -36,6 +55,40 @@ public class Player {
         this.deckManager = new DeckManager();
     }
 
+    /**
+     * Creates a deep copy of the player: mana, decks, hero, hand and table rows.
+     *
+     * @return a new player in the same state
+     */
+    public Player copy() {
+        Player copy = new Player();
+        copy.manaManager = manaManager.copy();
+        copy.deckManager = deckManager.copy();
+        copy.hero = (hero != null) ? hero.copy() : null;
+        copy.cardsInHand = copyCards(cardsInHand);
+        copy.frontRow = copyCards(frontRow);
+        copy.backRow = copyCards(backRow);
+        for (Minion card : copy.frontRow) {
+            card.bindClock(copy.turnClock);
+        }
+        for (Minion card : copy.backRow) {
+            card.bindClock(copy.turnClock);
+        }
+        copy.gamesPlayed = gamesPlayed;
+        copy.turnEnded = turnEnded;
+        copy.heroHealthAtRoundStart = heroHealthAtRoundStart;
+        copy.touchBoard();
+        return copy;
+    }
+
+    private static ArrayList<Minion> copyCards(final ArrayList<Minion> cards) {
+        ArrayList<Minion> copy = new ArrayList<>(cards.size());
+        for (Minion card : cards) {
+            copy.add(card.copy());
+        }
+        return copy;
+    }
+
     /**
      * Checks if the player's turn has ended.
      *
@@ -45,6 +98,52 @@ public class Player {
         return turnEnded;
     }
 
+    /**
+     * Marks the hand as changed, increasing its version.
+     */
+    public void touchHand() {
+        handVersion++;
+    }
+
+    /**
+     * Marks the table rows or the cards on them as changed, increasing their version and
+     * updating the totals of both rows.
+     */
+    public void touchBoard() {
+        boardVersion++;
+        frontRowStats.update(frontRow);
+        backRowStats.update(backRow);
+    }
+
+    /**
+     * Returns the totals of a row, selected like {@link #getRowIndex(Player, int)} does.
+     *
+     * @param rowIndex the index of the row (0 or 3 for the back row, others for the front row)
+     * @return the totals of the row
+     */
+    public RowStats getRowStats(final int rowIndex) {
+        return (rowIndex == Constants.ZERO || rowIndex == Constants.THREE)
+                ? backRowStats
+                : frontRowStats;
+    }
+
+    /**
+     * Remembers the health of the hero at the start of a round, for
+     * {@link #getHeroHealthDelta()}.
+     */
+    public void markRoundStart() {
+        heroHealthAtRoundStart = (hero != null) ? hero.getHealth() : Constants.ZERO;
+    }
+
+    /**
+     * Returns how much the health of the hero changed since the start of the round.
+     *
+     * @return the change of health, negative when the hero was damaged
+     */
+    public int getHeroHealthDelta() {
+        return (hero != null) ? hero.getHealth() - heroHealthAtRoundStart : Constants.ZERO;
+    }
+
     /**
      * Resets the player's game state, clearing all cards and resetting mana.
      */
@@ -53,6 +152,8 @@ public class Player {
         frontRow.clear();
         backRow.clear();
         manaManager.resetMana();
+        touchHand();
+        touchBoard();
     }
 
     /**
@@ -62,16 +163,20 @@ public class Player {
         Minion card = deckManager.drawCard();
         if (card != null) {
             cardsInHand.add(card);
+            touchHand();
         }
     }
 
     /**
-     * Resets all card collections for the player, clearing the hand and rows.
+     * Resets all card collections for the player, clearing the hand and rows. The new lists
+     * can hold a full row and every card of the current deck, so they do not grow during play.
      */
     public void resetCards() {
-        this.cardsInHand = new ArrayList<>();
-        this.frontRow = new ArrayList<>();
-        this.backRow = new ArrayList<>();
+        this.cardsInHand = new ArrayList<>(deckManager.getDeckSize() + 1);
+        this.frontRow = new ArrayList<>(Constants.MAX_CARDS_IN_ROW);
+        this.backRow = new ArrayList<>(Constants.MAX_CARDS_IN_ROW);
+        touchHand();
+        touchBoard();
     }
 
     /**
@@ -81,6 +186,7 @@ public class Player {
      */
     public void removeCardFromHand(final int index) {
         cardsInHand.remove(index);
+        touchHand();
     }
 
     /**
@@ -95,30 +201,40 @@ public class Player {
 
         Minion card = cardsInHand.get(index);
 
+        card.bindClock(turnClock);
         rowForMinion(card.getName()).add(card);
+        touchBoard();
     }
 
     /**
      * Adds the top card from the player's deck to their hand, if the deck is not empty.
      */
     public void addCardInHand() {
-        if (!(deckManager.getCurrentDeck().isEmpty())) {
-            cardsInHand.add(deckManager.getCurrentDeck().getFirst());
-            deckManager.removeCardFromDeck(Constants.ZERO);
+        Minion card = deckManager.drawCard();
+        if (card != null) {
+            cardsInHand.add(card);
+            touchHand();
         }
     }
 
     /**
-     * Resets the attack state for all cards in both the front and back rows.
+     * Resets the attack state for all cards in both the front and back rows, by starting a
+     * new attack period of the player's turn clock.
      */
     public void resetCardAttacks() {
-        for (Card card : backRow) {
-            card.setHasAttacked(false);
-        }
+        turnClock.startRound();
+        boardVersion++;
+    }
 
-        for (Card card : frontRow) {
-            card.setHasAttacked(false);
-        }
+    /**
+     * Unfreezes the cards in both rows and lets them attack again, by ending the turn of the
+     * player's turn clock. The totals of the rows are updated without visiting the cards.
+     */
+    public void resetTurnFlags() {
+        turnClock.endTurn();
+        boardVersion++;
+        frontRowStats.clearFrozen();
+        backRowStats.clearFrozen();
     }
 
     /**
@@ -128,10 +244,7 @@ public class Player {
      * @return the row (front or back) that the minion belongs to
      */
     public ArrayList<Minion> rowForMinion(final String cardName) {
-        if (cardName.matches("The Ripper")
-                || cardName.matches("Miraj")
-                || cardName.matches("Goliath")
-                || cardName.matches("Warden")) {
+        if (FRONT_ROW_MINIONS.contains(cardName)) {
             return frontRow;
         } else {
             return backRow;
@@ -0,0 +1,97 @@
+package org.poo.player;
+
+import org.poo.cards.Card;
+import org.poo.cards.Minion;
+
+import java.util.ArrayList;
+
+/**
+ * Running totals of a row of minions, kept by {@link Player} and updated whenever the row or
+ * the cards on it change, so that they can be read without scanning the row.
+ */
+public final class RowStats {
+
+    private int health;
+    private int attack;
+    private int minions;
+    private int tanks;
+    private int frozen;
+
+    /**
+     * Recomputes the totals after a change of the row.
+     *
+     * @param row the row the totals describe
+     */
+    void update(final ArrayList<Minion> row) {
+        health = 0;
+        attack = 0;
+        tanks = 0;
+        frozen = 0;
+        minions = row.size();
+
+        for (int i = 0; i < minions; i++) {
+            Minion minion = row.get(i);
+            health += minion.getHealth();
+
+            attack += minion.getAttackDamage();
+            if (Card.isTank(minion)) {
+                tanks++;
+            }
+            if (minion.isFrozen()) {
+                frozen++;
+            }
+        }
+    }
+
+    /**
+     * Records that no minion on the row is frozen any more.
+     */
+    void clearFrozen() {
+        frozen = 0;
+    }
+
+    /**
+     * Returns the total health of the minions on the row.
+     *
+     * @return the total health
+     */
+    public int getHealth() {
+        return health;
+    }
+
+    /**
+     * Returns the total attack damage of the minions on the row.
+     *
+     * @return the total attack damage
+     */
+    public int getAttack() {
+        return attack;
+    }
+
+    /**
+     * Returns the number of minions on the row.
+     *
+     * @return the number of minions
+     */
+    public int getMinions() {
+        return minions;
+    }
+
+    /**
+     * Returns the number of tanks on the row.
+     *
+     * @return the number of tanks
+     */
+    public int getTanks() {
+        return tanks;
+    }
+
+    /**
+     * Returns the number of frozen minions on the row.
+     *
+     * @return the number of frozen minions
+     */
+    public int getFrozen() {
+        return frozen;
+    }
+}
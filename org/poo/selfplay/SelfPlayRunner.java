@@ -0,0 +1,231 @@
+package org.poo.selfplay;
+
+import org.poo.archive.GameArchive;
+import org.poo.bot.GameView;
+import org.poo.bot.Policy;
+import org.poo.cache.SetupKey;
+import org.poo.env.ActionSpace;
+import org.poo.env.GameEnvironment;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+import org.poo.game.Constants;
+import org.poo.player.DeckLibrary;
+import org.poo.state.StateEncoder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Plays bot-vs-bot games on several threads and streams every decision to a
+ * {@link ShardWriter}. Each thread owns its environment, policies and buffers, while the decks
+ * are stored once in a {@link DeckLibrary} shared by all the environments. The records of a
+ * game are kept until its outcome is known, then copied into blocks for the writer.
+ * Game {@code i} is played with the shuffle seed {@code seed + i}, whichever thread plays it.
+ * With an archive set, every finished game is also appended to the {@link GameArchive}.
+ */
+public final class SelfPlayRunner {
+
+    private final Input inputData;
+    private final StartGameInput setup;
+    private final Supplier<Policy> playerOne;
+    private final Supplier<Policy> playerTwo;
+    private final int maxDecisions;
+    private final long budgetNanos;
+    private final DeckLibrary library = new DeckLibrary();
+
+    private GameArchive archive;
+    private String policyId;
+
+    /**
+     * Creates a runner.
+     *
+     * @param inputData    the input holding the decks of both players
+     * @param setup        the deck indices, heroes and starting player of every game
+     * @param playerOne    creates the policy of player one, once per thread
+     * @param playerTwo    creates the policy of player two, once per thread
+     * @param maxDecisions the number of decisions after which a game is abandoned
+     * @param budgetNanos  the time a policy has for each decision, in nanoseconds
+     */
+    public SelfPlayRunner(final Input inputData, final StartGameInput setup,
+                          final Supplier<Policy> playerOne, final Supplier<Policy> playerTwo,
+                          final int maxDecisions, final long budgetNanos) {
+        this.inputData = inputData;
+        this.setup = setup;
+        this.playerOne = playerOne;
+        this.playerTwo = playerTwo;
+        this.maxDecisions = maxDecisions;
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Sets the archive receiving every finished game.
+     *
+     * @param gameArchive the archive, or null to archive nothing
+     * @param gamePolicy  identifies the policies and their settings in the setup keys of the
+     *                    games
+     */
+    public void setArchive(final GameArchive gameArchive, final String gamePolicy) {
+        this.archive = gameArchive;
+        this.policyId = gamePolicy;
+    }
+
+    /**
+     * Plays a number of games and waits for all of them to be handed to the writer.
+     *
+     * @param games   the number of games
+     * @param seed    the shuffle seed of the first game
+     * @param threads the number of simulation threads
+     * @param writer  the writer receiving the records
+     * @return the number of records produced
+     * @throws InterruptedException if interrupted while waiting for the games
+     */
+    public long run(final int games, final long seed, final int threads,
+                    final ShardWriter writer) throws InterruptedException {
+        AtomicLong nextGame = new AtomicLong();
+        AtomicLong produced = new AtomicLong();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        Thread[] workers = new Thread[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            Worker worker = new Worker(writer);
+            workers[i] = new Thread(() -> {
+                try {
+                    for (long game = nextGame.getAndIncrement(); game < games;
+                         game = nextGame.getAndIncrement()) {
+                        produced.addAndGet(worker.play(seed + game));
+                    }
+                    worker.flush();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                    nextGame.set(games);
+                }
+            }, "self-play-" + i);
+            workers[i].start();
+        }
+
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return produced.get();
+    }
+
+    /**
+     * The state of one simulation thread.
+     */
+    private final class Worker {
+
+        private final ShardWriter writer;
+        private final GameEnvironment environment = new GameEnvironment(inputData, setup,
+                library);
+        private final Policy[] policies = {playerOne.get(), playerTwo.get()};
+        private final GameView view = new GameView();
+
+        private final int[] state = new int[StateEncoder.RECORD_SIZE];
+        private final boolean[] mask = new boolean[ActionSpace.SIZE];
+        private final ByteBuffer game;
+        private final byte[] movers;
+        private final StartGameInput archiveSetup = new StartGameInput();
+
+        private ByteBuffer block;
+
+        Worker(final ShardWriter writer) {
+            this.writer = writer;
+            this.game = ByteBuffer.allocate(maxDecisions * ShardWriter.RECORD_SIZE);
+            this.movers = new byte[maxDecisions];
+            this.block = writer.acquireBlock();
+
+            archiveSetup.setPlayerOneDeckIdx(environment.getPlayerOneDeckIdx());
+            archiveSetup.setPlayerTwoDeckIdx(environment.getPlayerTwoDeckIdx());
+            archiveSetup.setPlayerOneHero(setup.getPlayerOneHero());
+            archiveSetup.setPlayerTwoHero(setup.getPlayerTwoHero());
+            archiveSetup.setStartingPlayer(setup.getStartingPlayer());
+        }
+
+        /**
+         * Plays one game and queues its records.
+         *
+         * @param shuffleSeed the seed used to shuffle both decks
+         * @return the number of records of the game
+         */
+        int play(final long shuffleSeed) throws InterruptedException {
+            environment.reset(shuffleSeed);
+            game.clear();
+
+            int decisions = 0;
+            while (!environment.isDone() && decisions < maxDecisions) {
+                int playerIdx = environment.getCurrentPlayerIdx();
+                environment.bindView(view);
+                view.encode(state, 0);
+                environment.legalActionMask(mask);
+
+                long deadline = System.nanoTime() + budgetNanos;
+                int actionId = policies[playerIdx - 1].chooseAction(view, deadline);
+                if (System.nanoTime() > deadline || actionId < 0 || actionId >= ActionSpace.SIZE
+                        || !mask[actionId]) {
+                    actionId = ActionSpace.END_TURN;
+                }
+
+                ShardWriter.putRecord(game, state, 0, mask, actionId, 0);
+                movers[decisions++] = (byte) playerIdx;
+                environment.step(actionId);
+            }
+
+            int winner = environment.getWinner();
+            for (int i = 0; i < decisions; i++) {
+                int outcome = (winner == movers[i]) ? Constants.ONE : -Constants.ONE;
+                game.put(i * ShardWriter.RECORD_SIZE + ShardWriter.OUTCOME_OFFSET,
+                        (byte) ((winner == Constants.ZERO) ? Constants.ZERO : outcome));
+            }
+            if (archive != null) {
+                archiveGame(shuffleSeed, winner, decisions);
+            }
+
+            game.flip();
+            while (game.hasRemaining()) {
+                int length = Math.min(game.remaining(), block.remaining());
+                block.put(block.position(), game, game.position(), length);
+                block.position(block.position() + length);
+                game.position(game.position() + length);
+                if (!block.hasRemaining()) {
+                    writer.submit(block);
+                    block = writer.acquireBlock();
+                }
+            }
+            return decisions;
+        }
+
+        /**
+         * Appends the finished game to the archive, with the deck indices the environment
+         * played and the rounds started after the first one, as a {@code GameSummary} counts
+         * them.
+         */
+        private void archiveGame(final long shuffleSeed, final int winner, final int decisions) {
+            environment.bindView(view);
+            view.encode(state, 0);
+            try {
+                archive.append(SetupKey.of(inputData, archiveSetup, shuffleSeed, policyId),
+                        archiveSetup, shuffleSeed, winner, environment.getRound() - 1,
+                        decisions, state, 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Queues the records of the last, partially filled block.
+         */
+        void flush() throws InterruptedException {
+            writer.submit(block);
+            block = null;
+        }
+    }
+}
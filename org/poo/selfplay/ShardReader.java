@@ -0,0 +1,187 @@
+package org.poo.selfplay;
+
+import org.poo.state.StateEncoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the shards written by {@link ShardWriter}, one block at a time.
+ */
+public final class ShardReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final Inflater inflater = new Inflater();
+
+    private final long records;
+    private final long[] blockOffsets;
+    private final int[] blockLengths;
+    private final int[] blockCounts;
+
+    private ByteBuffer compressed = ByteBuffer.allocate(0);
+
+    /**
+     * Opens a shard and reads its index.
+     *
+     * @param path the shard file
+     * @throws IOException if the file cannot be read or is not a shard
+     */
+    public ShardReader(final Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        ByteBuffer header = read(0, ShardWriter.HEADER_SIZE);
+        if (header.getInt() != ShardWriter.MAGIC || header.getInt() != ShardWriter.VERSION
+                || header.getInt() != ShardWriter.RECORD_SIZE) {
+            channel.close();
+            throw new IOException("Not a self-play shard: " + path);
+        }
+        int blocks = header.getInt();
+        records = header.getLong();
+        long indexOffset = header.getLong();
+
+        blockOffsets = new long[blocks];
+        blockLengths = new int[blocks];
+        blockCounts = new int[blocks];
+        ByteBuffer index = read(indexOffset, blocks * ShardWriter.INDEX_ENTRY_SIZE);
+        for (int i = 0; i < blocks; i++) {
+            blockOffsets[i] = index.getLong();
+            blockLengths[i] = index.getInt();
+            blockCounts[i] = index.getInt();
+        }
+    }
+
+    private ByteBuffer read(final long position, final int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of shard.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Returns the number of blocks in the shard.
+     *
+     * @return the number of blocks
+     */
+    public int getBlocks() {
+        return blockCounts.length;
+    }
+
+    /**
+     * Returns the number of records in the shard.
+     *
+     * @return the number of records
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Returns the number of records in a block.
+     *
+     * @param block the index of the block
+     * @return the number of records
+     */
+    public int getBlockRecords(final int block) {
+        return blockCounts[block];
+    }
+
+    /**
+     * Decompresses a block.
+     *
+     * @param block the index of the block
+     * @param out   the destination buffer, with room for the whole block; it is cleared first
+     * @return the destination buffer, flipped, holding the records of the block
+     * @throws IOException if the block cannot be read or is corrupt
+     */
+    public ByteBuffer readBlock(final int block, final ByteBuffer out) throws IOException {
+        if (compressed.capacity() < blockLengths[block]) {
+            compressed = ByteBuffer.allocate(blockLengths[block]);
+        }
+        compressed.clear().limit(blockLengths[block]);
+        while (compressed.hasRemaining()) {
+            if (channel.read(compressed, blockOffsets[block] + compressed.position()) < 0) {
+                throw new IOException("Unexpected end of shard.");
+            }
+        }
+
+        out.clear();
+        inflater.reset();
+        inflater.setInput(compressed.array(), 0, blockLengths[block]);
+        try {
+            int length = inflater.inflate(out.array(), 0, out.capacity());
+            if (length != blockCounts[block] * ShardWriter.RECORD_SIZE) {
+                throw new IOException("Corrupt shard block " + block + ".");
+            }
+            out.limit(length);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt shard block " + block + ".", e);
+        }
+        return out;
+    }
+
+    /**
+     * Copies the encoded state of a record.
+     *
+     * @param block  the decompressed block
+     * @param record the index of the record in the block
+     * @param out    the destination array
+     * @param offset the index of the first value to write
+     */
+    public static void getState(final ByteBuffer block, final int record, final int[] out,
+                                final int offset) {
+        int base = record * ShardWriter.RECORD_SIZE;
+        for (int i = 0; i < StateEncoder.RECORD_SIZE; i++) {
+            out[offset + i] = block.getInt(base + i * Integer.BYTES);
+        }
+    }
+
+    /**
+     * Checks if an action was legal in the state of a record.
+     *
+     * @param block    the decompressed block
+     * @param record   the index of the record in the block
+     * @param actionId the action id
+     * @return true if the action was legal, false otherwise
+     */
+    public static boolean isLegal(final ByteBuffer block, final int record, final int actionId) {
+        int bits = block.get(record * ShardWriter.RECORD_SIZE + ShardWriter.MASK_OFFSET
+                + actionId / Byte.SIZE);
+        return (bits & (1 << (actionId % Byte.SIZE))) != 0;
+    }
+
+    /**
+     * Returns the action chosen in a record.
+     *
+     * @param block  the decompressed block
+     * @param record the index of the record in the block
+     * @return the action id
+     */
+    public static int getAction(final ByteBuffer block, final int record) {
+        return block.getShort(record * ShardWriter.RECORD_SIZE + ShardWriter.ACTION_OFFSET);
+    }
+
+    /**
+     * Returns the outcome of a record for the player that moved.
+     *
+     * @param block  the decompressed block
+     * @param record the index of the record in the block
+     * @return 1 for a win, -1 for a loss, 0 if the game was abandoned
+     */
+    public static int getOutcome(final ByteBuffer block, final int record) {
+        return block.get(record * ShardWriter.RECORD_SIZE + ShardWriter.OUTCOME_OFFSET);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+}
@@ -0,0 +1,343 @@
+package org.poo.selfplay;
+
+import org.poo.env.ActionSpace;
+import org.poo.state.StateEncoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Writes self-play records into size-bounded shard files. Simulation threads fill blocks of
+ * records and hand them over with {@link #submit(ByteBuffer)}; a background thread compresses
+ * every block and appends it to the current shard, so the simulation never waits for the disk
+ * unless the writer falls a whole queue behind. Blocks are recycled once written.
+ * <p>
+ * A shard starts with a {@link #HEADER_SIZE} byte header: magic, format version, record size,
+ * block count, record count and the offset of the block index. The blocks follow, each one
+ * deflated on its own, and the shard ends with the index: the offset, compressed length and
+ * record count of every block. Values are big-endian.
+ * <p>
+ * A record holds the {@link StateEncoder} encoding of the state, the legal action mask as a
+ * bitset, the chosen action id and the outcome for the player that moved: 1 for a win, -1 for a
+ * loss, 0 if the game was abandoned.
+ */
+public final class ShardWriter implements AutoCloseable {
+
+    public static final int MAGIC = 0x47575350;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int INDEX_ENTRY_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+    public static final int MASK_BYTES = (ActionSpace.SIZE + Byte.SIZE - 1) / Byte.SIZE;
+    public static final int MASK_OFFSET = StateEncoder.RECORD_SIZE * Integer.BYTES;
+    public static final int ACTION_OFFSET = MASK_OFFSET + MASK_BYTES;
+    public static final int OUTCOME_OFFSET = ACTION_OFFSET + Short.BYTES;
+
+    /**
+     * Number of bytes in one record.
+     */
+    public static final int RECORD_SIZE = OUTCOME_OFFSET + Byte.BYTES;
+
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final Path directory;
+    private final long maxShardBytes;
+    private final int blockRecords;
+
+    private final BlockingQueue<ByteBuffer> pending;
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    private volatile IOException failure;
+
+    private byte[] compressed = new byte[0];
+    private long[] blockOffsets = new long[Byte.SIZE];
+    private int[] blockLengths = new int[Byte.SIZE];
+    private int[] blockCounts = new int[Byte.SIZE];
+
+    private FileChannel shard;
+    private long shardBytes;
+    private long shardRecords;
+    private int shardBlocks;
+    private int shards;
+    private long records;
+
+    /**
+     * Creates a writer and starts its background thread.
+     *
+     * @param directory     the directory the shards are written to
+     * @param maxShardBytes the size a shard must not exceed, unless a single block is larger
+     * @param blockRecords  the number of records in a full block
+     * @param queueCapacity the number of blocks that may wait to be written
+     * @throws IOException if the directory cannot be created
+     */
+    public ShardWriter(final Path directory, final long maxShardBytes, final int blockRecords,
+                       final int queueCapacity) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxShardBytes = maxShardBytes;
+        this.blockRecords = blockRecords;
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+
+        writer = new Thread(this::write, "shard-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Appends a record to a block.
+     *
+     * @param block    the destination block, with room for the record
+     * @param state    the array holding the encoded state
+     * @param offset   the index of the first value of the state
+     * @param mask     the legality of every action id
+     * @param actionId the chosen action id
+     * @param outcome  the outcome for the player that moved
+     */
+    public static void putRecord(final ByteBuffer block, final int[] state, final int offset,
+                                 final boolean[] mask, final int actionId, final int outcome) {
+        for (int i = 0; i < StateEncoder.RECORD_SIZE; i++) {
+            block.putInt(state[offset + i]);
+        }
+        for (int i = 0; i < MASK_BYTES; i++) {
+            int bits = 0;
+            for (int bit = 0; bit < Byte.SIZE; bit++) {
+                int actionIdx = i * Byte.SIZE + bit;
+                if (actionIdx < ActionSpace.SIZE && mask[actionIdx]) {
+                    bits |= 1 << bit;
+                }
+            }
+            block.put((byte) bits);
+        }
+        block.putShort((short) actionId);
+        block.put((byte) outcome);
+    }
+
+    /**
+     * Returns an empty block, reusing one already written if possible.
+     *
+     * @return a block with room for {@link #getBlockRecords()} records
+     */
+    public ByteBuffer acquireBlock() {
+        ByteBuffer block = free.poll();
+        return (block != null) ? block : ByteBuffer.allocate(blockRecords * RECORD_SIZE);
+    }
+
+    /**
+     * Queues a block to be written. The block must come from {@link #acquireBlock()}, hold whole
+     * records from its start to its position, and must not be used afterwards.
+     *
+     * @param block the block to write
+     * @throws InterruptedException if interrupted while waiting for room in the queue
+     * @throws IllegalStateException if writing an earlier block failed
+     */
+    public void submit(final ByteBuffer block) throws InterruptedException {
+        if (failure != null) {
+            throw new IllegalStateException("Writing a shard failed.", failure);
+        }
+        if (block.position() == 0) {
+            free.offer(block);
+            return;
+        }
+        pending.put(block);
+    }
+
+    /**
+     * Returns the number of records in a full block.
+     *
+     * @return the number of records
+     */
+    public int getBlockRecords() {
+        return blockRecords;
+    }
+
+    /**
+     * Returns the number of shards written so far, counting the one being written.
+     *
+     * @return the number of shards
+     */
+    public synchronized int getShards() {
+        return shards;
+    }
+
+    /**
+     * Returns the number of records written so far.
+     *
+     * @return the number of records
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    /**
+     * Returns the path of a shard.
+     *
+     * @param index the index of the shard
+     * @return the path of the shard file
+     */
+    public Path shardPath(final int index) {
+        return directory.resolve(String.format("shard-%05d.bin", index));
+    }
+
+    /**
+     * Writes the queued blocks, completes the last shard and stops the background thread.
+     *
+     * @throws IOException if writing a shard failed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            pending.put(END);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the shard writer.", e);
+        } finally {
+            deflater.end();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the queued blocks until {@link #END}. Once writing fails, the thread keeps taking
+     * blocks and recycles them unwritten, so that neither {@link #submit(ByteBuffer)} nor
+     * {@link #close()} waits forever for room in the queue.
+     */
+    private void write() {
+        while (true) {
+            ByteBuffer block;
+            try {
+                block = pending.take();
+            } catch (InterruptedException e) {
+                fail(new IOException("The shard writer was interrupted.", e));
+                continue;
+            }
+            if (block == END) {
+                break;
+            }
+            if (failure == null) {
+                try {
+                    writeBlock(block);
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+            block.clear();
+            free.offer(block);
+        }
+        if (failure == null && shard != null) {
+            try {
+                finishShard();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * Records the first failure and closes the shard being written.
+     */
+    private void fail(final IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+        if (shard != null) {
+            try {
+                shard.close();
+            } catch (IOException closeFailure) {
+                failure.addSuppressed(closeFailure);
+            }
+            shard = null;
+        }
+    }
+
+    private void writeBlock(final ByteBuffer block) throws IOException {
+        deflater.reset();
+        deflater.setInput(block.array(), 0, block.position());
+        deflater.finish();
+
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, Math.max(RECORD_SIZE, 2 * length));
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        long indexBytes = (long) (shardBlocks + 1) * INDEX_ENTRY_SIZE;
+        if (shard != null && shardBlocks > 0
+                && shardBytes + length + indexBytes > maxShardBytes) {
+            finishShard();
+        }
+        if (shard == null) {
+            startShard();
+        }
+
+        ByteBuffer data = ByteBuffer.wrap(compressed, 0, length);
+        while (data.hasRemaining()) {
+            shard.write(data);
+        }
+
+        if (shardBlocks == blockOffsets.length) {
+            blockOffsets = Arrays.copyOf(blockOffsets, 2 * shardBlocks);
+            blockLengths = Arrays.copyOf(blockLengths, 2 * shardBlocks);
+            blockCounts = Arrays.copyOf(blockCounts, 2 * shardBlocks);
+        }
+        blockOffsets[shardBlocks] = shardBytes;
+        blockLengths[shardBlocks] = length;
+        blockCounts[shardBlocks] = block.position() / RECORD_SIZE;
+
+        shardBytes += length;
+        shardRecords += blockCounts[shardBlocks];
+        synchronized (this) {
+            records += blockCounts[shardBlocks];
+        }
+        shardBlocks++;
+    }
+
+    private void startShard() throws IOException {
+        Path path;
+        synchronized (this) {
+            path = shardPath(shards++);
+        }
+        shard = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        shard.position(HEADER_SIZE);
+        shardBytes = HEADER_SIZE;
+        shardRecords = 0;
+        shardBlocks = 0;
+    }
+
+    private void finishShard() throws IOException {
+        ByteBuffer index = ByteBuffer.allocate(shardBlocks * INDEX_ENTRY_SIZE);
+        for (int i = 0; i < shardBlocks; i++) {
+            index.putLong(blockOffsets[i]).putInt(blockLengths[i]).putInt(blockCounts[i]);
+        }
+        index.flip();
+        while (index.hasRemaining()) {
+            shard.write(index);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(shardBlocks)
+                .putLong(shardRecords).putLong(shardBytes);
+        header.flip();
+        while (header.hasRemaining()) {
+            shard.write(header, header.position());
+        }
+
+        shard.close();
+        shard = null;
+    }
+}
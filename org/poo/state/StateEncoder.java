@@ -0,0 +1,203 @@
+package org.poo.state;
+
+import org.poo.cards.Card;
+import org.poo.cards.Hero;
+import org.poo.cards.Minion;
+import org.poo.env.ActionSpace;
+import org.poo.game.Constants;
+import org.poo.player.DeckManager;
+import org.poo.player.Player;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Encodes a live game into a fixed-length record of {@link #RECORD_SIZE} ints.
+ * <p>
+ * The record holds one block of {@link #PLAYER_SIZE} ints per player followed by the index
+ * of the current player. A player block starts with {@link #PLAYER_FIELDS} values (hero id,
+ * hero mana, hero health, hero has attacked, mana, mana increment, turn ended, hand size, deck
+ * size, deck hash, hand overflow hash), followed by the front and back rows
+ * ({@link #TABLE_CARD_FIELDS} values per slot: type id, mana, attack, health, flags) and the
+ * first {@link ActionSpace#HAND_SLOTS} cards of the hand ({@link #HAND_CARD_FIELDS} values per
+ * slot). Empty slots are all zeros. The remaining deck and the cards past the last hand slot
+ * are folded into hashes, so equal records describe equal games with overwhelming probability.
+ * <p>
+ * None of the methods allocate.
+ */
+public final class StateEncoder {
+
+    /**
+     * Private constructor to prevent instantiation of the utility class.
+     */
+    private StateEncoder() { }
+
+    public static final int FROZEN_FLAG = 1;
+    public static final int ATTACKED_FLAG = 2;
+
+    public static final int PLAYER_FIELDS = 11;
+    public static final int TABLE_CARD_FIELDS = 5;
+    public static final int HAND_CARD_FIELDS = 4;
+    public static final int PLAYER_SIZE = PLAYER_FIELDS
+            + ActionSpace.OWN_SLOTS * TABLE_CARD_FIELDS
+            + ActionSpace.HAND_SLOTS * HAND_CARD_FIELDS;
+
+    /**
+     * Index of the hero health in a player block, the third of its {@link #PLAYER_FIELDS}.
+     */
+    public static final int HERO_HEALTH = 2;
+
+    /**
+     * Number of ints in a record.
+     */
+    public static final int RECORD_SIZE = 2 * PLAYER_SIZE + 1;
+
+    private static final int HASH_MULTIPLIER = 31;
+
+    /**
+     * Encodes a game with player one's block first.
+     *
+     * @param player1       player one
+     * @param player2       player two
+     * @param currentPlayer the player whose turn it is
+     * @param out           the destination array
+     * @param offset        the index of the first value to write
+     */
+    public static void encode(final Player player1, final Player player2,
+                              final Player currentPlayer, final int[] out, final int offset) {
+        encodePlayer(player1, out, offset);
+        encodePlayer(player2, out, offset + PLAYER_SIZE);
+        out[offset + 2 * PLAYER_SIZE] = currentPlayer.equals(player1) ? Constants.ONE
+                : Constants.TWO;
+    }
+
+    /**
+     * Encodes a game as if the two players swapped places: player two's block comes first and
+     * the current player index is swapped.
+     *
+     * @param player1       player one
+     * @param player2       player two
+     * @param currentPlayer the player whose turn it is
+     * @param out           the destination array
+     * @param offset        the index of the first value to write
+     */
+    public static void encodeMirrored(final Player player1, final Player player2,
+                                      final Player currentPlayer, final int[] out,
+                                      final int offset) {
+        encode(player2, player1, currentPlayer, out, offset);
+    }
+
+    /**
+     * Encodes a game in canonical form: the smaller (lexicographically) of the normal and the
+     * mirrored encodings, so a game and its player-swapped copy share the same record.
+     *
+     * @param player1       player one
+     * @param player2       player two
+     * @param currentPlayer the player whose turn it is
+     * @param out           the destination array
+     * @param offset        the index of the first value to write
+     * @param scratch       a work array of at least {@link #RECORD_SIZE} ints
+     * @return true if the mirrored encoding was chosen, false otherwise
+     */
+    public static boolean encodeCanonical(final Player player1, final Player player2,
+                                          final Player currentPlayer, final int[] out,
+                                          final int offset, final int[] scratch) {
+        encode(player1, player2, currentPlayer, out, offset);
+        encodeMirrored(player1, player2, currentPlayer, scratch, 0);
+
+        if (Arrays.compare(scratch, 0, RECORD_SIZE, out, offset, offset + RECORD_SIZE) < 0) {
+            System.arraycopy(scratch, 0, out, offset, RECORD_SIZE);
+            return true;
+        }
+        return false;
+    }
+
+    private static void encodePlayer(final Player player, final int[] out, final int offset) {
+        Hero hero = player.getHero();
+        ArrayList<Minion> hand = player.getCardsInHand();
+        DeckManager deckManager = player.getDeckManager();
+
+        int i = offset;
+        out[i++] = Card.getHeroId(hero.getName());
+        out[i++] = hero.getMana();
+        out[i++] = hero.getHealth();
+        out[i++] = hero.getHasAttacked() ? 1 : 0;
+        out[i++] = player.getManaManager().getMana();
+        out[i++] = player.getManaManager().getManaIncrement();
+        out[i++] = player.hasTurnEnded() ? 1 : 0;
+        out[i++] = hand.size();
+        out[i++] = deckManager.getDeckSize();
+        out[i++] = deckManager.hashCurrentDeck();
+        out[i++] = hashCards(hand, ActionSpace.HAND_SLOTS);
+
+        i = encodeRow(player.getFrontRow(), out, i);
+        i = encodeRow(player.getBackRow(), out, i);
+
+        for (int slot = 0; slot < ActionSpace.HAND_SLOTS; slot++) {
+            Minion card = (slot < hand.size()) ? hand.get(slot) : null;
+            out[i++] = (card != null) ? card.getTypeId() : 0;
+            out[i++] = (card != null) ? card.getMana() : 0;
+            out[i++] = (card != null) ? card.getAttackDamage() : 0;
+            out[i++] = (card != null) ? card.getHealth() : 0;
+        }
+    }
+
+    private static int encodeRow(final ArrayList<Minion> row, final int[] out, final int offset) {
+        int i = offset;
+        for (int slot = 0; slot < ActionSpace.ROW_SLOTS; slot++) {
+            Minion card = (slot < row.size()) ? row.get(slot) : null;
+            out[i++] = (card != null) ? card.getTypeId() : 0;
+            out[i++] = (card != null) ? card.getMana() : 0;
+            out[i++] = (card != null) ? card.getAttackDamage() : 0;
+            out[i++] = (card != null) ? card.getHealth() : 0;
+            out[i++] = (card != null) ? flags(card) : 0;
+        }
+        return i;
+    }
+
+    private static int flags(final Minion card) {
+        return (card.isFrozen() ? FROZEN_FLAG : 0) | (card.getHasAttacked() ? ATTACKED_FLAG : 0);
+    }
+
+    private static int hashCards(final ArrayList<Minion> cards, final int from) {
+        int hash = 0;
+        for (int i = from; i < cards.size(); i++) {
+            Minion card = cards.get(i);
+            hash = hash * HASH_MULTIPLIER + DeckManager.hashCard(card.getTypeId(),
+                    card.getMana(), card.getAttackDamage(), card.getHealth());
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes a record stored in an array, consistently with {@link StateRecord#hashCode()}.
+     *
+     * @param record the array holding the record
+     * @param offset the index of the first value of the record
+     * @return the hash of the record
+     */
+    public static int hash(final int[] record, final int offset) {
+        int hash = 1;
+        for (int i = offset; i < offset + RECORD_SIZE; i++) {
+            hash = hash * HASH_MULTIPLIER + record[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Writes a record stored in an array into a byte buffer, as {@link #RECORD_SIZE} ints in the
+     * buffer's byte order, without changing its position.
+     *
+     * @param record the array holding the record
+     * @param offset the index of the first value of the record
+     * @param buffer the destination buffer
+     * @param index  the index of the first byte to write
+     */
+    public static void writeTo(final int[] record, final int offset, final ByteBuffer buffer,
+                               final int index) {
+        for (int i = 0; i < RECORD_SIZE; i++) {
+            buffer.putInt(index + i * Integer.BYTES, record[offset + i]);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.poo.state;
+
+import java.util.Arrays;
+
+/**
+ * An immutable game state record, as produced by {@link StateEncoder}, usable as a key in hash
+ * based collections. The hash is computed once, and equality compares the raw ints.
+ */
+public final class StateRecord {
+
+    private final int[] values;
+    private final int hash;
+
+    private StateRecord(final int[] values) {
+        this.values = values;
+        this.hash = StateEncoder.hash(values, 0);
+    }
+
+    /**
+     * Creates a record from a copy of an encoded state.
+     *
+     * @param record the array holding the encoded state
+     * @param offset the index of the first value of the state
+     * @return the record
+     */
+    public static StateRecord copyOf(final int[] record, final int offset) {
+        return new StateRecord(Arrays.copyOfRange(record, offset,
+                offset + StateEncoder.RECORD_SIZE));
+    }
+
+    /**
+     * Returns one value of the record.
+     *
+     * @param index the index of the value
+     * @return the value
+     */
+    public int get(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Copies the record into an array.
+     *
+     * @param out    the destination array
+     * @param offset the index of the first value to write
+     */
+    public void copyTo(final int[] out, final int offset) {
+        System.arraycopy(values, 0, out, offset, values.length);
+    }
+
+    /**
+     * Checks if the record holds the same values as an encoded state, without allocating.
+     *
+     * @param record the array holding the encoded state
+     * @param offset the index of the first value of the state
+     * @return true if the values are equal, false otherwise
+     */
+    public boolean matches(final int[] record, final int offset) {
+        return Arrays.equals(values, 0, values.length, record, offset, offset + values.length);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StateRecord)) {
+            return false;
+        }
+        StateRecord other = (StateRecord) o;
+        return hash == other.hash && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
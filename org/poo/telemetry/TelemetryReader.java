@@ -0,0 +1,181 @@
+package org.poo.telemetry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the records of a file written by {@link TelemetryWriter}. The file is memory-mapped and
+ * every getter reads one field of one record in place, so the records can be read from any
+ * number of threads.
+ */
+public final class TelemetryReader {
+
+    private static final int UNSIGNED_BYTE = 0xFF;
+
+    private final ByteBuffer records;
+    private final int count;
+
+    /**
+     * Maps a telemetry file. A partial record left at the end by an interrupted run is ignored.
+     *
+     * @param file the telemetry file
+     * @throws IOException if the file cannot be mapped or is not a telemetry file
+     */
+    public TelemetryReader(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The telemetry file is too large to map: " + file);
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.limit() < TelemetryWriter.HEADER_SIZE
+                    || mapped.getInt(0) != TelemetryWriter.MAGIC
+                    || mapped.getInt(Integer.BYTES) != TelemetryWriter.VERSION
+                    || mapped.getInt(2 * Integer.BYTES) != TelemetryWriter.RECORD_SIZE) {
+                throw new IOException("Not a telemetry file: " + file);
+            }
+            records = mapped.slice(TelemetryWriter.HEADER_SIZE,
+                    mapped.limit() - TelemetryWriter.HEADER_SIZE);
+            count = records.limit() / TelemetryWriter.RECORD_SIZE;
+        }
+    }
+
+    private int at(final int record, final int offset) {
+        return record * TelemetryWriter.RECORD_SIZE + offset;
+    }
+
+    private int getCount(final int record, final int offset) {
+        return records.get(at(record, offset)) & UNSIGNED_BYTE;
+    }
+
+    /**
+     * Returns the number of records.
+     *
+     * @return the number of records
+     */
+    public int getRecords() {
+        return count;
+    }
+
+    /**
+     * Returns the session of a record.
+     *
+     * @param record the index of the record
+     * @return the index of the session, counted by the writer
+     */
+    public int getSession(final int record) {
+        return records.getInt(at(record, TelemetryWriter.SESSION_OFFSET));
+    }
+
+    /**
+     * Returns the round of a record.
+     *
+     * @param record the index of the record
+     * @return the round of the session, from 1
+     */
+    public int getRound(final int record) {
+        return records.getInt(at(record, TelemetryWriter.ROUND_OFFSET));
+    }
+
+    /**
+     * Returns the player of a record.
+     *
+     * @param record the index of the record
+     * @return the index of the player
+     */
+    public int getPlayerIdx(final int record) {
+        return records.get(at(record, TelemetryWriter.PLAYER_OFFSET));
+    }
+
+    /**
+     * Returns the mana of the player at the start of the round.
+     *
+     * @param record the index of the record
+     * @return the mana
+     */
+    public int getMana(final int record) {
+        return records.getInt(at(record, TelemetryWriter.MANA_OFFSET));
+    }
+
+    /**
+     * Returns the mana the player gained at the start of the round.
+     *
+     * @param record the index of the record
+     * @return the mana increment
+     */
+    public int getManaIncrement(final int record) {
+        return getCount(record, TelemetryWriter.MANA_INCREMENT_OFFSET);
+    }
+
+    /**
+     * Returns the health of the player's hero.
+     *
+     * @param record the index of the record
+     * @return the hero health
+     */
+    public int getHeroHealth(final int record) {
+        return records.getShort(at(record, TelemetryWriter.HERO_HEALTH_OFFSET));
+    }
+
+    /**
+     * Returns the number of minions of the player's front row.
+     *
+     * @param record the index of the record
+     * @return the number of minions
+     */
+    public int getFrontRowMinions(final int record) {
+        return getCount(record, TelemetryWriter.FRONT_ROW_OFFSET);
+    }
+
+    /**
+     * Returns the number of minions of the player's back row.
+     *
+     * @param record the index of the record
+     * @return the number of minions
+     */
+    public int getBackRowMinions(final int record) {
+        return getCount(record, TelemetryWriter.BACK_ROW_OFFSET);
+    }
+
+    /**
+     * Returns the total attack damage of the player's minions.
+     *
+     * @param record the index of the record
+     * @return the attack damage
+     */
+    public int getBoardAttack(final int record) {
+        return records.getShort(at(record, TelemetryWriter.BOARD_ATTACK_OFFSET));
+    }
+
+    /**
+     * Returns the total health of the player's minions.
+     *
+     * @param record the index of the record
+     * @return the health
+     */
+    public int getBoardHealth(final int record) {
+        return records.getShort(at(record, TelemetryWriter.BOARD_HEALTH_OFFSET));
+    }
+
+    /**
+     * Returns the number of cards in the player's hand.
+     *
+     * @param record the index of the record
+     * @return the hand size
+     */
+    public int getHandSize(final int record) {
+        return getCount(record, TelemetryWriter.HAND_OFFSET);
+    }
+
+    /**
+     * Returns the number of cards left in the player's deck.
+     *
+     * @param record the index of the record
+     * @return the deck size
+     */
+    public int getDeckSize(final int record) {
+        return getCount(record, TelemetryWriter.DECK_OFFSET);
+    }
+}
@@ -0,0 +1,229 @@
+package org.poo.telemetry;
+
+import org.poo.player.Player;
+import org.poo.player.RowStats;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Records one fixed-size record per player at the start of every round of the sessions played
+ * by {@link org.poo.game.Game}, as installed by
+ * {@link org.poo.game.Game#setTelemetry(TelemetryWriter)}.
+ * <p>
+ * Records are written into one of two buffers. When it is full, it is handed to a background
+ * thread that appends it to the file, and the game goes on with the other buffer; the game
+ * only waits if the disk is slower than a whole buffer of rounds. A writer takes records from
+ * one game thread at a time.
+ * <p>
+ * The file starts with a {@link #HEADER_SIZE} byte header: magic, format version and record
+ * size. A record of {@link #RECORD_SIZE} bytes holds the session index (counted by the
+ * writer), the round of the session (from 1), the mana, the hero health, the total attack
+ * damage and health of the minions on the board, the player index, the mana increment, the
+ * number of minions of the front and back rows, the hand size and the number of cards left in
+ * the deck. Values are big-endian; counts above 255 are stored as 255.
+ */
+public final class TelemetryWriter implements AutoCloseable {
+
+    public static final int MAGIC = 0x47575454;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    public static final int SESSION_OFFSET = 0;
+    public static final int ROUND_OFFSET = SESSION_OFFSET + Integer.BYTES;
+    public static final int MANA_OFFSET = ROUND_OFFSET + Integer.BYTES;
+    public static final int HERO_HEALTH_OFFSET = MANA_OFFSET + Integer.BYTES;
+    public static final int BOARD_ATTACK_OFFSET = HERO_HEALTH_OFFSET + Short.BYTES;
+    public static final int BOARD_HEALTH_OFFSET = BOARD_ATTACK_OFFSET + Short.BYTES;
+    public static final int PLAYER_OFFSET = BOARD_HEALTH_OFFSET + Short.BYTES;
+    public static final int MANA_INCREMENT_OFFSET = PLAYER_OFFSET + Byte.BYTES;
+    public static final int FRONT_ROW_OFFSET = MANA_INCREMENT_OFFSET + Byte.BYTES;
+    public static final int BACK_ROW_OFFSET = FRONT_ROW_OFFSET + Byte.BYTES;
+    public static final int HAND_OFFSET = BACK_ROW_OFFSET + Byte.BYTES;
+    public static final int DECK_OFFSET = HAND_OFFSET + Byte.BYTES;
+
+    /**
+     * Number of bytes in one record.
+     */
+    public static final int RECORD_SIZE = DECK_OFFSET + Byte.BYTES;
+
+    private static final int MAX_COUNT = 0xFF;
+    private static final int FRONT_ROW = 1;
+    private static final int BACK_ROW = 0;
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final FileChannel channel;
+    private final BlockingQueue<ByteBuffer> full = new ArrayBlockingQueue<>(1);
+    private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(1);
+    private final Thread writer;
+
+    private volatile IOException failure;
+
+    private ByteBuffer active;
+    private int session = -1;
+    private int round;
+    private long records;
+
+    /**
+     * Creates a writer, truncating the file, and starts its background thread.
+     *
+     * @param file          the telemetry file
+     * @param bufferRecords the number of records of each of the two buffers
+     * @throws IOException if the file cannot be opened
+     */
+    public TelemetryWriter(final Path file, final int bufferRecords) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        int capacity = Math.max(1, bufferRecords) * RECORD_SIZE;
+        active = ByteBuffer.allocateDirect(capacity);
+        free.add(ByteBuffer.allocateDirect(capacity));
+        active.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE);
+
+        writer = new Thread(this::write, "telemetry-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records the first round of a new session.
+     *
+     * @param player1 player one
+     * @param player2 player two
+     */
+    public void sessionStarted(final Player player1, final Player player2) {
+        session++;
+        round = 0;
+        roundStarted(player1, player2);
+    }
+
+    /**
+     * Records the start of the next round of the current session.
+     *
+     * @param player1 player one
+     * @param player2 player two
+     */
+    public void roundStarted(final Player player1, final Player player2) {
+        round++;
+        record(player1, 1);
+        record(player2, 2);
+    }
+
+    private void record(final Player player, final int playerIdx) {
+        if (active.remaining() < RECORD_SIZE) {
+            swap();
+        }
+        RowStats front = player.getRowStats(FRONT_ROW);
+        RowStats back = player.getRowStats(BACK_ROW);
+
+        active.putInt(session);
+        active.putInt(round);
+        active.putInt(player.getManaManager().getMana());
+        active.putShort((short) player.getHero().getHealth());
+        active.putShort((short) (front.getAttack() + back.getAttack()));
+        active.putShort((short) (front.getHealth() + back.getHealth()));
+        active.put((byte) playerIdx);
+        active.put(count(player.getManaManager().getManaIncrement()));
+        active.put(count(front.getMinions()));
+        active.put(count(back.getMinions()));
+        active.put(count(player.getCardsInHand().size()));
+        active.put(count(player.getDeckManager().getDeckSize()));
+        records++;
+    }
+
+    private static byte count(final int value) {
+        return (byte) Math.min(value, MAX_COUNT);
+    }
+
+    /**
+     * Hands the active buffer to the background thread and takes the other one.
+     */
+    private void swap() {
+        if (failure != null) {
+            throw new IllegalStateException("Writing the telemetry failed.", failure);
+        }
+        try {
+            handOff();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing the telemetry.", e);
+        }
+    }
+
+    private void handOff() throws InterruptedException {
+        full.put(active.flip());
+        active = free.take();
+    }
+
+    private void write() {
+        try {
+            while (true) {
+                ByteBuffer buffer = full.take();
+                if (buffer == END) {
+                    return;
+                }
+                try {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+                free.put(buffer.clear());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of records taken so far.
+     *
+     * @return the number of records
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Writes the remaining records, stops the background thread and closes the file. If a
+     * write already failed, the remaining records are dropped and the failure is thrown once
+     * the thread is stopped.
+     *
+     * @throws IOException if writing failed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (failure == null && active.position() > 0) {
+                handOff();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopWriter();
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Queues the end of the records and waits for the background thread, interrupting it if
+     * the wait is interrupted.
+     */
+    private void stopWriter() {
+        try {
+            full.put(END);
+            writer.join();
+        } catch (InterruptedException e) {
+            writer.interrupt();
+            Thread.currentThread().interrupt();
+        }
+    }
+}